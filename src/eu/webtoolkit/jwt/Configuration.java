@@ -209,7 +209,11 @@ public class Configuration {
 	private String originalIPHeader = "X-Forwarded-For";
 	private List<Network> trustedProxies = Collections.emptyList();
 	private boolean webSocketsEnabled = false;
+	private boolean webSocketAsyncPush = false;
 	private long asyncContextTimeout = 90000;
+	private boolean responseCompression = false;
+	private int responseCompressionThreshold = 1024;
+	private String resourcesCacheControl = "public, max-age=86400";
 
 	private Collection<String> allowedOrigins_ = Collections.<String>emptySet();
 
@@ -331,6 +335,12 @@ public class Configuration {
 						parseHttpHeaders(errorMessage, node);
 					} else if (node.getNodeName().equalsIgnoreCase("use-script-nonce")) {
 						setUseScriptNonce(parseBoolean(errorMessage, node));
+					} else if (node.getNodeName().equalsIgnoreCase("response-compression")) {
+						setResponseCompression(parseBoolean(errorMessage, node));
+					} else if (node.getNodeName().equalsIgnoreCase("response-compression-threshold")) {
+						setResponseCompressionThreshold(parseInt(errorMessage, node));
+					} else if (node.getNodeName().equalsIgnoreCase("resources-cache-control")) {
+						setResourcesCacheControl(node.getTextContent().trim());
 					}
 				}
 			}
@@ -380,6 +390,14 @@ public class Configuration {
 		}
 	}
 
+	private int parseInt(String errorMessage, Node n) {
+		try {
+			return Integer.parseInt(n.getTextContent().trim());
+		} catch (NumberFormatException e) {
+			throw new RuntimeException(errorMessage + "Cannot parse integer value from element " + n.getNodeName());
+		}
+	}
+
 	private void parseClientSideErrorReportLevel(String errorMessage, Node n) {
 		String text = n.getTextContent().trim();
 		if (text.equalsIgnoreCase("all")) {
@@ -995,6 +1013,32 @@ public class Configuration {
 		return webSocketsEnabled;
 	}
 
+	/**
+	 * Configures whether updates are sent asynchronously over web sockets.
+	 * <p>
+	 * By default, a web socket message is written while holding the session lock,
+	 * blocking until the browser has received it. When enabled, the message is
+	 * rendered in a buffer and sent asynchronously. While a message is in flight,
+	 * server push updates are postponed (and thus accumulate) until it has been
+	 * sent, and responses to browser requests are queued and sent together.
+	 * <p>
+	 * The default is <code>false</code>.
+	 *
+	 * @see #setWebSocketsEnabled(boolean)
+	 */
+	public void setWebSocketAsyncPush(boolean enabled) {
+		this.webSocketAsyncPush = enabled;
+	}
+
+	/**
+	 * Returns whether updates are sent asynchronously over web sockets.
+	 *
+	 * @see #setWebSocketAsyncPush(boolean)
+	 */
+	public boolean isWebSocketAsyncPush() {
+		return this.webSocketAsyncPush;
+	}
+
 	/*
 	 * The following are not yet enabled for JWt
 	 */
@@ -1266,4 +1310,73 @@ public class Configuration {
 	public void setAsyncContextTimeout(long asyncContextTimeout) {
 		this.asyncContextTimeout = asyncContextTimeout;
 	}
+
+	/**
+	 * Configures whether JavaScript and HTML responses are compressed.
+	 * <p>
+	 * When enabled, Page, Script and Update responses are gzip encoded if the
+	 * browser accepts this and the response is at least
+	 * {@link #getResponseCompressionThreshold()} characters long. WebSocket
+	 * messages are never compressed.
+	 * <p>
+	 * The default is <code>false</code>, leaving compression to the servlet
+	 * container or a reverse proxy.
+	 */
+	public void setResponseCompression(boolean enable) {
+		this.responseCompression = enable;
+	}
+
+	/**
+	 * Returns whether JavaScript and HTML responses are compressed.
+	 *
+	 * @see #setResponseCompression(boolean)
+	 */
+	public boolean isResponseCompression() {
+		return this.responseCompression;
+	}
+
+	/**
+	 * Sets the minimum response size for compression.
+	 * <p>
+	 * Smaller responses are sent as is, since compressing them costs more
+	 * than it saves. The default is 1024.
+	 *
+	 * @see #setResponseCompression(boolean)
+	 */
+	public void setResponseCompressionThreshold(int size) {
+		this.responseCompressionThreshold = size;
+	}
+
+	/**
+	 * Returns the minimum response size for compression.
+	 *
+	 * @see #setResponseCompressionThreshold(int)
+	 */
+	public int getResponseCompressionThreshold() {
+		return this.responseCompressionThreshold;
+	}
+
+	/**
+	 * Sets the Cache-Control header for files served from the resources URL.
+	 * <p>
+	 * These files are served with an ETag and Last-Modified header, so that an
+	 * expired copy is revalidated with a 304 response. The resource URLs are not
+	 * versioned, so marking them "immutable" with a long max-age is only safe when
+	 * the resources URL changes with every JWt upgrade (see
+	 * {@link WApplication#RESOURCES_URL}).
+	 * <p>
+	 * The default is "public, max-age=86400". An empty value omits the header.
+	 */
+	public void setResourcesCacheControl(String cacheControl) {
+		this.resourcesCacheControl = cacheControl;
+	}
+
+	/**
+	 * Returns the Cache-Control header for files served from the resources URL.
+	 *
+	 * @see #setResourcesCacheControl(String)
+	 */
+	public String getResourcesCacheControl() {
+		return this.resourcesCacheControl;
+	}
 }
@@ -54,7 +54,7 @@ public final class ItemDataRole implements Comparable<ItemDataRole> {
 	 * }</pre>
 	 */
 	public static ItemDataRole of(int role) {
-		if (role < predefined_.length &&
+		if (role >= 0 && role < predefined_.length &&
 				predefined_[role] != null)
 			return predefined_[role];
 		else
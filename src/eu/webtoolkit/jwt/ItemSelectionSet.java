@@ -0,0 +1,641 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * The set of selected indexes of a {@link WItemSelectionModel}.
+ * <p>
+ * Top level indexes (indexes without a parent) are stored as ranges of rows, per column, so that
+ * selecting a large block of rows of a table does not require a {@link WModelIndex} per row. The
+ * model indexes are only created when iterating the set. Indexes with a parent are kept in a
+ * {@link TreeSet}.
+ * <p>
+ * The set iterates in the topological order of {@link WModelIndex#compareTo(WModelIndex)}, like
+ * the <code>TreeSet</code> it replaces. Iterators do not copy the set: they look up the next
+ * index in the ranges as they go, and an index may be removed while iterating. The sets returned
+ * by {@link #headSet(WModelIndex)}, {@link #tailSet(WModelIndex)} and
+ * {@link #subSet(WModelIndex, WModelIndex)} are views, backed by this set.
+ */
+class ItemSelectionSet extends AbstractSet<WModelIndex> implements SortedSet<WModelIndex> {
+	/**
+	 * A set of rows, stored as disjoint and non-adjacent ranges.
+	 */
+	static class RowRanges {
+		private final TreeMap<Integer, Integer> ranges = new TreeMap<Integer, Integer>();
+		private int count = 0;
+
+		/**
+		 * Returns the number of rows.
+		 */
+		int size() {
+			return count;
+		}
+
+		boolean isEmpty() {
+			return count == 0;
+		}
+
+		/**
+		 * Returns whether a row is contained.
+		 */
+		boolean contains(int row) {
+			Map.Entry<Integer, Integer> e = ranges.floorEntry(row);
+			return e != null && e.getValue() >= row;
+		}
+
+		/**
+		 * Adds the rows <code>from</code> to <code>to</code> (inclusive), and returns the number of
+		 * rows that were not yet contained.
+		 */
+		int add(int from, int to) {
+			int start = from;
+			int end = to;
+			Map.Entry<Integer, Integer> e = ranges.lowerEntry(from);
+			if (e != null && e.getValue() >= from - 1) {
+				start = e.getKey();
+				end = Math.max(end, e.getValue());
+			}
+
+			int existing = 0;
+			for (Iterator<Map.Entry<Integer, Integer>> i = ranges.subMap(start, true, end + 1, true).entrySet()
+					.iterator(); i.hasNext();) {
+				Map.Entry<Integer, Integer> r = i.next();
+				existing += r.getValue() - r.getKey() + 1;
+				end = Math.max(end, r.getValue());
+				i.remove();
+			}
+
+			ranges.put(start, end);
+			int added = end - start + 1 - existing;
+			count += added;
+			return added;
+		}
+
+		/**
+		 * Removes the rows <code>from</code> to <code>to</code> (inclusive), and returns the number of
+		 * rows that were contained.
+		 */
+		int remove(int from, int to) {
+			int removed = 0;
+			Map.Entry<Integer, Integer> e = ranges.lowerEntry(from);
+			if (e != null && e.getValue() >= from) {
+				ranges.put(e.getKey(), from - 1);
+				if (e.getValue() > to)
+					ranges.put(to + 1, e.getValue());
+				removed += Math.min(e.getValue(), to) - from + 1;
+			}
+
+			NavigableMap<Integer, Integer> inside = ranges.subMap(from, true, to, true);
+			if (!inside.isEmpty()) {
+				Map.Entry<Integer, Integer> last = inside.lastEntry();
+				for (Map.Entry<Integer, Integer> r : inside.entrySet())
+					removed += Math.min(r.getValue(), to) - r.getKey() + 1;
+				inside.clear();
+				if (last.getValue() > to)
+					ranges.put(to + 1, last.getValue());
+			}
+
+			count -= removed;
+			return removed;
+		}
+
+		/**
+		 * Shifts the rows for an insertion (<code>count</code> &gt; 0) or removal (<code>count</code>
+		 * &lt; 0) of rows at <code>start</code>, and returns the number of rows that were removed.
+		 * <p>
+		 * The cost is proportional to the number of ranges that follow <code>start</code>, not to
+		 * the number of rows.
+		 */
+		int shift(int start, int count) {
+			int removed = 0;
+			if (count < 0)
+				removed = remove(start, start - count - 1);
+			else {
+				Map.Entry<Integer, Integer> e = ranges.lowerEntry(start);
+				if (e != null && e.getValue() >= start) {
+					ranges.put(e.getKey(), start - 1);
+					ranges.put(start, e.getValue());
+				}
+			}
+
+			NavigableMap<Integer, Integer> tail = ranges.tailMap(start, true);
+			if (!tail.isEmpty()) {
+				List<int[]> moved = new ArrayList<int[]>(tail.size());
+				for (Map.Entry<Integer, Integer> r : tail.entrySet())
+					moved.add(new int[] { r.getKey() + count, r.getValue() + count });
+				tail.clear();
+				for (int[] r : moved)
+					ranges.put(r[0], r[1]);
+			}
+
+			if (count < 0) {
+				Map.Entry<Integer, Integer> before = ranges.lowerEntry(start);
+				Integer after = ranges.get(start);
+				if (before != null && after != null && before.getValue() == start - 1) {
+					ranges.remove(start);
+					ranges.put(before.getKey(), after);
+				}
+			}
+
+			return removed;
+		}
+
+		int first() {
+			return ranges.firstKey();
+		}
+
+		int last() {
+			return ranges.lastEntry().getValue();
+		}
+
+		/**
+		 * Returns the first contained row at or after <code>row</code>, or
+		 * <code>Integer.MAX_VALUE</code> if there is none.
+		 */
+		int ceiling(int row) {
+			Map.Entry<Integer, Integer> e = ranges.floorEntry(row);
+			if (e != null && e.getValue() >= row)
+				return row;
+			Integer next = ranges.higherKey(row);
+			return next != null ? next : Integer.MAX_VALUE;
+		}
+	}
+
+	private WAbstractItemModel model;
+	private final TreeMap<Integer, RowRanges> columns = new TreeMap<Integer, RowRanges>();
+	private final TreeSet<WModelIndex> nested = new TreeSet<WModelIndex>();
+
+	/**
+	 * Creates an empty set.
+	 */
+	ItemSelectionSet() {
+		this.model = null;
+	}
+
+	/**
+	 * Creates a set with the given indexes.
+	 */
+	ItemSelectionSet(Collection<WModelIndex> indexes) {
+		this();
+		addAll(indexes);
+	}
+
+	@Override
+	public int size() {
+		int result = nested.size();
+		for (RowRanges r : columns.values())
+			result += r.size();
+		return result;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return columns.isEmpty() && nested.isEmpty();
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		if (!(o instanceof WModelIndex))
+			return false;
+		WModelIndex index = (WModelIndex) o;
+		if (isRanged(index)) {
+			RowRanges r = columns.get(index.getColumn());
+			return r != null && r.contains(index.getRow());
+		} else
+			return nested.contains(index);
+	}
+
+	@Override
+	public boolean add(WModelIndex index) {
+		if (index.getParent() == null && model == null)
+			model = index.getModel();
+		if (isRanged(index))
+			return addRange(index.getColumn(), index.getRow(), index.getRow()) != 0;
+		else
+			return nested.add(index);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!(o instanceof WModelIndex))
+			return false;
+		WModelIndex index = (WModelIndex) o;
+		if (isRanged(index))
+			return removeRange(index.getColumn(), index.getRow(), index.getRow()) != 0;
+		else
+			return nested.remove(index);
+	}
+
+	@Override
+	public void clear() {
+		columns.clear();
+		nested.clear();
+	}
+
+	/**
+	 * Adds the top level rows <code>from</code> to <code>to</code> (inclusive) of a column of a
+	 * model, and returns the number of indexes that were added.
+	 */
+	int addRange(WAbstractItemModel model, int column, int from, int to) {
+		if (this.model == null)
+			this.model = model;
+		if (this.model != model) {
+			int added = 0;
+			for (int row = from; row <= to; ++row)
+				if (nested.add(model.getIndex(row, column)))
+					++added;
+			return added;
+		}
+		return addRange(column, from, to);
+	}
+
+	private int addRange(int column, int from, int to) {
+		RowRanges r = columns.get(column);
+		if (r == null) {
+			r = new RowRanges();
+			columns.put(column, r);
+		}
+		return r.add(from, to);
+	}
+
+	private int removeRange(int column, int from, int to) {
+		RowRanges r = columns.get(column);
+		if (r == null)
+			return 0;
+		int removed = r.remove(from, to);
+		if (r.isEmpty())
+			columns.remove(column);
+		return removed;
+	}
+
+	/**
+	 * Returns whether an index of the same row as the given index is contained.
+	 */
+	boolean containsRow(WModelIndex index) {
+		if (isRanged(index)) {
+			for (RowRanges r : columns.values())
+				if (r.contains(index.getRow()))
+					return true;
+			return false;
+		} else {
+			WModelIndex parent = index.getParent();
+			for (WModelIndex i : nested)
+				if (i.getRow() == index.getRow()
+						&& (i.getParent() == parent || (i.getParent() != null && i.getParent().equals(parent))))
+					return true;
+			return false;
+		}
+	}
+
+	/**
+	 * Returns whether an index is contained in a top level row at or below <code>start</code>, or
+	 * in a descendant of such a row.
+	 */
+	boolean hasRowsFrom(int start) {
+		for (RowRanges r : columns.values())
+			if (r.last() >= start)
+				return true;
+		for (WModelIndex i : nested)
+			if (topLevelRow(i) >= start)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Shifts the indexes for an insertion (<code>count</code> &gt; 0) or removal (<code>count</code>
+	 * &lt; 0) of top level rows at <code>start</code>.
+	 * <p>
+	 * Indexes in removed rows, and their descendants, are removed. Returns the number of top level
+	 * indexes that were removed.
+	 */
+	int shiftRows(int start, int count) {
+		int removed = 0;
+		for (Iterator<RowRanges> i = columns.values().iterator(); i.hasNext();) {
+			RowRanges r = i.next();
+			removed += r.shift(start, count);
+			if (r.isEmpty())
+				i.remove();
+		}
+
+		if (count < 0) {
+			for (Iterator<WModelIndex> i = nested.iterator(); i.hasNext();) {
+				int row = topLevelRow(i.next());
+				if (row >= start && row < start - count)
+					i.remove();
+			}
+		}
+
+		return removed;
+	}
+
+	/**
+	 * Shifts the top level indexes for an insertion (<code>count</code> &gt; 0) or removal
+	 * (<code>count</code> &lt; 0) of columns at <code>start</code>, and returns whether this changed
+	 * the set.
+	 */
+	boolean shiftColumns(int start, int count) {
+		NavigableMap<Integer, RowRanges> tail = columns.tailMap(start, true);
+		if (tail.isEmpty())
+			return false;
+
+		List<Map.Entry<Integer, RowRanges>> moved = new ArrayList<Map.Entry<Integer, RowRanges>>(tail.entrySet());
+		tail.clear();
+		for (Map.Entry<Integer, RowRanges> e : moved)
+			if (count > 0 || e.getKey() >= start - count)
+				columns.put(e.getKey() + count, e.getValue());
+
+		return true;
+	}
+
+	private boolean isRanged(WModelIndex index) {
+		return index.getParent() == null && index.getModel() == model;
+	}
+
+	private static int topLevelRow(WModelIndex index) {
+		while (index.getParent() != null)
+			index = index.getParent();
+		return index.getRow();
+	}
+
+	@Override
+	public Iterator<WModelIndex> iterator() {
+		return new SelectionIterator(null, null);
+	}
+
+	@Override
+	public Comparator<? super WModelIndex> comparator() {
+		return null;
+	}
+
+	@Override
+	public WModelIndex first() {
+		WModelIndex result = nested.isEmpty() ? null : nested.first();
+
+		int firstRow = Integer.MAX_VALUE;
+		int firstColumn = -1;
+		for (Map.Entry<Integer, RowRanges> e : columns.entrySet()) {
+			if (e.getValue().first() < firstRow) {
+				firstRow = e.getValue().first();
+				firstColumn = e.getKey();
+			}
+		}
+
+		if (firstColumn != -1) {
+			WModelIndex ranged = model.getIndex(firstRow, firstColumn);
+			if (result == null || ranged.compareTo(result) < 0)
+				result = ranged;
+		}
+
+		if (result == null)
+			throw new NoSuchElementException();
+		return result;
+	}
+
+	@Override
+	public WModelIndex last() {
+		WModelIndex result = nested.isEmpty() ? null : nested.last();
+
+		int lastRow = -1;
+		int lastColumn = -1;
+		for (Map.Entry<Integer, RowRanges> e : columns.entrySet()) {
+			if (e.getValue().last() >= lastRow) {
+				lastRow = e.getValue().last();
+				lastColumn = e.getKey();
+			}
+		}
+
+		if (lastColumn != -1) {
+			WModelIndex ranged = model.getIndex(lastRow, lastColumn);
+			if (result == null || ranged.compareTo(result) > 0)
+				result = ranged;
+		}
+
+		if (result == null)
+			throw new NoSuchElementException();
+		return result;
+	}
+
+	@Override
+	public SortedSet<WModelIndex> headSet(WModelIndex toElement) {
+		return new SubSet(null, toElement);
+	}
+
+	@Override
+	public SortedSet<WModelIndex> tailSet(WModelIndex fromElement) {
+		return new SubSet(fromElement, null);
+	}
+
+	@Override
+	public SortedSet<WModelIndex> subSet(WModelIndex fromElement, WModelIndex toElement) {
+		return new SubSet(fromElement, toElement);
+	}
+
+	/**
+	 * Iterates the indexes from <code>from</code> (inclusive) up to <code>to</code> (exclusive),
+	 * where a <code>null</code> bound is unbounded.
+	 * <p>
+	 * For each column, the iterator keeps the next row, and looks up the row that follows it when it
+	 * is returned. The nested indexes are iterated in the same way, so that the set may be
+	 * modified while iterating.
+	 */
+	private class SelectionIterator implements Iterator<WModelIndex> {
+		private final WModelIndex to;
+		private final int[] columnIds;
+		private final int[] row;
+		private WModelIndex nextNested;
+		private WModelIndex next;
+		private int nextColumn;
+		private boolean done;
+		private WModelIndex last;
+
+		SelectionIterator(WModelIndex from, WModelIndex to) {
+			this.to = to;
+			int n = columns.size();
+			columnIds = new int[n];
+			row = new int[n];
+
+			int start = from == null ? 0 : topLevelRow(from);
+			int c = 0;
+			for (Map.Entry<Integer, RowRanges> e : columns.entrySet()) {
+				columnIds[c] = e.getKey();
+				int r = e.getValue().ceiling(start);
+				if (from != null)
+					while (r != Integer.MAX_VALUE && model.getIndex(r, columnIds[c]).compareTo(from) < 0)
+						r = e.getValue().ceiling(r + 1);
+				row[c] = r;
+				++c;
+			}
+
+			if (from == null)
+				nextNested = nested.isEmpty() ? null : nested.first();
+			else
+				nextNested = nested.ceiling(from);
+			next = null;
+			nextColumn = -1;
+			done = false;
+			last = null;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return peek() != null;
+		}
+
+		@Override
+		public WModelIndex next() {
+			WModelIndex result = peek();
+			if (result == null)
+				throw new NoSuchElementException();
+			if (nextColumn == -1)
+				nextNested = nested.higher(result);
+			else {
+				RowRanges r = columns.get(columnIds[nextColumn]);
+				row[nextColumn] = r == null ? Integer.MAX_VALUE : r.ceiling(row[nextColumn] + 1);
+			}
+			next = null;
+			last = result;
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null)
+				throw new IllegalStateException();
+			ItemSelectionSet.this.remove(last);
+			last = null;
+		}
+
+		private WModelIndex peek() {
+			if (next == null && !done) {
+				int best = -1;
+				for (int c = 0; c < columnIds.length; ++c)
+					if (row[c] != Integer.MAX_VALUE && (best == -1 || row[c] < row[best]))
+						best = c;
+				WModelIndex ranged = best == -1 ? null : model.getIndex(row[best], columnIds[best]);
+
+				if (nextNested != null && (ranged == null || nextNested.compareTo(ranged) < 0)) {
+					next = nextNested;
+					nextColumn = -1;
+				} else if (ranged != null) {
+					next = ranged;
+					nextColumn = best;
+				}
+
+				if (next == null || (to != null && next.compareTo(to) >= 0)) {
+					next = null;
+					done = true;
+				}
+			}
+			return next;
+		}
+	}
+
+	/**
+	 * A view of the indexes from <code>from</code> (inclusive) up to <code>to</code> (exclusive).
+	 */
+	private class SubSet extends AbstractSet<WModelIndex> implements SortedSet<WModelIndex> {
+		private final WModelIndex from;
+		private final WModelIndex to;
+
+		SubSet(WModelIndex from, WModelIndex to) {
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public Iterator<WModelIndex> iterator() {
+			return new SelectionIterator(from, to);
+		}
+
+		@Override
+		public int size() {
+			int result = 0;
+			for (Iterator<WModelIndex> i = iterator(); i.hasNext(); i.next())
+				++result;
+			return result;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !iterator().hasNext();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof WModelIndex && inRange((WModelIndex) o) && ItemSelectionSet.this.contains(o);
+		}
+
+		@Override
+		public boolean add(WModelIndex index) {
+			if (!inRange(index))
+				throw new IllegalArgumentException("index out of range");
+			return ItemSelectionSet.this.add(index);
+		}
+
+		@Override
+		public boolean remove(Object o) {
+			return o instanceof WModelIndex && inRange((WModelIndex) o) && ItemSelectionSet.this.remove(o);
+		}
+
+		@Override
+		public Comparator<? super WModelIndex> comparator() {
+			return null;
+		}
+
+		@Override
+		public WModelIndex first() {
+			return iterator().next();
+		}
+
+		@Override
+		public WModelIndex last() {
+			WModelIndex result = null;
+			for (WModelIndex i : this)
+				result = i;
+			if (result == null)
+				throw new NoSuchElementException();
+			return result;
+		}
+
+		@Override
+		public SortedSet<WModelIndex> headSet(WModelIndex toElement) {
+			return subSet(from, toElement);
+		}
+
+		@Override
+		public SortedSet<WModelIndex> tailSet(WModelIndex fromElement) {
+			return subSet(fromElement, to);
+		}
+
+		@Override
+		public SortedSet<WModelIndex> subSet(WModelIndex fromElement, WModelIndex toElement) {
+			if ((fromElement != null && !inBounds(fromElement)) || (toElement != null && !inBounds(toElement)))
+				throw new IllegalArgumentException("bound out of range");
+			return new SubSet(fromElement, toElement);
+		}
+
+		private boolean inRange(WModelIndex index) {
+			return (from == null || index.compareTo(from) >= 0) && (to == null || index.compareTo(to) < 0);
+		}
+
+		private boolean inBounds(WModelIndex index) {
+			return (from == null || index.compareTo(from) >= 0) && (to == null || index.compareTo(to) <= 0);
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import eu.webtoolkit.jwt.servlet.WebRequest;
+import eu.webtoolkit.jwt.utils.StreamUtils;
+
+/**
+ * An in-memory cache of the files bundled in wt-resources.
+ * <p>
+ * Files are read from the class path when first requested, and kept together with
+ * a gzip compressed variant for compressible types. Responses carry an ETag and
+ * Last-Modified header, and conditional requests are answered with 304.
+ */
+class ResourcesCache {
+	static class Entry {
+		final String mimeType;
+		final byte[] data;
+		final byte[] gzipData;
+		final String etag;
+		final String gzipEtag;
+
+		Entry(String mimeType, byte[] data, byte[] gzipData, String etag) {
+			this.mimeType = mimeType;
+			this.data = data;
+			this.gzipData = gzipData;
+			this.etag = "\"" + etag + "\"";
+			this.gzipEtag = "\"" + etag + "-gz\"";
+		}
+	}
+
+	private static final Map<String, String> mimeTypes = new HashMap<String, String>();
+
+	static {
+		String[][] mimeTypes = {
+				{ "css", "text/css" },
+				{ "less", "text/css" },
+				{ "gif", "image/gif" },
+				{ "htm", "text/html" },
+				{ "html", "text/html" },
+				{ "jpg", "image/jpeg" },
+				{ "jpeg", "image/jpeg" },
+				{ "png", "image/png" },
+				{ "ico", "image/x-icon" },
+				{ "svg", "image/svg+xml" },
+				{ "js", "text/javascript" },
+				{ "map", "application/json" },
+				{ "json", "application/json" },
+				{ "xml", "application/xml" },
+				{ "txt", "text/plain" },
+				{ "md", "text/markdown" },
+				{ "woff", "font/woff" },
+				{ "woff2", "font/woff2" },
+				{ "ttf", "font/ttf" },
+				{ "otf", "font/otf" },
+				{ "eot", "application/vnd.ms-fontobject" },
+				{ "swf", "application/x-shockwave-flash" }
+			};
+
+		for (String[] s : mimeTypes)
+			ResourcesCache.mimeTypes.put(s[0], s[1]);
+	}
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	private final long lastModified = System.currentTimeMillis() / 1000 * 1000;
+
+	/**
+	 * Returns the mime type for a file name, based on its suffix.
+	 */
+	static String getMimeType(String fileName) {
+		String suffix = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase();
+		String mimeType = mimeTypes.get(suffix);
+		return mimeType != null ? mimeType : "application/octet-stream";
+	}
+
+	/**
+	 * Returns the cached entry for a file, reading it on first use.
+	 * <p>
+	 * Returns <code>null</code> if the file does not exist.
+	 */
+	Entry get(String fileName) throws IOException {
+		Entry entry = entries.get(fileName);
+		if (entry != null)
+			return entry;
+
+		InputStream s = FileUtils.getResourceAsStream("/eu/webtoolkit/jwt/" + fileName);
+		if (s == null)
+			return null;
+
+		byte[] data;
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			StreamUtils.copy(s, bytes);
+			data = bytes.toByteArray();
+		} finally {
+			s.close();
+		}
+
+		String mimeType = getMimeType(fileName);
+		byte[] gzipData = null;
+		if (isCompressible(mimeType)) {
+			ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 4 + 64);
+			GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+			gzip.write(data);
+			gzip.close();
+			if (compressed.size() < data.length * 9 / 10)
+				gzipData = compressed.toByteArray();
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		String etag = Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(data.length);
+
+		entry = new Entry(mimeType, data, gzipData, etag);
+		Entry previous = entries.putIfAbsent(fileName, entry);
+		return previous != null ? previous : entry;
+	}
+
+	/**
+	 * Serves a file, or sets a 404 status if it does not exist.
+	 */
+	void serve(String fileName, HttpServletRequest request, HttpServletResponse response, String cacheControl)
+			throws IOException {
+		Entry entry = get(fileName);
+		if (entry == null) {
+			response.setStatus(404);
+			return;
+		}
+
+		boolean gzip = entry.gzipData != null
+				&& WebRequest.acceptsEncoding(request.getHeader("Accept-Encoding"), "gzip");
+		String etag = gzip ? entry.gzipEtag : entry.etag;
+
+		if (entry.gzipData != null)
+			response.addHeader("Vary", "Accept-Encoding");
+		response.setHeader("ETag", etag);
+		response.setDateHeader("Last-Modified", lastModified);
+		if (cacheControl != null && cacheControl.length() != 0)
+			response.setHeader("Cache-Control", cacheControl);
+
+		if (isNotModified(request, entry)) {
+			response.setStatus(304);
+			return;
+		}
+
+		byte[] body = gzip ? entry.gzipData : entry.data;
+		response.setContentType(entry.mimeType);
+		if (gzip)
+			response.setHeader("Content-Encoding", "gzip");
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+		response.getOutputStream().flush();
+	}
+
+	private boolean isNotModified(HttpServletRequest request, Entry entry) {
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/"))
+					tag = tag.substring(2);
+				if (tag.equals("*") || tag.equals(entry.etag) || tag.equals(entry.gzipEtag))
+					return true;
+			}
+			return false;
+		}
+
+		try {
+			long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+			return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+	private static boolean isCompressible(String mimeType) {
+		return mimeType.startsWith("text/")
+			|| mimeType.equals("application/json")
+			|| mimeType.equals("application/xml")
+			|| mimeType.equals("image/svg+xml")
+			|| mimeType.equals("image/x-icon")
+			|| mimeType.equals("font/ttf")
+			|| mimeType.equals("font/otf")
+			|| mimeType.equals("application/vnd.ms-fontobject");
+	}
+}
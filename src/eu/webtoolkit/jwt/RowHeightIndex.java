@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+/**
+ * The heights of the children of a node in a {@link WTreeView}.
+ * <p>
+ * The height of a child is the number of rows that its subtree occupies in the view: 1 for a
+ * collapsed child, and 1 plus the height of its children for an expanded child. The heights are
+ * kept in a Fenwick tree, so that the row offset of a child, the child at a row offset and the
+ * update of a single height each take O(log n) for a node with n children.
+ */
+class RowHeightIndex {
+	private final int[] tree;
+	private int total;
+
+	/**
+	 * Creates an index for the given child heights.
+	 */
+	RowHeightIndex(int[] heights) {
+		tree = new int[heights.length + 1];
+		for (int i = 0; i < heights.length; ++i) {
+			int j = i + 1;
+			tree[j] += heights[i];
+			int parent = j + (j & -j);
+			if (parent < tree.length)
+				tree[parent] += tree[j];
+			total += heights[i];
+		}
+	}
+
+	/**
+	 * Returns the number of children.
+	 */
+	int getCount() {
+		return tree.length - 1;
+	}
+
+	/**
+	 * Returns the sum of all child heights.
+	 */
+	int getTotal() {
+		return total;
+	}
+
+	/**
+	 * Returns the sum of the heights of the children before <code>row</code>.
+	 */
+	int getOffset(int row) {
+		int result = 0;
+		for (int j = Math.min(row, getCount()); j > 0; j -= j & -j)
+			result += tree[j];
+		return result;
+	}
+
+	/**
+	 * Returns the height of the child at <code>row</code>.
+	 */
+	int getHeight(int row) {
+		return getOffset(row + 1) - getOffset(row);
+	}
+
+	/**
+	 * Adds <code>delta</code> to the height of the child at <code>row</code>.
+	 */
+	void add(int row, int delta) {
+		for (int j = row + 1; j < tree.length; j += j & -j)
+			tree[j] += delta;
+		total += delta;
+	}
+
+	/**
+	 * Returns the child that occupies the row at <code>offset</code>.
+	 * <p>
+	 * This is the last child for which {@link #getOffset(int)} is not greater than
+	 * <code>offset</code>. Returns {@link #getCount()} if <code>offset</code> is beyond the total
+	 * height.
+	 */
+	int findRow(int offset) {
+		int pos = 0;
+		for (int step = Integer.highestOneBit(Math.max(1, getCount())); step > 0; step >>= 1) {
+			if (pos + step <= getCount() && tree[pos + step] <= offset) {
+				pos += step;
+				offset -= tree[pos];
+			}
+		}
+		return pos;
+	}
+}
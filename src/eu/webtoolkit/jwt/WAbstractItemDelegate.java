@@ -104,6 +104,20 @@ public abstract class WAbstractItemDelegate extends WObject {
    * <p>The default implementation does nothing.
    */
   public void updateModelIndex(WWidget widget, final WModelIndex anon2) {}
+  /**
+   * Returns whether a widget may be reused to render another item.
+   *
+   * <p>When this returns <code>true</code>, a view may pass a widget that rendered another item to
+   * {@link WAbstractItemDelegate#update(WWidget widget, WModelIndex index, EnumSet flags) update()},
+   * followed by {@link WAbstractItemDelegate#updateModelIndex(WWidget widget, WModelIndex anon2)
+   * updateModelIndex()}, instead of creating a new widget. {@link WTableView} does this for rows
+   * that scroll into view while others scroll out.
+   *
+   * <p>The default implementation returns <code>false</code>.
+   */
+  public boolean isWidgetReuseSupported() {
+    return false;
+  }
   /**
    * Returns the current edit state.
    *
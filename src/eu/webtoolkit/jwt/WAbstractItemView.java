@@ -1511,10 +1511,36 @@ public abstract class WAbstractItemView extends WCompositeWidget {
     this.impl_.setCanReceiveFocus(true);
     return this.impl_.keyWentUp();
   }
+  /**
+   * Returns the number of item updates that were coalesced.
+   *
+   * <p>Data changes reported by the model are not rendered immediately, but collected and applied
+   * once when the view is rendered. This counts the changes to items that were already pending, or
+   * that were made redundant by a full rerender of the data.
+   *
+   * <p>
+   *
+   * @see WAbstractItemView#getAppliedUpdateCount()
+   */
+  public long getCoalescedUpdateCount() {
+    return this.coalescedUpdates_;
+  }
+  /**
+   * Returns the number of item updates that were applied.
+   *
+   * <p>
+   *
+   * @see WAbstractItemView#getCoalescedUpdateCount()
+   */
+  public long getAppliedUpdateCount() {
+    return this.appliedUpdates_;
+  }
   /** Creates a new item view. */
   protected WAbstractItemView(WContainerWidget parentContainer) {
     super(new WContainerWidget(), (WContainerWidget) null);
     this.renderState_ = WAbstractItemView.RenderState.NeedRerender;
+    this.coalescedUpdates_ = 0;
+    this.appliedUpdates_ = 0;
     this.modelConnections_ = new ArrayList<AbstractSignal.Connection>();
     this.columns_ = new ArrayList<WAbstractItemView.ColumnInfo>();
     this.currentSortColumn_ = -1;
@@ -1770,6 +1796,8 @@ public abstract class WAbstractItemView extends WCompositeWidget {
 
   WContainerWidget impl_;
   WAbstractItemView.RenderState renderState_;
+  long coalescedUpdates_;
+  long appliedUpdates_;
   List<AbstractSignal.Connection> modelConnections_;
   List<WAbstractItemView.ColumnInfo> columns_;
   int currentSortColumn_;
@@ -0,0 +1,323 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.chart.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An abstract table model that fetches its data in pages of rows.
+ *
+ * <p>This model is intended for large tables that are backed by a database or another query
+ * interface. Rather than answering {@link WAbstractItemModel#getData(WModelIndex index,
+ * ItemDataRole role) getData()} for individual cells, a specialization implements {@link
+ * WAbstractPagedTableModel#fetchRows(int offset, int count) fetchRows()} to fetch a block of rows,
+ * together with {@link WAbstractItemModel#getRowCount(WModelIndex parent) getRowCount()} and {@link
+ * WAbstractItemModel#getColumnCount(WModelIndex parent) getColumnCount()}.
+ *
+ * <p>Rows are fetched in pages of {@link WAbstractPagedTableModel#getPageSize() getPageSize()}
+ * rows, and a number of the most recently used pages is kept in a cache. Since a {@link
+ * WTableView} renders a contiguous range of rows around its viewport, this results in a single
+ * query for each page that comes into view.
+ *
+ * <p>Optionally, the pages that follow the last accessed page may be prefetched asynchronously,
+ * using an {@link Executor} (see {@link WAbstractPagedTableModel#setPrefetch(int pages, Executor
+ * executor) setPrefetch()}). When a view needs a page of which the prefetch is still in progress,
+ * the model returns empty data and emits {@link WAbstractItemModel#dataChanged() dataChanged()}
+ * once the page has arrived, which is pushed to the browser using server push (see {@link
+ * WApplication#enableUpdates(boolean enabled) WApplication#enableUpdates()}).
+ *
+ * <p>Call {@link WAbstractPagedTableModel#invalidate() invalidate()} when the underlying data has
+ * changed.
+ */
+public abstract class WAbstractPagedTableModel extends WAbstractTableModel {
+  private static Logger logger = LoggerFactory.getLogger(WAbstractPagedTableModel.class);
+
+  /**
+   * Creates a new model.
+   *
+   * <p>The model fetches rows in pages of <code>pageSize</code> rows, and caches at most <code>
+   * cacheSize</code> pages.
+   */
+  public WAbstractPagedTableModel(int pageSize, int cacheSize) {
+    super();
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("WAbstractPagedTableModel: pageSize must be positive");
+    }
+    this.pageSize_ = pageSize;
+    this.cacheSize_ = Math.max(1, cacheSize);
+    this.cache_ = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true);
+    this.pending_ = new HashMap<Integer, Boolean>();
+    this.prefetchPages_ = 0;
+    this.executor_ = null;
+    this.generation_ = 0;
+    this.lastPage_ = -1;
+    this.hits_ = 0;
+    this.misses_ = 0;
+    this.prefetched_ = 0;
+  }
+  /**
+   * Creates a new model.
+   *
+   * <p>Calls {@link #WAbstractPagedTableModel(int pageSize, int cacheSize) this(100, 10)}
+   */
+  public WAbstractPagedTableModel() {
+    this(100, 10);
+  }
+  /** Returns the number of rows in a page. */
+  public int getPageSize() {
+    return this.pageSize_;
+  }
+  /**
+   * Sets the maximum number of pages that are cached.
+   *
+   * <p>When more pages are fetched, the least recently used pages are discarded.
+   *
+   * <p>The default value is 10.
+   */
+  public void setCacheSize(int pages) {
+    this.cacheSize_ = Math.max(1, pages);
+    this.evictPages();
+  }
+  /**
+   * Returns the maximum number of pages that are cached.
+   *
+   * <p>
+   *
+   * @see WAbstractPagedTableModel#setCacheSize(int pages)
+   */
+  public int getCacheSize() {
+    return this.cacheSize_;
+  }
+  /**
+   * Configures asynchronous prefetching.
+   *
+   * <p>When a page is accessed, the next <code>pages</code> pages that are not yet cached are
+   * fetched by a task submitted to the <code>executor</code>. The result is handed back to the
+   * session using {@link WtServlet#post(WApplication app, Runnable function, Runnable
+   * fallBackFunction) WtServlet#post()}.
+   *
+   * <p>Since {@link WAbstractPagedTableModel#fetchRows(int offset, int count) fetchRows()} is then
+   * called from the executor&apos;s threads, it may not access the application or its widgets.
+   *
+   * <p>Pages are only prefetched when accessed from within a session, since the result cannot be
+   * handed back otherwise.
+   *
+   * <p>By default, prefetching is disabled (<code>pages</code> = 0).
+   */
+  public void setPrefetch(int pages, Executor executor) {
+    this.prefetchPages_ = executor != null ? Math.max(0, pages) : 0;
+    this.executor_ = executor;
+  }
+  /**
+   * Returns the number of pages that are prefetched.
+   *
+   * <p>
+   *
+   * @see WAbstractPagedTableModel#setPrefetch(int pages, Executor executor)
+   */
+  public int getPrefetchPages() {
+    return this.prefetchPages_;
+  }
+  /**
+   * Invalidates the cached data.
+   *
+   * <p>All cached pages are discarded, the result of prefetches that are still in progress is
+   * ignored, and the {@link WAbstractItemModel#modelReset() modelReset()} signal is emitted. A
+   * specialization that caches the row count should refresh it before calling this method.
+   */
+  public void invalidate() {
+    this.cache_.clear();
+    this.pending_.clear();
+    ++this.generation_;
+    this.lastPage_ = -1;
+    this.reset();
+  }
+  /**
+   * Returns the number of row accesses that were served from the cache.
+   *
+   * <p>
+   *
+   * @see WAbstractPagedTableModel#getCacheMisses()
+   */
+  public long getCacheHits() {
+    return this.hits_;
+  }
+  /**
+   * Returns the number of row accesses that needed a page to be fetched.
+   *
+   * <p>This includes accesses to a page that was still being prefetched.
+   */
+  public long getCacheMisses() {
+    return this.misses_;
+  }
+  /** Returns the number of pages that were fetched by asynchronous prefetching. */
+  public long getPrefetchedPageCount() {
+    return this.prefetched_;
+  }
+  /** Returns the number of pages that are currently cached. */
+  public int getCachedPageCount() {
+    return this.cache_.size();
+  }
+
+  public Object getData(final WModelIndex index, ItemDataRole role) {
+    if (role.equals(ItemDataRole.Display) || role.equals(ItemDataRole.Edit)) {
+      Object[] row = this.getRow(index.getRow());
+      if (row != null && index.getColumn() < row.length) {
+        return row[index.getColumn()];
+      }
+    }
+    return null;
+  }
+  /**
+   * Returns the data of a row.
+   *
+   * <p>Returns the row from the cache, fetching its page when needed. Returns <code>null</code> if
+   * the row does not exist, or if its page is still being prefetched.
+   *
+   * <p>Reimplement {@link WAbstractPagedTableModel#getData(WModelIndex index, ItemDataRole role)
+   * getData()} and use this method to provide data for other roles.
+   */
+  protected Object[] getRow(int row) {
+    if (row < 0) {
+      return null;
+    }
+    int page = row / this.pageSize_;
+    List<Object[]> rows = this.cache_.get(page);
+    if (rows != null) {
+      ++this.hits_;
+    } else {
+      ++this.misses_;
+      if (this.pending_.containsKey(page)) {
+        this.pending_.put(page, true);
+        return null;
+      }
+      rows = this.fetchPage(page);
+      this.cache_.put(page, rows);
+      this.evictPages();
+    }
+    if (page != this.lastPage_) {
+      this.lastPage_ = page;
+      this.prefetch(page);
+    }
+    int i = row - page * this.pageSize_;
+    return i < rows.size() ? rows.get(i) : null;
+  }
+  /**
+   * Fetches a block of rows.
+   *
+   * <p>Returns the data of rows <code>offset</code> to <code>offset + count - 1</code>, as an array
+   * of {@link ItemDataRole#Display} values for each row. Fewer rows may be returned at the end of
+   * the table.
+   *
+   * <p>This method may be called from another thread when prefetching is enabled.
+   */
+  protected abstract List<Object[]> fetchRows(int offset, int count);
+
+  private Map<Integer, List<Object[]>> cache_;
+  private Map<Integer, Boolean> pending_;
+  private int pageSize_;
+  private int cacheSize_;
+  private int prefetchPages_;
+  private Executor executor_;
+  private int generation_;
+  private int lastPage_;
+  private long hits_;
+  private long misses_;
+  private long prefetched_;
+
+  private List<Object[]> fetchPage(int page) {
+    List<Object[]> rows = this.fetchRows(page * this.pageSize_, this.pageSize_);
+    return rows != null ? rows : Collections.<Object[]>emptyList();
+  }
+
+  private void evictPages() {
+    for (Iterator<Integer> i = this.cache_.keySet().iterator();
+        i.hasNext() && this.cache_.size() > this.cacheSize_; ) {
+      i.next();
+      i.remove();
+    }
+  }
+
+  private void prefetch(int page) {
+    if (this.prefetchPages_ == 0) {
+      return;
+    }
+    WApplication app = WApplication.getInstance();
+    WtServlet servlet = WtServlet.getInstance();
+    if (app == null || servlet == null) {
+      return;
+    }
+    int pageCount = (this.getRowCount() + this.pageSize_ - 1) / this.pageSize_;
+    int last = Math.min(pageCount - 1, page + Math.min(this.prefetchPages_, this.cacheSize_ - 1));
+    for (int p = page + 1; p <= last; ++p) {
+      if (!this.cache_.containsKey(p) && !this.pending_.containsKey(p)) {
+        this.pending_.put(p, false);
+        this.submitPrefetch(app, servlet, p);
+      }
+    }
+  }
+
+  private void submitPrefetch(final WApplication app, final WtServlet servlet, final int page) {
+    final int generation = this.generation_;
+    this.executor_.execute(
+        () -> {
+          List<Object[]> rows = null;
+          try {
+            rows = WAbstractPagedTableModel.this.fetchPage(page);
+          } catch (RuntimeException e) {
+            logger.error("prefetch of page " + page + " failed", e);
+          }
+          final List<Object[]> result = rows;
+          servlet.post(
+              app,
+              () -> {
+                WAbstractPagedTableModel.this.pagePrefetched(page, generation, result);
+              },
+              null);
+        });
+  }
+
+  private void pagePrefetched(int page, int generation, List<Object[]> rows) {
+    if (generation != this.generation_) {
+      return;
+    }
+    Boolean requested = this.pending_.remove(page);
+    if (rows != null) {
+      ++this.prefetched_;
+      if (!this.cache_.containsKey(page)) {
+        this.cache_.put(page, rows);
+        this.evictPages();
+      }
+    }
+    if (requested != null && requested) {
+      int firstRow = page * this.pageSize_;
+      int lastRow = Math.min(this.getRowCount(), firstRow + this.pageSize_) - 1;
+      if (lastRow >= firstRow && this.getColumnCount() > 0) {
+        this.dataChanged()
+            .trigger(
+                this.getIndex(firstRow, 0), this.getIndex(lastRow, this.getColumnCount() - 1));
+        WApplication app = WApplication.getInstance();
+        if (app != null) {
+          app.triggerUpdate();
+        }
+      }
+    }
+  }
+}
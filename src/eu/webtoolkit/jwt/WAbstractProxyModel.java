@@ -284,6 +284,309 @@ public abstract class WAbstractProxyModel extends WAbstractItemModel {
       this.sourceIndex_ = sourceIndex;
     }
   }
+  /**
+   * A map of source model indexes to items.
+   *
+   * <p>This is an alternative to a sorted map from source model indexes to {@link BaseItem items},
+   * which can be adjusted more efficiently using {@link
+   * WAbstractProxyModel#startShiftModelIndexes(WModelIndex sourceParent, int start, int count,
+   * WAbstractProxyModel.ItemMap items) startShiftModelIndexes()} when the source model inserts or
+   * removes rows.
+   *
+   * <p>Items are grouped per source parent. A group is identified by the {@link
+   * WAbstractItemModel#toRawIndex(WModelIndex index) raw index} of the parent, or by the parent
+   * index itself when the source model does not provide raw indexes. Within a group, items are kept
+   * sorted on their row and column. Shifting rows thus only visits the items that follow the
+   * insertion or removal point in the affected parent, while nested items, which are keyed on the
+   * identity of their parent, are not touched.
+   *
+   * <p>The key of an item is its {@link BaseItem#sourceIndex_ sourceIndex_}, which should not be
+   * modified while the item is in the map.
+   */
+  protected static class ItemMap {
+    private static Logger logger = LoggerFactory.getLogger(ItemMap.class);
+
+    /** Creates an empty map. */
+    public ItemMap() {
+      this.groups_ = new LinkedHashMap<Object, WAbstractProxyModel.ItemMap.Group>();
+      this.rootItem_ = null;
+      this.size_ = 0;
+    }
+    /**
+     * Returns the item for a source index.
+     *
+     * <p>Returns <code>null</code> if there is no item for this index.
+     */
+    public WAbstractProxyModel.BaseItem get(final WModelIndex sourceIndex) {
+      if (sourceIndex == null) {
+        return this.rootItem_;
+      }
+      WAbstractProxyModel.ItemMap.Group g = this.getGroup(parentOf(sourceIndex), false);
+      if (g == null) {
+        return null;
+      }
+      int i = g.find(sourceIndex);
+      return i >= 0 ? g.items.get(i) : null;
+    }
+    /**
+     * Adds an item.
+     *
+     * <p>The item is added for its {@link BaseItem#sourceIndex_ sourceIndex_}, replacing an item
+     * that was previously added for that index.
+     */
+    public void put(WAbstractProxyModel.BaseItem item) {
+      if (item.sourceIndex_ == null) {
+        if (this.rootItem_ == null) {
+          ++this.size_;
+        }
+        this.rootItem_ = item;
+        return;
+      }
+      WAbstractProxyModel.ItemMap.Group g = this.getGroup(parentOf(item.sourceIndex_), true);
+      int i = g.find(item.sourceIndex_);
+      if (i >= 0) {
+        g.items.set(i, item);
+      } else {
+        g.items.add(-i - 1, item);
+        ++this.size_;
+      }
+    }
+    /**
+     * Removes the item for a source index.
+     *
+     * <p>Returns the removed item, or <code>null</code> if there was no item for this index.
+     */
+    public WAbstractProxyModel.BaseItem remove(final WModelIndex sourceIndex) {
+      if (sourceIndex == null) {
+        WAbstractProxyModel.BaseItem result = this.rootItem_;
+        if (result != null) {
+          --this.size_;
+          this.rootItem_ = null;
+        }
+        return result;
+      }
+      WAbstractProxyModel.ItemMap.Group g = this.getGroup(parentOf(sourceIndex), false);
+      if (g == null) {
+        return null;
+      }
+      int i = g.find(sourceIndex);
+      if (i < 0) {
+        return null;
+      }
+      --this.size_;
+      WAbstractProxyModel.BaseItem result = g.items.remove(i);
+      this.prune(g);
+      return result;
+    }
+    /** Removes the item for a source index, together with all items of its descendants. */
+    public void removeWithDescendants(final WModelIndex sourceIndex) {
+      if (sourceIndex == null) {
+        this.clear();
+        return;
+      }
+      this.remove(sourceIndex);
+      WAbstractProxyModel.ItemMap.Group g = this.getGroup(sourceIndex, false);
+      if (g != null) {
+        WAbstractProxyModel.ItemMap.Group parent = g.parent;
+        this.removeGroup(g);
+        if (parent != null) {
+          parent.children.remove(g);
+          this.prune(parent);
+        }
+      }
+    }
+    /** Removes all items. */
+    public void clear() {
+      this.groups_.clear();
+      this.rootItem_ = null;
+      this.size_ = 0;
+    }
+    /** Returns the number of items. */
+    public int size() {
+      return this.size_;
+    }
+    /** Returns whether the map is empty. */
+    public boolean isEmpty() {
+      return this.size_ == 0;
+    }
+    /**
+     * Returns all items.
+     *
+     * <p>This returns a copy, and thus the map may be modified while iterating the result. Items
+     * with the same parent are returned in the order of their source index, and an item is
+     * returned before the items of its descendants.
+     */
+    public List<WAbstractProxyModel.BaseItem> getItems() {
+      List<WAbstractProxyModel.BaseItem> result =
+          new ArrayList<WAbstractProxyModel.BaseItem>(this.size_);
+      if (this.rootItem_ != null) {
+        result.add(this.rootItem_);
+      }
+      WAbstractProxyModel.ItemMap.Group top = this.groups_.get(null);
+      if (top != null) {
+        ArrayDeque<WAbstractProxyModel.ItemMap.Group> pending =
+            new ArrayDeque<WAbstractProxyModel.ItemMap.Group>();
+        pending.add(top);
+        while (!pending.isEmpty()) {
+          WAbstractProxyModel.ItemMap.Group g = pending.poll();
+          result.addAll(g.items);
+          pending.addAll(g.children);
+        }
+      }
+      return result;
+    }
+    /**
+     * Shifts the items after rows have been inserted or removed in the source model.
+     *
+     * <p>Items with a row greater than or equal to <code>start</code> in <code>sourceParent</code>
+     * are shifted by <code>count</code> rows. When removing rows (count &lt; 0), the items of the
+     * removed rows and of their descendants are removed.
+     */
+    void shiftRows(
+        final WAbstractItemModel sourceModel,
+        final WModelIndex sourceParent,
+        int start,
+        int count) {
+      WAbstractProxyModel.ItemMap.Group g = this.getGroup(sourceParent, false);
+      if (g == null) {
+        return;
+      }
+      int first = g.lowerBound(start);
+      if (count < 0) {
+        List<WAbstractProxyModel.BaseItem> erased =
+            g.items.subList(first, g.lowerBound(start - count));
+        this.size_ -= erased.size();
+        erased.clear();
+      }
+      for (int i = first; i < g.items.size(); ++i) {
+        WAbstractProxyModel.BaseItem item = g.items.get(i);
+        item.sourceIndex_ =
+            sourceModel.getIndex(
+                item.sourceIndex_.getRow() + count, item.sourceIndex_.getColumn(), sourceParent);
+      }
+      List<WAbstractProxyModel.ItemMap.Group> rekeyed =
+          new ArrayList<WAbstractProxyModel.ItemMap.Group>();
+      for (Iterator<WAbstractProxyModel.ItemMap.Group> c_it = g.children.iterator();
+          c_it.hasNext(); ) {
+        WAbstractProxyModel.ItemMap.Group c = c_it.next();
+        WModelIndex p =
+            c.key instanceof WModelIndex ? (WModelIndex) c.key : sourceModel.fromRawIndex(c.key);
+        if (p == null || count < 0 && p.getRow() >= start && p.getRow() < start - count) {
+          this.removeGroup(c);
+          c_it.remove();
+        } else {
+          if (p.getRow() >= start && c.key instanceof WModelIndex) {
+            this.groups_.remove(c.key);
+            c.key = sourceModel.getIndex(p.getRow() + count, p.getColumn(), sourceParent);
+            rekeyed.add(c);
+          }
+        }
+      }
+      for (WAbstractProxyModel.ItemMap.Group c : rekeyed) {
+        this.groups_.put(c.key, c);
+      }
+      this.prune(g);
+    }
+
+    static class Group {
+      private static Logger logger = LoggerFactory.getLogger(Group.class);
+
+      public Object key;
+      public WAbstractProxyModel.ItemMap.Group parent;
+      public List<WAbstractProxyModel.ItemMap.Group> children;
+      public List<WAbstractProxyModel.BaseItem> items;
+
+      public Group(Object key, WAbstractProxyModel.ItemMap.Group parent) {
+        this.key = key;
+        this.parent = parent;
+        this.children = new ArrayList<WAbstractProxyModel.ItemMap.Group>();
+        this.items = new ArrayList<WAbstractProxyModel.BaseItem>();
+      }
+
+      public int lowerBound(int row) {
+        int lo = 0;
+        int hi = this.items.size();
+        while (lo < hi) {
+          int mid = (lo + hi) >>> 1;
+          if (this.items.get(mid).sourceIndex_.getRow() < row) {
+            lo = mid + 1;
+          } else {
+            hi = mid;
+          }
+        }
+        return lo;
+      }
+
+      public int find(final WModelIndex index) {
+        int row = index.getRow();
+        int column = index.getColumn();
+        int lo = 0;
+        int hi = this.items.size() - 1;
+        while (lo <= hi) {
+          int mid = (lo + hi) >>> 1;
+          WModelIndex i = this.items.get(mid).sourceIndex_;
+          int c = i.getRow() != row ? i.getRow() - row : i.getColumn() - column;
+          if (c < 0) {
+            lo = mid + 1;
+          } else {
+            if (c > 0) {
+              hi = mid - 1;
+            } else {
+              return mid;
+            }
+          }
+        }
+        return -(lo + 1);
+      }
+    }
+
+    private Map<Object, WAbstractProxyModel.ItemMap.Group> groups_;
+    private WAbstractProxyModel.BaseItem rootItem_;
+    private int size_;
+
+    private WAbstractProxyModel.ItemMap.Group getGroup(final WModelIndex parent, boolean create) {
+      Object key = groupKey(parent);
+      WAbstractProxyModel.ItemMap.Group g = this.groups_.get(key);
+      if (g == null && create) {
+        WAbstractProxyModel.ItemMap.Group pg =
+            parent != null ? this.getGroup(parent.getParent(), true) : null;
+        g = new WAbstractProxyModel.ItemMap.Group(key, pg);
+        if (pg != null) {
+          pg.children.add(g);
+        }
+        this.groups_.put(key, g);
+      }
+      return g;
+    }
+
+    private void removeGroup(WAbstractProxyModel.ItemMap.Group g) {
+      for (WAbstractProxyModel.ItemMap.Group c : g.children) {
+        this.removeGroup(c);
+      }
+      this.size_ -= g.items.size();
+      this.groups_.remove(g.key);
+    }
+
+    private void prune(WAbstractProxyModel.ItemMap.Group g) {
+      while (g.parent != null && g.items.isEmpty() && g.children.isEmpty()) {
+        this.groups_.remove(g.key);
+        g.parent.children.remove(g);
+        g = g.parent;
+      }
+    }
+
+    private static WModelIndex parentOf(final WModelIndex index) {
+      return index != null ? index.getParent() : null;
+    }
+
+    private static Object groupKey(final WModelIndex parent) {
+      if (parent == null) {
+        return null;
+      }
+      Object raw = parent.getModel().toRawIndex(parent);
+      return raw != null ? raw : parent;
+    }
+  }
   /**
    * Utility methods to shift items in an item map.
    *
@@ -373,6 +676,32 @@ public abstract class WAbstractProxyModel extends WAbstractItemModel {
     this.itemsToShift_.clear();
   }
 
+  /**
+   * Utility methods to shift items in an item map.
+   *
+   * <p>You can use this method to adjust an item map after the source model has inserted or removed
+   * rows. When removing rows (count &lt; 0), items may possibly be removed and deleted.
+   *
+   * <p>Unlike for a sorted map, the items are adjusted in place and remain in the map: only the
+   * items of <code>sourceParent</code> that follow <code>start</code> are updated, while the items
+   * of nested indexes are left untouched. A subsequent {@link
+   * WAbstractProxyModel#endShiftModelIndexes(WModelIndex sourceParent, int start, int count,
+   * WAbstractProxyModel.ItemMap items) endShiftModelIndexes()} has nothing left to do.
+   */
+  protected void startShiftModelIndexes(
+      final WModelIndex sourceParent,
+      int start,
+      int count,
+      final WAbstractProxyModel.ItemMap items) {
+    items.shiftRows(this.getSourceModel(), sourceParent, start, count);
+  }
+
+  protected void endShiftModelIndexes(
+      final WModelIndex sourceParent,
+      int start,
+      int count,
+      final WAbstractProxyModel.ItemMap items) {}
+
   private List<WAbstractProxyModel.BaseItem> itemsToShift_;
   private WAbstractItemModel sourceModel_;
 }
@@ -1483,6 +1483,96 @@ public class WApplication extends WObject {
   public String getSessionId() {
     return this.session_.getSessionId();
   }
+  /**
+   * Returns the number of response bytes of this session before compression.
+   *
+   * <p>This counts the responses that were compressed because {@link
+   * Configuration#setResponseCompression(boolean) response compression} is enabled. Compare with
+   * {@link WApplication#getCompressedResponseBytes() getCompressedResponseBytes()} to see what
+   * compression saves.
+   */
+  public long getUncompressedResponseBytes() {
+    return this.session_.getUncompressedResponseBytes();
+  }
+  /**
+   * Returns the number of response bytes of this session after compression.
+   *
+   * <p>
+   *
+   * @see WApplication#getUncompressedResponseBytes()
+   */
+  public long getCompressedResponseBytes() {
+    return this.session_.getCompressedResponseBytes();
+  }
+  /**
+   * Returns how long requests of this session have waited during boot.
+   *
+   * <p>This is the total time that requests spent waiting for the application to be created, or
+   * for the boot style sheet to be served, before they could be handled.
+   */
+  public Duration getRequestWaitTime() {
+    return this.session_.getRequestWaitTime();
+  }
+  /**
+   * Returns the number of messages waiting to be sent over the web socket.
+   *
+   * <p>Messages only wait when {@link Configuration#setWebSocketAsyncPush(boolean)
+   * asynchronous web socket push} is enabled, while a previous message is still being sent. Each
+   * message is sent in its own frame. This returns 0 when there is no web socket connection.
+   */
+  public int getWebSocketQueuedMessages() {
+    WebSocketConnection connection = this.getWebSocketConnection();
+    return connection != null ? connection.getQueuedMessages() : 0;
+  }
+  /**
+   * Returns the size (in characters) of the messages waiting to be sent over the web socket.
+   *
+   * <p>
+   *
+   * @see WApplication#getWebSocketQueuedMessages()
+   */
+  public long getWebSocketQueuedSize() {
+    WebSocketConnection connection = this.getWebSocketConnection();
+    return connection != null ? connection.getQueuedSize() : 0;
+  }
+  /**
+   * Returns the largest size (in characters) that the messages waiting to be sent over the web
+   * socket have reached.
+   *
+   * <p>
+   *
+   * @see WApplication#getWebSocketQueuedSize()
+   */
+  public long getWebSocketMaxQueuedSize() {
+    WebSocketConnection connection = this.getWebSocketConnection();
+    return connection != null ? connection.getMaxQueuedSize() : 0;
+  }
+  /**
+   * Returns the number of messages sent asynchronously over the web socket.
+   *
+   * <p>
+   *
+   * @see WApplication#getWebSocketQueuedMessages()
+   */
+  public long getWebSocketSentMessages() {
+    WebSocketConnection connection = this.getWebSocketConnection();
+    return connection != null ? connection.getSentMessages() : 0;
+  }
+  /**
+   * Returns the number of times pushing updates over the web socket was postponed.
+   *
+   * <p>With asynchronous web socket push, updates are not pushed while a message is being sent.
+   * They are rendered together with later changes, in one message that is pushed when all
+   * messages have been sent.
+   */
+  public long getWebSocketDeferredPushes() {
+    WebSocketConnection connection = this.getWebSocketConnection();
+    return connection != null ? connection.getDeferredPushes() : 0;
+  }
+
+  private WebSocketConnection getWebSocketConnection() {
+    return ObjectUtils.cast(this.session_.webSocket_, WebSocketConnection.class);
+  }
 
   WebSession getSession() {
     return this.session_;
@@ -2846,6 +2936,7 @@ public class WApplication extends WObject {
   WContainerWidget domRoot_;
   private WContainerWidget widgetRoot_;
   private WContainerWidget timerRoot_;
+  long widgetTreeVersion_;
   WContainerWidget domRoot2_;
   private WCssStyleSheet styleSheet_;
   WCombinedLocalizedStrings localizedStrings_;
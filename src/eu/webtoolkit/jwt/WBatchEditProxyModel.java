@@ -61,7 +61,7 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
     this.dirtyIndicationRole_ = ItemDataRole.of(-1);
     this.dirtyIndicationData_ = new Object();
     this.modelConnections_ = new ArrayList<AbstractSignal.Connection>();
-    this.mappedIndexes_ = new TreeMap<WModelIndex, WAbstractProxyModel.BaseItem>();
+    this.mappedIndexes_ = new WAbstractProxyModel.ItemMap();
   }
   /**
    * Returns whether changes have not yet been committed.
@@ -71,12 +71,8 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
    * WBatchEditProxyModel#revertAll() revertAll()}.
    */
   public boolean isDirty() {
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-      WBatchEditProxyModel.Item item =
-          ObjectUtils.cast(i.getValue(), WBatchEditProxyModel.Item.class);
+    for (WAbstractProxyModel.BaseItem i : this.mappedIndexes_.getItems()) {
+      WBatchEditProxyModel.Item item = ObjectUtils.cast(i, WBatchEditProxyModel.Item.class);
       if (!item.removedColumns_.isEmpty()
           || !item.insertedColumns_.isEmpty()
           || !item.removedRows_.isEmpty()
@@ -98,12 +94,8 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
    */
   public void commitAll() {
     this.submitting_ = true;
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-      WBatchEditProxyModel.Item item =
-          ObjectUtils.cast(i.getValue(), WBatchEditProxyModel.Item.class);
+    for (WAbstractProxyModel.BaseItem i : this.mappedIndexes_.getItems()) {
+      WBatchEditProxyModel.Item item = ObjectUtils.cast(i, WBatchEditProxyModel.Item.class);
       while (!item.removedColumns_.isEmpty()) {
         this.getSourceModel().removeColumn(item.removedColumns_.get(0), item.sourceIndex_);
       }
@@ -139,12 +131,8 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
    * @see WBatchEditProxyModel#commitAll()
    */
   public void revertAll() {
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-      WBatchEditProxyModel.Item item =
-          ObjectUtils.cast(i.getValue(), WBatchEditProxyModel.Item.class);
+    for (WAbstractProxyModel.BaseItem i : this.mappedIndexes_.getItems()) {
+      WBatchEditProxyModel.Item item = ObjectUtils.cast(i, WBatchEditProxyModel.Item.class);
       WModelIndex proxyIndex = this.mapFromSource(item.sourceIndex_);
       while (!item.insertedColumns_.isEmpty()) {
         this.removeColumn(item.insertedColumns_.get(0), proxyIndex);
@@ -412,7 +400,11 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
             - item.removedRows_.size();
       }
     } else {
-      return this.getSourceModel().getRowCount(this.mapToSource(parent));
+      WModelIndex sourceParent = this.mapToSource(parent);
+      if ((parent != null) && (sourceParent == null)) {
+        return 0;
+      }
+      return this.getSourceModel().getRowCount(sourceParent);
     }
   }
 
@@ -575,6 +567,18 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
       this.row = r;
       this.column = c;
     }
+
+    public boolean equals(Object o) {
+      if (!(o instanceof WBatchEditProxyModel.Cell)) {
+        return false;
+      }
+      WBatchEditProxyModel.Cell other = (WBatchEditProxyModel.Cell) o;
+      return this.row == other.row && this.column == other.column;
+    }
+
+    public int hashCode() {
+      return this.row * 31 + this.column;
+    }
   }
 
   static class Item extends WAbstractProxyModel.BaseItem {
@@ -619,7 +623,7 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
   private ItemDataRole dirtyIndicationRole_;
   private Object dirtyIndicationData_;
   private List<AbstractSignal.Connection> modelConnections_;
-  private SortedMap<WModelIndex, WAbstractProxyModel.BaseItem> mappedIndexes_;
+  private WAbstractProxyModel.ItemMap mappedIndexes_;
 
   private void sourceColumnsAboutToBeInserted(final WModelIndex parent, int start, int end) {
     if (this.isRemoved(parent)) {
@@ -709,7 +713,7 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
           if (child != null) {
             child.sourceIndex_ = this.getSourceModel().getIndex(start + i, 0, parent);
             child.insertedParent_ = null;
-            this.mappedIndexes_.put(child.sourceIndex_, child);
+            this.mappedIndexes_.put(child);
           }
           item.insertedItems_.remove(0 + index);
           item.insertedRows_.remove(0 + index);
@@ -805,7 +809,7 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
     if (i == null) {
       if (autoCreate) {
         WBatchEditProxyModel.Item result = new WBatchEditProxyModel.Item(sourceParent);
-        this.mappedIndexes_.put(sourceParent, result);
+        this.mappedIndexes_.put(result);
         return result;
       } else {
         return null;
@@ -982,16 +986,8 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
 
   private void deleteItemsUnder(WBatchEditProxyModel.Item item, int row) {
     WModelIndex sourceIndex = this.getSourceModel().getIndex(row, 0, item.sourceIndex_);
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.tailMap(sourceIndex).entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-      if (isAncestor(sourceIndex, i.getKey())) {
-
-        i_it.remove();
-      } else {
-        break;
-      }
+    if (sourceIndex != null) {
+      this.mappedIndexes_.removeWithDescendants(sourceIndex);
     }
   }
 
@@ -1004,25 +1000,21 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
 
   private void shiftRows(
       final Map<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> v, int row, int count) {
+    Map<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> shifted =
+        new HashMap<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>>();
     for (Iterator<Map.Entry<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>>> i_it =
             v.entrySet().iterator();
         i_it.hasNext(); ) {
       Map.Entry<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> i = i_it.next();
-      if (i.getKey().row >= row) {
-        final WBatchEditProxyModel.Cell c = i.getKey();
-        if (count < 0) {
-          if (c.row >= row - count) {
-            c.row += count;
-          } else {
-            i_it.remove();
-          }
-        } else {
-          c.row += count;
+      final WBatchEditProxyModel.Cell c = i.getKey();
+      if (c.row >= row) {
+        if (count > 0 || c.row >= row - count) {
+          shifted.put(new WBatchEditProxyModel.Cell(c.row + count, c.column), i.getValue());
         }
-      } else {
-        break;
+        i_it.remove();
       }
     }
+    v.putAll(shifted);
   }
 
   private void shiftRows(WBatchEditProxyModel.Item item, int row, int count) {
@@ -1035,24 +1027,21 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
       final Map<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> v,
       int column,
       int count) {
+    Map<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> shifted =
+        new HashMap<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>>();
     for (Iterator<Map.Entry<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>>> i_it =
             v.entrySet().iterator();
         i_it.hasNext(); ) {
       Map.Entry<WBatchEditProxyModel.Cell, SortedMap<ItemDataRole, Object>> i = i_it.next();
-      if (i.getKey().column >= column) {
-        final WBatchEditProxyModel.Cell c = i.getKey();
-        if (count < 0) {
-          if (c.column >= column - count) {
-            c.column += count;
-          } else {
-            i_it.remove();
-          }
-        } else {
-          c.column += count;
+      final WBatchEditProxyModel.Cell c = i.getKey();
+      if (c.column >= column) {
+        if (count > 0 || c.column >= column - count) {
+          shifted.put(new WBatchEditProxyModel.Cell(c.row, c.column + count), i.getValue());
         }
-      } else {
+        i_it.remove();
       }
     }
+    v.putAll(shifted);
   }
 
   private void shiftColumns(WBatchEditProxyModel.Item item, int column, int count) {
@@ -1062,11 +1051,6 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
   }
 
   private void resetMappings() {
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-    }
     this.mappedIndexes_.clear();
   }
 
@@ -1087,16 +1071,4 @@ public class WBatchEditProxyModel extends WAbstractProxyModel {
       return value;
     }
   }
-
-  static boolean isAncestor(final WModelIndex i1, final WModelIndex i2) {
-    if (!(i1 != null)) {
-      return false;
-    }
-    for (WModelIndex p = i1; (p != null); p = p.getParent()) {
-      if ((p == i2 || (p != null && p.equals(i2)))) {
-        return true;
-      }
-    }
-    return !(i2 != null);
-  }
 }
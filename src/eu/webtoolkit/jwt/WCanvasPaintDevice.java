@@ -57,6 +57,8 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
     this.currentShadow_ = new WShadow();
     this.currentFont_ = new WFont();
     this.pathTranslation_ = new WPointF();
+    this.precision_ = 3;
+    this.pathBuffer_ = new StringBuilder();
     this.currentClipPath_ = new WPainterPath();
     this.currentClipTransform_ = new WTransform();
     this.currentClippingEnabled_ = false;
@@ -101,6 +103,26 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
   public WCanvasPaintDevice(final WLength width, final WLength height) {
     this(width, height, false);
   }
+  /**
+   * Sets the number of decimals used for path coordinates.
+   *
+   * <p>Coordinates are rounded to this number of decimals, and written without trailing zeros.
+   *
+   * <p>The default value is 3.
+   */
+  public void setPrecision(int decimals) {
+    this.precision_ = Math.max(0, Math.min(6, decimals));
+  }
+  /**
+   * Returns the number of decimals used for path coordinates.
+   *
+   * <p>
+   *
+   * @see WCanvasPaintDevice#setPrecision(int decimals)
+   */
+  public int getPrecision() {
+    return this.precision_;
+  }
 
   public EnumSet<PaintDeviceFeatureFlag> getFeatures() {
     if (ServerSideFontMetrics.isAvailable()) {
@@ -576,6 +598,8 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
   private WShadow currentShadow_;
   private WFont currentFont_;
   private WPointF pathTranslation_;
+  private int precision_;
+  private StringBuilder pathBuffer_;
   private WPainterPath currentClipPath_;
   private WTransform currentClipTransform_;
   private boolean currentClippingEnabled_;
@@ -880,7 +904,12 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
   }
   // private void resetPathTranslation() ;
   private void drawPlainPath(final StringWriter out, final WPainterPath path) {
-    char[] buf = new char[30];
+    this.pathBuffer_.setLength(0);
+    this.drawPlainPath(this.pathBuffer_, path);
+    out.getBuffer().append(this.pathBuffer_);
+  }
+
+  private void drawPlainPath(final StringBuilder out, final WPainterPath path) {
     out.append("ctx.beginPath();");
     final List<WPainterPath.Segment> segments = path.getSegments();
     if (segments.size() > 0 && segments.get(0).getType() != SegmentType.MoveTo) {
@@ -890,44 +919,35 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
       final WPainterPath.Segment s = segments.get(i);
       switch (s.getType()) {
         case MoveTo:
-          out.append("ctx.moveTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-          out.append(',')
-              .append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3))
-              .append(");");
+          out.append("ctx.moveTo(");
+          this.appendPathPoint(out, s.getX(), s.getY());
+          out.append(");");
           break;
         case LineTo:
-          out.append("ctx.lineTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-          out.append(',')
-              .append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3))
-              .append(");");
+          out.append("ctx.lineTo(");
+          this.appendPathPoint(out, s.getX(), s.getY());
+          out.append(");");
           break;
         case CubicC1:
-          out.append("ctx.bezierCurveTo(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-          out.append(',').append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+          out.append("ctx.bezierCurveTo(");
+          this.appendPathPoint(out, s.getX(), s.getY());
           break;
         case CubicC2:
-          out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
-              .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+          out.append(',');
+          this.appendPathPoint(out, s.getX(), s.getY());
           break;
         case CubicEnd:
-          out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
-              .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3)).append(");");
+          out.append(',');
+          this.appendPathPoint(out, s.getX(), s.getY());
+          out.append(");");
           break;
         case ArcC:
-          out.append("ctx.arc(")
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
-              .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
+          out.append("ctx.arc(");
+          this.appendPathPoint(out, s.getX(), s.getY());
           break;
         case ArcR:
-          out.append(',').append(MathUtils.roundJs(Math.max(0.0, s.getX()), 3));
+          out.append(',');
+          this.appendRounded(out, Math.max(0.0, s.getX()));
           break;
         case ArcAngleSweep:
           {
@@ -949,24 +969,27 @@ public class WCanvasPaintDevice extends WObject implements WPaintDevice {
           }
           break;
         case QuadC:
-          {
-            final double cpx = s.getX();
-            final double cpy = s.getY();
-            out.append("ctx.quadraticCurveTo(")
-                .append(MathUtils.roundJs(cpx + this.pathTranslation_.getX(), 3))
-                .append(',');
-            out.append(MathUtils.roundJs(cpy + this.pathTranslation_.getY(), 3));
-            break;
-          }
+          out.append("ctx.quadraticCurveTo(");
+          this.appendPathPoint(out, s.getX(), s.getY());
+          break;
         case QuadEnd:
-          out.append(',')
-              .append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3))
-              .append(',');
-          out.append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3)).append(");");
+          out.append(',');
+          this.appendPathPoint(out, s.getX(), s.getY());
+          out.append(");");
       }
     }
   }
 
+  private void appendPathPoint(final StringBuilder out, double x, double y) {
+    this.appendRounded(out, x + this.pathTranslation_.getX());
+    out.append(',');
+    this.appendRounded(out, y + this.pathTranslation_.getY());
+  }
+
+  private void appendRounded(final StringBuilder out, double v) {
+    MathUtils.appendRounded(out, v, this.precision_);
+  }
+
   private void doDrawImage(
       final WRectF rect,
       WAbstractDataInfo info,
@@ -0,0 +1,793 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt;
+
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.chart.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A table model that stores its data column by column.
+ *
+ * <p>Unlike {@link WStandardItemModel}, which keeps an item with a map of data roles for every
+ * cell, this model stores each column as a primitive array of a fixed {@link ColumnType}: <code>
+ * int</code>, <code>long</code>, <code>double</code> or a dictionary encoded string. This makes it
+ * suitable for large tables that are shown in a {@link WTableView} or plotted by a chart.
+ *
+ * <p>The {@link ItemDataRole#Display} (and {@link ItemDataRole#Edit}) role is stored in the column
+ * arrays. Data for other roles is kept in a sparse map, and should only be used for a small number
+ * of cells.
+ *
+ * <p>Rows can be added in bulk using {@link WColumnarTableModel#appendRowBlock(Object[] columns)
+ * appendRowBlock()} or {@link WColumnarTableModel#insertRowBlock(int row, Object[] columns)
+ * insertRowBlock()}, which emit a single {@link WAbstractItemModel#rowsInserted() rowsInserted()}
+ * signal for the whole block.
+ *
+ * <p>Usage example:
+ *
+ * <pre>{@code
+ * WColumnarTableModel model = new WColumnarTableModel(
+ *     WColumnarTableModel.ColumnType.String, WColumnarTableModel.ColumnType.Double);
+ * model.setHeaderData(0, "Name");
+ * model.setHeaderData(1, "Price");
+ * model.appendRowBlock(new String[] { "apple", "pear" }, new double[] { 0.45, 0.6 });
+ *
+ * }</pre>
+ */
+public class WColumnarTableModel extends WAbstractTableModel {
+  private static Logger logger = LoggerFactory.getLogger(WColumnarTableModel.class);
+
+  /** Enumeration for the storage type of a column. */
+  public enum ColumnType {
+    /** Values are stored as <code>int</code>. */
+    Int,
+    /** Values are stored as <code>long</code>. */
+    Long,
+    /** Values are stored as <code>double</code>. */
+    Double,
+    /** Values are stored as dictionary encoded strings. */
+    String;
+
+    /** Returns the numerical representation of this enum. */
+    public int getValue() {
+      return ordinal();
+    }
+  }
+  /**
+   * Creates a new model with the given column types.
+   *
+   * <p>The model initially has no rows.
+   */
+  public WColumnarTableModel(ColumnType... types) {
+    super();
+    this.columns_ = new ArrayList<WColumnarTableModel.Column>();
+    this.headerData_ = new ArrayList<SortedMap<ItemDataRole, Object>>();
+    this.flags_ = new ArrayList<EnumSet<ItemFlag>>();
+    this.rowCount_ = 0;
+    for (ColumnType type : types) {
+      this.addColumn(type);
+    }
+  }
+  /**
+   * Creates a new model with the given column types.
+   *
+   * <p>Calls {@link #WColumnarTableModel(ColumnType[] types) this(types.toArray())}
+   */
+  public WColumnarTableModel(final List<ColumnType> types) {
+    this(types.toArray(new ColumnType[0]));
+  }
+  /**
+   * Adds a column.
+   *
+   * <p>The new column is added after the existing columns. Its values are initially empty (<code>
+   * null</code>).
+   */
+  public void addColumn(ColumnType type) {
+    int column = this.columns_.size();
+    this.beginInsertColumns(null, column, column);
+    WColumnarTableModel.Column c = createColumn(type);
+    c.insert(0, this.rowCount_);
+    this.columns_.add(c);
+    this.headerData_.add(new TreeMap<ItemDataRole, Object>());
+    this.flags_.add(EnumSet.of(ItemFlag.Selectable));
+    this.endInsertColumns();
+  }
+  /** Returns the storage type of a column. */
+  public ColumnType getColumnType(int column) {
+    return this.columns_.get(column).getType();
+  }
+  /**
+   * Sets the flags for all items in a column.
+   *
+   * <p>The default flags are {@link ItemFlag#Selectable}.
+   */
+  public void setColumnFlags(int column, EnumSet<ItemFlag> flags) {
+    this.flags_.set(column, EnumSet.copyOf(flags));
+    if (this.rowCount_ > 0) {
+      this.dataChanged()
+          .trigger(this.getIndex(0, column), this.getIndex(this.rowCount_ - 1, column));
+    }
+  }
+  /**
+   * Sets the flags for all items in a column.
+   *
+   * <p>Calls {@link #setColumnFlags(int column, EnumSet flags) setColumnFlags(column,
+   * EnumSet.of(flag, flags))}
+   */
+  public final void setColumnFlags(int column, ItemFlag flag, ItemFlag... flags) {
+    setColumnFlags(column, EnumSet.of(flag, flags));
+  }
+
+  public EnumSet<ItemFlag> getFlags(final WModelIndex index) {
+    return this.flags_.get(index.getColumn());
+  }
+
+  public int getColumnCount(final WModelIndex parent) {
+    return (parent != null) ? 0 : this.columns_.size();
+  }
+
+  public int getRowCount(final WModelIndex parent) {
+    return (parent != null) ? 0 : this.rowCount_;
+  }
+
+  public Object getData(final WModelIndex index, ItemDataRole role) {
+    WColumnarTableModel.Column c = this.columns_.get(index.getColumn());
+    if (role.equals(ItemDataRole.Display) || role.equals(ItemDataRole.Edit)) {
+      return c.get(index.getRow());
+    } else {
+      if (c.otherData_ != null) {
+        SortedMap<ItemDataRole, Object> d = c.otherData_.get(index.getRow());
+        return d != null ? d.get(role) : null;
+      } else {
+        return null;
+      }
+    }
+  }
+  /**
+   * Sets data for an item.
+   *
+   * <p>For the {@link ItemDataRole#Display} and {@link ItemDataRole#Edit} roles, the value is
+   * converted to the column type. This returns <code>false</code> if the value cannot be
+   * converted.
+   */
+  public boolean setData(final WModelIndex index, final Object value, ItemDataRole role) {
+    WColumnarTableModel.Column c = this.columns_.get(index.getColumn());
+    if (role.equals(ItemDataRole.Display) || role.equals(ItemDataRole.Edit)) {
+      if (!c.set(index.getRow(), value)) {
+        return false;
+      }
+    } else {
+      if (c.otherData_ == null) {
+        c.otherData_ = new TreeMap<Integer, SortedMap<ItemDataRole, Object>>();
+      }
+      SortedMap<ItemDataRole, Object> d = c.otherData_.get(index.getRow());
+      if (d == null) {
+        d = new TreeMap<ItemDataRole, Object>();
+        c.otherData_.put(index.getRow(), d);
+      }
+      d.put(role, value);
+    }
+    this.dataChanged().trigger(index, index);
+    return true;
+  }
+  /**
+   * Returns an <code>int</code> value.
+   *
+   * <p>This returns the value of an {@link ColumnType#Int} column, or the value of another
+   * numerical column converted to <code>int</code>, without allocating. Empty values are returned
+   * as 0.
+   */
+  public int getInt(int row, int column) {
+    return (int) this.columns_.get(column).getLong(row);
+  }
+  /**
+   * Returns a <code>long</code> value.
+   *
+   * <p>This returns the value of a numerical column as <code>long</code>, without allocating.
+   * Empty values are returned as 0.
+   */
+  public long getLong(int row, int column) {
+    return this.columns_.get(column).getLong(row);
+  }
+  /**
+   * Returns a <code>double</code> value.
+   *
+   * <p>This returns the value of a numerical column as <code>double</code>, without allocating.
+   * Empty values are returned as NaN. Values of a {@link ColumnType#String} column are parsed as a
+   * number.
+   */
+  public double getDouble(int row, int column) {
+    return this.columns_.get(column).getDouble(row);
+  }
+  /**
+   * Returns whether a value is empty.
+   *
+   * <p>A value is empty when it was never set, or was set to <code>null</code>.
+   */
+  public boolean isEmpty(int row, int column) {
+    return this.columns_.get(column).isNull(row);
+  }
+
+  public boolean setHeaderData(
+      int section, Orientation orientation, final Object value, ItemDataRole role) {
+    if (orientation == Orientation.Horizontal) {
+      if (role.equals(ItemDataRole.Edit)) {
+        role = ItemDataRole.Display;
+      }
+      this.headerData_.get(section).put(role, value);
+      this.headerDataChanged().trigger(orientation, section, section);
+      return true;
+    } else {
+      return super.setHeaderData(section, orientation, value, role);
+    }
+  }
+
+  public Object getHeaderData(int section, Orientation orientation, ItemDataRole role) {
+    if (orientation == Orientation.Horizontal) {
+      if (role.equals(ItemDataRole.Level)) {
+        return 0;
+      }
+      return this.headerData_.get(section).get(role);
+    } else {
+      return super.getHeaderData(section, orientation, role);
+    }
+  }
+  /**
+   * Inserts empty rows.
+   *
+   * <p>The values of the new rows are empty (<code>null</code>).
+   */
+  public boolean insertRows(int row, int count, final WModelIndex parent) {
+    if ((parent != null) || count <= 0) {
+      return false;
+    }
+    this.beginInsertRows(parent, row, row + count - 1);
+    for (WColumnarTableModel.Column c : this.columns_) {
+      c.insert(row, count);
+      c.shiftOtherData(row, count);
+    }
+    this.rowCount_ += count;
+    this.endInsertRows();
+    return true;
+  }
+
+  public boolean removeRows(int row, int count, final WModelIndex parent) {
+    if ((parent != null) || count <= 0) {
+      return false;
+    }
+    this.beginRemoveRows(parent, row, row + count - 1);
+    for (WColumnarTableModel.Column c : this.columns_) {
+      c.remove(row, count);
+      c.removeOtherData(row, count);
+    }
+    this.rowCount_ -= count;
+    this.endRemoveRows();
+    return true;
+  }
+  /**
+   * Inserts a block of rows.
+   *
+   * <p>Each argument provides the values for one column, as an array that matches the column
+   * type: <code>int[]</code>, <code>long[]</code>, <code>double[]</code> or <code>String[]
+   * </code>. A numerical column also accepts an array of another numerical type. All arrays must
+   * have the same length, and there must be one array per column.
+   *
+   * <p>This emits a single {@link WAbstractItemModel#rowsInserted() rowsInserted()} signal for
+   * the whole block.
+   */
+  public void insertRowBlock(int row, Object... columns) {
+    if (columns.length != this.columns_.size()) {
+      throw new WException(
+          "WColumnarTableModel::insertRowBlock(): expected "
+              + String.valueOf(this.columns_.size())
+              + " columns");
+    }
+    int count = -1;
+    for (int i = 0; i < columns.length; ++i) {
+      if (!this.columns_.get(i).accepts(columns[i])) {
+        throw new WException(
+            "WColumnarTableModel::insertRowBlock(): cannot store "
+                + (columns[i] == null ? "null" : columns[i].getClass().getSimpleName())
+                + " in a "
+                + this.columns_.get(i).getType().name()
+                + " column");
+      }
+      int length = java.lang.reflect.Array.getLength(columns[i]);
+      if (count != -1 && length != count) {
+        throw new WException("WColumnarTableModel::insertRowBlock(): columns differ in length");
+      }
+      count = length;
+    }
+    if (count <= 0) {
+      return;
+    }
+    this.beginInsertRows(null, row, row + count - 1);
+    for (int i = 0; i < columns.length; ++i) {
+      WColumnarTableModel.Column c = this.columns_.get(i);
+      c.insert(row, count);
+      c.shiftOtherData(row, count);
+      c.setBlock(row, columns[i], count);
+    }
+    this.rowCount_ += count;
+    this.endInsertRows();
+  }
+  /**
+   * Appends a block of rows.
+   *
+   * <p>Calls {@link #insertRowBlock(int row, Object[] columns) insertRowBlock(getRowCount(),
+   * columns)}
+   */
+  public void appendRowBlock(Object... columns) {
+    this.insertRowBlock(this.rowCount_, columns);
+  }
+
+  public void sort(int column, SortOrder order) {
+    this.layoutAboutToBeChanged().trigger();
+    final WColumnarTableModel.Column c = this.columns_.get(column);
+    final int factor = order == SortOrder.Ascending ? 1 : -1;
+    Integer[] permutation = new Integer[this.rowCount_];
+    for (int i = 0; i < permutation.length; ++i) {
+      permutation[i] = i;
+    }
+    Arrays.sort(
+        permutation,
+        (Integer r1, Integer r2) -> {
+          return factor * c.compare(r1, r2);
+        });
+    int[] p = new int[permutation.length];
+    for (int i = 0; i < p.length; ++i) {
+      p[i] = permutation[i];
+    }
+    for (WColumnarTableModel.Column col : this.columns_) {
+      col.permute(p, this.rowCount_);
+    }
+    this.layoutChanged().trigger();
+  }
+
+  abstract static class Column {
+    private static Logger logger = LoggerFactory.getLogger(Column.class);
+
+    public Column() {
+      this.nulls_ = new BitSet();
+      this.size_ = 0;
+      this.otherData_ = null;
+    }
+
+    public abstract ColumnType getType();
+
+    public abstract Object get(int row);
+
+    public abstract long getLong(int row);
+
+    public abstract double getDouble(int row);
+
+    public abstract boolean set(int row, Object value);
+
+    public abstract void setBlock(int row, Object values, int count);
+
+    public abstract boolean accepts(Object values);
+
+    public abstract int compare(int row1, int row2);
+
+    public boolean isNull(int row) {
+      return this.nulls_.get(row);
+    }
+
+    public void insert(int row, int count) {
+      this.ensureCapacity(this.size_ + count);
+      Object data = this.getArray();
+      System.arraycopy(data, row, data, row + count, this.size_ - row);
+      BitSet tail = this.nulls_.get(row, this.size_);
+      this.nulls_.set(row, row + count);
+      this.nulls_.clear(row + count, this.size_ + count);
+      for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+        this.nulls_.set(row + count + i);
+      }
+      this.size_ += count;
+    }
+
+    public void remove(int row, int count) {
+      Object data = this.getArray();
+      System.arraycopy(data, row + count, data, row, this.size_ - row - count);
+      BitSet tail = this.nulls_.get(row + count, this.size_);
+      this.nulls_.clear(row, this.size_);
+      for (int i = tail.nextSetBit(0); i >= 0; i = tail.nextSetBit(i + 1)) {
+        this.nulls_.set(row + i);
+      }
+      this.size_ -= count;
+    }
+
+    public void permute(int[] permutation, int count) {
+      this.permuteArray(permutation, count);
+      BitSet nulls = new BitSet();
+      for (int i = 0; i < count; ++i) {
+        if (this.nulls_.get(permutation[i])) {
+          nulls.set(i);
+        }
+      }
+      this.nulls_ = nulls;
+      if (this.otherData_ != null) {
+        SortedMap<Integer, SortedMap<ItemDataRole, Object>> otherData =
+            new TreeMap<Integer, SortedMap<ItemDataRole, Object>>();
+        for (int i = 0; i < count; ++i) {
+          SortedMap<ItemDataRole, Object> d = this.otherData_.get(permutation[i]);
+          if (d != null) {
+            otherData.put(i, d);
+          }
+        }
+        this.otherData_ = otherData;
+      }
+    }
+
+    public void shiftOtherData(int row, int count) {
+      if (this.otherData_ == null) {
+        return;
+      }
+      SortedMap<Integer, SortedMap<ItemDataRole, Object>> tail =
+          new TreeMap<Integer, SortedMap<ItemDataRole, Object>>(this.otherData_.tailMap(row));
+      this.otherData_.keySet().removeAll(tail.keySet());
+      for (Map.Entry<Integer, SortedMap<ItemDataRole, Object>> e : tail.entrySet()) {
+        this.otherData_.put(e.getKey() + count, e.getValue());
+      }
+    }
+
+    public void removeOtherData(int row, int count) {
+      if (this.otherData_ == null) {
+        return;
+      }
+      this.otherData_.subMap(row, row + count).clear();
+      this.shiftOtherData(row + count, -count);
+    }
+
+    protected abstract Object getArray();
+
+    protected abstract void permuteArray(int[] permutation, int count);
+
+    protected abstract void ensureCapacity(int capacity);
+
+    protected static int grow(int length, int capacity) {
+      return Math.max(capacity, length + (length >> 1) + 16);
+    }
+
+    protected BitSet nulls_;
+    protected int size_;
+    public SortedMap<Integer, SortedMap<ItemDataRole, Object>> otherData_;
+  }
+
+  static class NumberColumn extends WColumnarTableModel.Column {
+    private static Logger logger = LoggerFactory.getLogger(NumberColumn.class);
+
+    public NumberColumn(ColumnType type) {
+      super();
+      this.type_ = type;
+      if (type == ColumnType.Int) {
+        this.ints_ = new int[0];
+      } else {
+        if (type == ColumnType.Long) {
+          this.longs_ = new long[0];
+        } else {
+          this.doubles_ = new double[0];
+        }
+      }
+    }
+
+    public ColumnType getType() {
+      return this.type_;
+    }
+
+    public Object get(int row) {
+      if (this.nulls_.get(row)) {
+        return null;
+      }
+      switch (this.type_) {
+        case Int:
+          return this.ints_[row];
+        case Long:
+          return this.longs_[row];
+        default:
+          return this.doubles_[row];
+      }
+    }
+
+    public long getLong(int row) {
+      if (this.nulls_.get(row)) {
+        return 0;
+      }
+      switch (this.type_) {
+        case Int:
+          return this.ints_[row];
+        case Long:
+          return this.longs_[row];
+        default:
+          return (long) this.doubles_[row];
+      }
+    }
+
+    public double getDouble(int row) {
+      if (this.nulls_.get(row)) {
+        return Double.NaN;
+      }
+      switch (this.type_) {
+        case Int:
+          return this.ints_[row];
+        case Long:
+          return this.longs_[row];
+        default:
+          return this.doubles_[row];
+      }
+    }
+
+    public boolean set(int row, Object value) {
+      if (value == null) {
+        this.nulls_.set(row);
+        return true;
+      }
+      double d;
+      if (value instanceof Number) {
+        d = ((Number) value).doubleValue();
+      } else {
+        d = StringUtils.asNumber(value);
+        if (Double.isNaN(d)) {
+          return false;
+        }
+      }
+      if (this.type_ == ColumnType.Double) {
+        this.doubles_[row] = d;
+      } else {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+          return false;
+        }
+        long l =
+            value instanceof Integer || value instanceof Long
+                ? ((Number) value).longValue()
+                : (long) d;
+        if (this.type_ == ColumnType.Int) {
+          this.ints_[row] = (int) l;
+        } else {
+          this.longs_[row] = l;
+        }
+      }
+      this.nulls_.clear(row);
+      return true;
+    }
+
+    public boolean accepts(Object values) {
+      return values instanceof int[] || values instanceof long[] || values instanceof double[];
+    }
+
+    public void setBlock(int row, Object values, int count) {
+      if (values instanceof int[] && this.type_ == ColumnType.Int) {
+        System.arraycopy(values, 0, this.ints_, row, count);
+      } else {
+        if (values instanceof long[] && this.type_ == ColumnType.Long) {
+          System.arraycopy(values, 0, this.longs_, row, count);
+        } else {
+          if (values instanceof double[] && this.type_ == ColumnType.Double) {
+            System.arraycopy(values, 0, this.doubles_, row, count);
+          } else {
+            if (values instanceof int[] || values instanceof long[] || values instanceof double[]) {
+              for (int i = 0; i < count; ++i) {
+                this.set(row + i, java.lang.reflect.Array.get(values, i));
+              }
+              return;
+            } else {
+              throw new WException(
+                  "WColumnarTableModel: cannot store "
+                      + values.getClass().getSimpleName()
+                      + " in a "
+                      + this.type_.name()
+                      + " column");
+            }
+          }
+        }
+      }
+      this.nulls_.clear(row, row + count);
+    }
+
+    public int compare(int row1, int row2) {
+      boolean n1 = this.nulls_.get(row1);
+      boolean n2 = this.nulls_.get(row2);
+      if (n1 || n2) {
+        return n1 == n2 ? 0 : n1 ? -1 : 1;
+      }
+      switch (this.type_) {
+        case Int:
+          return Integer.compare(this.ints_[row1], this.ints_[row2]);
+        case Long:
+          return Long.compare(this.longs_[row1], this.longs_[row2]);
+        default:
+          return Double.compare(this.doubles_[row1], this.doubles_[row2]);
+      }
+    }
+
+    protected void permuteArray(int[] permutation, int count) {
+      switch (this.type_) {
+        case Int:
+          {
+            int[] copy = Arrays.copyOf(this.ints_, count);
+            for (int i = 0; i < count; ++i) {
+              this.ints_[i] = copy[permutation[i]];
+            }
+            break;
+          }
+        case Long:
+          {
+            long[] copy = Arrays.copyOf(this.longs_, count);
+            for (int i = 0; i < count; ++i) {
+              this.longs_[i] = copy[permutation[i]];
+            }
+            break;
+          }
+        default:
+          {
+            double[] copy = Arrays.copyOf(this.doubles_, count);
+            for (int i = 0; i < count; ++i) {
+              this.doubles_[i] = copy[permutation[i]];
+            }
+          }
+      }
+    }
+
+    protected Object getArray() {
+      switch (this.type_) {
+        case Int:
+          return this.ints_;
+        case Long:
+          return this.longs_;
+        default:
+          return this.doubles_;
+      }
+    }
+
+    protected void ensureCapacity(int capacity) {
+      switch (this.type_) {
+        case Int:
+          if (capacity > this.ints_.length) {
+            this.ints_ = Arrays.copyOf(this.ints_, grow(this.ints_.length, capacity));
+          }
+          break;
+        case Long:
+          if (capacity > this.longs_.length) {
+            this.longs_ = Arrays.copyOf(this.longs_, grow(this.longs_.length, capacity));
+          }
+          break;
+        default:
+          if (capacity > this.doubles_.length) {
+            this.doubles_ = Arrays.copyOf(this.doubles_, grow(this.doubles_.length, capacity));
+          }
+      }
+    }
+
+    private ColumnType type_;
+    private int[] ints_;
+    private long[] longs_;
+    private double[] doubles_;
+  }
+
+  static class StringColumn extends WColumnarTableModel.Column {
+    private static Logger logger = LoggerFactory.getLogger(StringColumn.class);
+
+    public StringColumn() {
+      super();
+      this.codes_ = new int[0];
+      this.dictionary_ = new ArrayList<String>();
+      this.codeMap_ = new HashMap<String, Integer>();
+    }
+
+    public ColumnType getType() {
+      return ColumnType.String;
+    }
+
+    public Object get(int row) {
+      return this.nulls_.get(row) ? null : this.dictionary_.get(this.codes_[row]);
+    }
+
+    public long getLong(int row) {
+      double d = this.getDouble(row);
+      return Double.isNaN(d) ? 0 : (long) d;
+    }
+
+    public double getDouble(int row) {
+      return this.nulls_.get(row) ? Double.NaN : StringUtils.asNumber(this.get(row));
+    }
+
+    public boolean set(int row, Object value) {
+      if (value == null) {
+        this.nulls_.set(row);
+      } else {
+        this.codes_[row] = this.encode(StringUtils.asString(value).toString());
+        this.nulls_.clear(row);
+      }
+      return true;
+    }
+
+    public boolean accepts(Object values) {
+      return values instanceof Object[];
+    }
+
+    public void setBlock(int row, Object values, int count) {
+      if (!(values instanceof Object[])) {
+        throw new WException(
+            "WColumnarTableModel: cannot store "
+                + values.getClass().getSimpleName()
+                + " in a String column");
+      }
+      Object[] v = (Object[]) values;
+      for (int i = 0; i < count; ++i) {
+        this.set(row + i, v[i]);
+      }
+    }
+
+    public int compare(int row1, int row2) {
+      boolean n1 = this.nulls_.get(row1);
+      boolean n2 = this.nulls_.get(row2);
+      if (n1 || n2) {
+        return n1 == n2 ? 0 : n1 ? -1 : 1;
+      }
+      if (this.codes_[row1] == this.codes_[row2]) {
+        return 0;
+      }
+      String s1 = this.dictionary_.get(this.codes_[row1]);
+      String s2 = this.dictionary_.get(this.codes_[row2]);
+      return s1.compareTo(s2);
+    }
+
+    protected Object getArray() {
+      return this.codes_;
+    }
+
+    protected void permuteArray(int[] permutation, int count) {
+      int[] copy = Arrays.copyOf(this.codes_, count);
+      for (int i = 0; i < count; ++i) {
+        this.codes_[i] = copy[permutation[i]];
+      }
+    }
+
+    protected void ensureCapacity(int capacity) {
+      if (capacity > this.codes_.length) {
+        this.codes_ = Arrays.copyOf(this.codes_, grow(this.codes_.length, capacity));
+      }
+    }
+
+    private int encode(String s) {
+      Integer code = this.codeMap_.get(s);
+      if (code == null) {
+        code = this.dictionary_.size();
+        this.dictionary_.add(s);
+        this.codeMap_.put(s, code);
+      }
+      return code;
+    }
+
+    private int[] codes_;
+    private List<String> dictionary_;
+    private Map<String, Integer> codeMap_;
+  }
+
+  private List<WColumnarTableModel.Column> columns_;
+  private List<SortedMap<ItemDataRole, Object>> headerData_;
+  private List<EnumSet<ItemFlag>> flags_;
+  private int rowCount_;
+
+  private static WColumnarTableModel.Column createColumn(ColumnType type) {
+    if (type == ColumnType.String) {
+      return new WColumnarTableModel.StringColumn();
+    } else {
+      return new WColumnarTableModel.NumberColumn(type);
+    }
+  }
+}
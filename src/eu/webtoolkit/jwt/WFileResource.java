@@ -6,8 +6,6 @@
 package eu.webtoolkit.jwt;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 
 import org.slf4j.Logger;
@@ -15,7 +13,6 @@ import org.slf4j.LoggerFactory;
 
 import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebResponse;
-import eu.webtoolkit.jwt.utils.StreamUtils;
 
 /**
  * A resource which streams data from a local file.
@@ -90,22 +87,11 @@ public class WFileResource extends WResource {
 
 	@Override
 	public void handleRequest(WebRequest request, WebResponse response) {
-		response.setContentType(mimeType_);
-
 		try {
-			File f = new File(fileName_);
-			FileInputStream fis = new FileInputStream(f);
-			try {
-				StreamUtils.copy(fis, response.getOutputStream());
-				response.getOutputStream().flush();
-			} catch (IOException e) {
-				logger.info("IOException, {}", fileName_, e);
-			} finally {
-				StreamUtils.closeQuietly(fis);
-			}
-		} catch (FileNotFoundException e) {
-			System.err.println("Could not find file: " + fileName_);
-			response.setStatus(404);
+			if (!handleFileRequest(request, response, new File(fileName_), mimeType_))
+				logger.info("Could not find file: {}", fileName_);
+		} catch (IOException e) {
+			logger.info("IOException, {}", fileName_, e);
 		}
 	}
 }
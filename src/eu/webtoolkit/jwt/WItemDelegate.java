@@ -41,6 +41,14 @@ public class WItemDelegate extends WAbstractItemDelegate {
   public WItemDelegate() {
     super();
     this.textFormat_ = "";
+    this.widgetReuseSupported_ =
+        !ObjectUtils.overrides(
+            this.getClass(),
+            WItemDelegate.class,
+            "update",
+            WWidget.class,
+            WModelIndex.class,
+            EnumSet.class);
   }
   /**
    * Creates or updates a widget that renders an item.
@@ -149,6 +157,13 @@ public class WItemDelegate extends WAbstractItemDelegate {
         a.setLink(link);
       }
       IndexText t = this.textWidget(widgetRef, index);
+      if (!isNew) {
+        TextFormat format =
+            index.getFlags().contains(ItemFlag.XHTMLText) ? TextFormat.XHTML : TextFormat.Plain;
+        if (t.getTextFormat() != format) {
+          t.setTextFormat(format);
+        }
+      }
       WString label = StringUtils.asString(index.getData(), this.textFormat_);
       if ((label.length() == 0) && haveCheckBox) {
         label = new WString(" ");
@@ -222,6 +237,15 @@ public class WItemDelegate extends WAbstractItemDelegate {
       }
     }
   }
+  /**
+   * Returns whether a widget may be reused to render another item.
+   *
+   * <p>This returns <code>true</code>, unless a specialization overrides {@link
+   * WItemDelegate#update(WWidget widget, WModelIndex index, EnumSet flags) update()}.
+   */
+  public boolean isWidgetReuseSupported() {
+    return this.widgetReuseSupported_;
+  }
   /**
    * Sets the text format string.
    *
@@ -414,6 +438,7 @@ public class WItemDelegate extends WAbstractItemDelegate {
   }
 
   private String textFormat_;
+  private boolean widgetReuseSupported_;
 
   static class WidgetRef {
     private static Logger logger = LoggerFactory.getLogger(WidgetRef.class);
@@ -56,6 +56,10 @@ public class WItemSelectionModel extends WObject {
    *
    * <p>When selection operates on rows ({@link SelectionBehavior#Rows}), this method only returns
    * the model index of first column&apos;s element of the selected rows.
+   *
+   * <p>Selected top level rows are stored as ranges of rows, and their model indexes are created
+   * while iterating the set. Subsets returned by the set (such as {@link SortedSet#tailSet(Object)
+   * tailSet()}) are views that are backed by the set.
    */
   public SortedSet<WModelIndex> getSelectedIndexes() {
     return this.selection_;
@@ -72,16 +76,7 @@ public class WItemSelectionModel extends WObject {
    */
   public boolean isSelected(final WModelIndex index) {
     if (this.selectionBehavior_ == SelectionBehavior.Rows) {
-      for (Iterator<WModelIndex> it_it = this.selection_.iterator(); it_it.hasNext(); ) {
-        WModelIndex it = it_it.next();
-        WModelIndex mi = it;
-        if (mi.getRow() == index.getRow()
-            && (mi.getParent() == index.getParent()
-                || (mi.getParent() != null && mi.getParent().equals(index.getParent())))) {
-          return true;
-        }
-      }
-      return false;
+      return this.selection_.containsRow(index);
     } else {
       return this.selection_.contains(index) != false;
     }
@@ -149,29 +144,37 @@ public class WItemSelectionModel extends WObject {
     }
   }
 
-  SortedSet<WModelIndex> selection_;
+  ItemSelectionSet selection_;
   private WAbstractItemModel model_;
   private SelectionBehavior selectionBehavior_;
+  private SortedSet<WModelIndex> encodedSelection_;
 
   WItemSelectionModel() {
     super();
-    this.selection_ = new TreeSet<WModelIndex>();
+    this.selection_ = new ItemSelectionSet();
     this.model_ = null;
     this.selectionBehavior_ = SelectionBehavior.Rows;
+    this.encodedSelection_ = null;
   }
 
   WItemSelectionModel(final WAbstractItemModel model) {
     super();
-    this.selection_ = new TreeSet<WModelIndex>();
+    this.selection_ = new ItemSelectionSet();
     this.model_ = model;
     this.selectionBehavior_ = SelectionBehavior.Rows;
+    this.encodedSelection_ = null;
   }
 
   void modelLayoutAboutToBeChanged() {
-    WModelIndex.encodeAsRawIndexes(this.selection_);
+    this.encodedSelection_ = new TreeSet<WModelIndex>(this.selection_);
+    WModelIndex.encodeAsRawIndexes(this.encodedSelection_);
   }
 
   void modelLayoutChanged() {
-    this.selection_ = WModelIndex.decodeFromRawIndexes(this.selection_);
+    if (this.encodedSelection_ != null) {
+      this.selection_ =
+          new ItemSelectionSet(WModelIndex.decodeFromRawIndexes(this.encodedSelection_));
+      this.encodedSelection_ = null;
+    }
   }
 }
@@ -86,6 +86,17 @@ public abstract class WJavaScriptExposableObject {
     }
   }
 
+  /**
+   * Returns JavaScript that updates the client side value from a previous value.
+   *
+   * <p>The previous value is the value last sent to the client. Returns <code>null</code> if the
+   * value should be sent in full using {@link WJavaScriptExposableObject#getJsValue()
+   * getJsValue()}, which is the default.
+   */
+  String getJsValueUpdate(final WJavaScriptExposableObject previous, final String jsRef) {
+    return null;
+  }
+
   public boolean closeTo(final WJavaScriptExposableObject other) {
     return false;
   }
@@ -34,6 +34,7 @@ class WJavaScriptObjectStorage {
 	public <T extends WJavaScriptExposableObject> WJavaScriptHandle<T> addObject(T o) {
 		int index = jsValues.size();
 		jsValues.add(o);
+		clientValues.add(null);
 		dirty.set(index, true);
 		o.clientBinding_ = new WJavaScriptExposableObject.JSInfo(
 				this, getJsRef() + ".jsValues[" + index + "]");
@@ -43,8 +44,17 @@ class WJavaScriptObjectStorage {
 	public void updateJs(StringBuilder js, boolean all) {
 		for (int i = 0; i < jsValues.size(); ++i) {
 			if (dirty.get(i) || all) {
-				js.append(getJsRef()).append(".setJsValue(").append(i).append(",");
-				js.append(jsValues.get(i).getJsValue()).append(");");
+				WJavaScriptExposableObject value = jsValues.get(i);
+				String update = null;
+				if (!all && clientValues.get(i) != null)
+					update = value.getJsValueUpdate(clientValues.get(i), getJsRef() + ".jsValues[" + i + "]");
+				if (update != null) {
+					js.append(update);
+				} else {
+					js.append(getJsRef()).append(".setJsValue(").append(i).append(",");
+					js.append(value.getJsValue()).append(");");
+				}
+				clientValues.set(i, value);
 				dirty.set(i, false);
 			}
 		}
@@ -85,5 +95,7 @@ class WJavaScriptObjectStorage {
 
 	final List<WJavaScriptExposableObject> jsValues = new ArrayList<WJavaScriptExposableObject>();
 	final BitSet dirty = new BitSet();
+	// the values last sent to the client, to send only what changed (see getJsValueUpdate())
+	private final List<WJavaScriptExposableObject> clientValues = new ArrayList<WJavaScriptExposableObject>();
 	private final WWidget widget;
 }
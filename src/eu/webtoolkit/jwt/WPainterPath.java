@@ -825,22 +825,122 @@ public class WPainterPath extends WJavaScriptExposableObject {
   }
 
   public String getJsValue() {
-    char[] buf = new char[30];
     StringBuilder ss = new StringBuilder();
     ss.append('[');
     for (int i = 0; i < this.segments_.size(); ++i) {
-      final WPainterPath.Segment s = this.segments_.get(i);
       if (i != 0) {
         ss.append(',');
       }
-      ss.append('[');
-      ss.append(MathUtils.roundJs(s.getX(), 3)).append(',');
-      ss.append(MathUtils.roundJs(s.getY(), 3)).append(',');
-      ss.append((int) s.getType().getValue()).append(']');
+      appendJsSegment(ss, this.segments_.get(i));
     }
     ss.append(']');
     return ss.toString();
   }
+  /**
+   * Returns JavaScript that updates the client side copy of a path to this path.
+   *
+   * <p>This recognizes a path that was obtained from the previous path by dropping segments at the
+   * front and adding segments at the back, such as the curve of a chart series to which data is
+   * appended in a sliding window. The segments that are kept may in addition be scaled and
+   * translated along each axis (as happens when an axis range changes), and the first few segments
+   * may have changed.
+   *
+   * <p>Returns <code>null</code> when the path should be sent as a whole instead, and an empty
+   * string when the path did not change.
+   */
+  String getJsValueUpdate(final WJavaScriptExposableObject previous, final String jsRef) {
+    if (!(previous instanceof WPainterPath) || previous == this) {
+      return previous == this ? "" : null;
+    }
+    final List<WPainterPath.Segment> o = ((WPainterPath) previous).segments_;
+    final List<WPainterPath.Segment> n = this.segments_;
+    if (o.isEmpty() || n.isEmpty()) {
+      return null;
+    }
+    boolean affine = !hasArcs(o) && !hasArcs(n);
+    double[] f = new double[4];
+    double[] bestF = new double[] {1, 0, 1, 0};
+    int bestDropped = 0;
+    int bestHead = 0;
+    int bestKept = 0;
+    for (int dropped = 0; dropped < o.size() && bestKept < o.size() - dropped; ++dropped) {
+      for (int head = 0; head <= MAX_CHANGED_HEAD && head < n.size(); ++head) {
+        int span = Math.min(o.size() - dropped, n.size()) - head;
+        if (span <= bestKept) {
+          break;
+        }
+        if (affine) {
+          int mid = head + span / 2;
+          if (!fitAxis(o, n, dropped, head, mid, true, f)
+              || !fitAxis(o, n, dropped, head, mid, false, f)) {
+            continue;
+          }
+        } else {
+          f[0] = 1;
+          f[1] = 0;
+          f[2] = 1;
+          f[3] = 0;
+        }
+        int kept = 0;
+        while (kept < span && matches(o.get(dropped + head + kept), n.get(head + kept), f)) {
+          ++kept;
+        }
+        if (kept > bestKept) {
+          bestKept = kept;
+          bestDropped = dropped;
+          bestHead = head;
+          System.arraycopy(f, 0, bestF, 0, 4);
+        }
+      }
+    }
+    int sent = n.size() - bestKept;
+    if (sent * 2 >= n.size() && sent != 0) {
+      return null;
+    }
+    boolean identity = bestF[0] == 1 && bestF[1] == 0 && bestF[2] == 1 && bestF[3] == 0;
+    int length = bestHead + bestKept;
+    if (bestDropped == 0 && identity && sent == 0 && length == o.size()) {
+      return "";
+    }
+    StringBuilder ss = new StringBuilder();
+    ss.append("(function(p){");
+    if (bestDropped != 0) {
+      ss.append("p.splice(0,").append(bestDropped).append(");");
+    }
+    if (length != o.size() - bestDropped) {
+      ss.append("p.length=").append(length).append(';');
+    }
+    if (!identity) {
+      ss.append("for(const s of p){s[0]=")
+          .append(MathUtils.roundJs(bestF[0], 16))
+          .append("*s[0]+")
+          .append(MathUtils.roundJs(bestF[1], 16))
+          .append(";s[1]=")
+          .append(MathUtils.roundJs(bestF[2], 16))
+          .append("*s[1]+")
+          .append(MathUtils.roundJs(bestF[3], 16))
+          .append(";}");
+    }
+    if (bestHead != 0) {
+      ss.append("p.splice(0,").append(bestHead);
+      for (int i = 0; i < bestHead; ++i) {
+        appendJsSegment(ss.append(','), n.get(i));
+      }
+      ss.append(");");
+    }
+    if (length < n.size()) {
+      ss.append("p.push(");
+      for (int i = length; i < n.size(); ++i) {
+        if (i != length) {
+          ss.append(',');
+        }
+        appendJsSegment(ss, n.get(i));
+      }
+      ss.append(");");
+    }
+    ss.append("})(").append(jsRef).append(");");
+    return ss.toString();
+  }
 
   protected void assignFromJSON(final com.google.gson.JsonElement value) {}
 
@@ -884,4 +984,70 @@ public class WPainterPath extends WJavaScriptExposableObject {
   static double degreesToRadians(double r) {
     return r / 180. * 3.14159265358979323846;
   }
+
+  private static final int MAX_CHANGED_HEAD = 3;
+
+  private static void appendJsSegment(final StringBuilder ss, final WPainterPath.Segment s) {
+    ss.append('[');
+    ss.append(MathUtils.roundJs(s.getX(), 3)).append(',');
+    ss.append(MathUtils.roundJs(s.getY(), 3)).append(',');
+    ss.append((int) s.getType().getValue()).append(']');
+  }
+
+  private static boolean hasArcs(final List<WPainterPath.Segment> segments) {
+    for (int i = 0; i < segments.size(); ++i) {
+      SegmentType type = segments.get(i).getType();
+      if (type == SegmentType.ArcR || type == SegmentType.ArcAngleSweep) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean fitAxis(
+      final List<WPainterPath.Segment> o,
+      final List<WPainterPath.Segment> n,
+      int dropped,
+      int first,
+      int second,
+      boolean x,
+      double[] f) {
+    WPainterPath.Segment o1 = o.get(dropped + first);
+    WPainterPath.Segment o2 = o.get(dropped + second);
+    WPainterPath.Segment n1 = n.get(first);
+    WPainterPath.Segment n2 = n.get(second);
+    double oldDelta = x ? o2.getX() - o1.getX() : o2.getY() - o1.getY();
+    double newDelta = x ? n2.getX() - n1.getX() : n2.getY() - n1.getY();
+    double scale;
+    if (oldDelta == 0) {
+      if (!closeTo(newDelta, 0)) {
+        return false;
+      }
+      scale = 1;
+    } else {
+      scale = newDelta / oldDelta;
+      if (closeTo(scale, 1)) {
+        scale = 1;
+      }
+    }
+    double offset = x ? n1.getX() - scale * o1.getX() : n1.getY() - scale * o1.getY();
+    if (closeTo(offset, 0)) {
+      offset = 0;
+    }
+    int i = x ? 0 : 2;
+    f[i] = scale;
+    f[i + 1] = offset;
+    return true;
+  }
+
+  private static boolean matches(
+      final WPainterPath.Segment o, final WPainterPath.Segment n, double[] f) {
+    return o.getType() == n.getType()
+        && closeTo(f[0] * o.getX() + f[1], n.getX())
+        && closeTo(f[2] * o.getY() + f[3], n.getY());
+  }
+
+  private static boolean closeTo(double v, double expected) {
+    return Math.abs(v - expected) <= 1E-9 * Math.max(1.0, Math.abs(expected));
+  }
 }
@@ -5,8 +5,13 @@
  */
 package eu.webtoolkit.jwt;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -207,6 +212,181 @@ public abstract class WResource extends WObject {
 		response.flush();
 	}
 
+	/**
+	 * Streams a file, supporting conditional and range requests.
+	 * <p>
+	 * This is a utility method for implementations of
+	 * {@link #handleRequest(WebRequest, WebResponse)} that serve a file. It sets
+	 * the Content-Length, ETag, Last-Modified and Accept-Ranges headers, and answers
+	 * an If-None-Match or If-Modified-Since request with 304 when the file has not
+	 * changed. A request for a single byte range (optionally guarded with If-Range)
+	 * is answered with 206 and only that part of the file. Other range requests
+	 * are answered with the whole file.
+	 * <p>
+	 * The file contents is transferred using a {@link FileChannel}.
+	 * 
+	 * @param request the request
+	 * @param response the response
+	 * @param file the file to be served
+	 * @param mimeType the mime type
+	 * @return whether the file exists. If not, the response status is set to 404.
+	 * @throws IOException
+	 */
+	protected boolean handleFileRequest(WebRequest request, WebResponse response, File file, String mimeType)
+			throws IOException {
+		if (!file.isFile()) {
+			response.setStatus(404);
+			return false;
+		}
+
+		final long length = file.length();
+		final long lastModified = file.lastModified() / 1000 * 1000;
+		final String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+		response.setHeader("Accept-Ranges", "bytes");
+		response.setHeader("ETag", etag);
+		response.setDateHeader("Last-Modified", lastModified);
+
+		if (isNotModified(request, etag, lastModified)) {
+			response.setStatus(304);
+			return true;
+		}
+
+		response.setContentType(mimeType);
+
+		long start = 0;
+		long end = length - 1;
+		String range = request.getHeader("Range");
+		if (range != null && isIfRangeSatisfied(request, etag, lastModified)) {
+			long[] r = parseRange(range, length);
+			if (r == UNSATISFIABLE_RANGE) {
+				response.setStatus(416);
+				response.setHeader("Content-Range", "bytes */" + length);
+				return true;
+			} else if (r != null) {
+				start = r[0];
+				end = r[1];
+				response.setStatus(206);
+				response.setHeader("Content-Range", "bytes " + start + "-" + end + "/" + length);
+			}
+		}
+
+		response.setContentLengthLong(end - start + 1);
+
+		if ("HEAD".equals(request.getMethod()))
+			return true;
+
+		FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long position = start;
+			while (position <= end) {
+				long transferred = channel.transferTo(position, end - position + 1, out);
+				if (transferred <= 0)
+					break;
+				position += transferred;
+			}
+			response.getOutputStream().flush();
+		} finally {
+			channel.close();
+		}
+
+		return true;
+	}
+
+	static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+	/*
+	 * Parses a Range header value for a single byte range, returning the first and last
+	 * byte position, UNSATISFIABLE_RANGE, or null if the header should be ignored.
+	 */
+	static long[] parseRange(String range, long length) {
+		range = range.trim();
+		if (!range.startsWith("bytes="))
+			return null;
+
+		String spec = range.substring(6).trim();
+		if (spec.indexOf(',') != -1)
+			return null;
+
+		int dash = spec.indexOf('-');
+		if (dash == -1)
+			return null;
+
+		try {
+			String first = spec.substring(0, dash).trim();
+			String last = spec.substring(dash + 1).trim();
+			long start, end;
+			if (first.isEmpty()) {
+				if (last.isEmpty())
+					return null;
+				long suffix = Long.parseLong(last);
+				if (suffix <= 0)
+					return UNSATISFIABLE_RANGE;
+				start = Math.max(0, length - suffix);
+				end = length - 1;
+			} else {
+				start = Long.parseLong(first);
+				end = length - 1;
+				if (!last.isEmpty()) {
+					long l = Long.parseLong(last);
+					if (l < start)
+						return null;
+					end = Math.min(l, end);
+				}
+			}
+
+			if (start < 0)
+				return null;
+			if (start >= length)
+				return UNSATISFIABLE_RANGE;
+
+			return new long[] { start, end };
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private static boolean isNotModified(WebRequest request, String etag, long lastModified) {
+		String ifNoneMatch = request.getHeader("If-None-Match");
+		if (ifNoneMatch != null) {
+			for (String tag : ifNoneMatch.split(",")) {
+				tag = tag.trim();
+				if (tag.startsWith("W/"))
+					tag = tag.substring(2);
+				if (tag.equals("*") || tag.equals(etag))
+					return true;
+			}
+			return false;
+		}
+
+		long ifModifiedSince = getDateHeader(request, "If-Modified-Since");
+		return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+	}
+
+	private static boolean isIfRangeSatisfied(WebRequest request, String etag, long lastModified) {
+		String ifRange = request.getHeader("If-Range");
+		if (ifRange == null)
+			return true;
+
+		ifRange = ifRange.trim();
+		if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+			return ifRange.equals(etag);
+		else
+			return getDateHeader(request, "If-Range") == lastModified;
+	}
+
+	private static long getDateHeader(WebRequest request, String name) {
+		if (request.getHeader(name) == null)
+			return -1;
+
+		try {
+			return request.getDateHeader(name);
+		} catch (IllegalArgumentException e) {
+			return -1;
+		}
+	}
+
 	/**
 	 * Signal triggered when the data presented in this resource has changed.
 	 * <p>
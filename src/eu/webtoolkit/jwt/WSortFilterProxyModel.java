@@ -14,6 +14,7 @@ import java.io.*;
 import java.lang.ref.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 import javax.servlet.*;
 import javax.servlet.http.*;
@@ -89,15 +90,30 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     this.dynamic_ = false;
     this.inserting_ = false;
     this.modelConnections_ = new ArrayList<AbstractSignal.Connection>();
-    this.mappedIndexes_ = new TreeMap<WModelIndex, WAbstractProxyModel.BaseItem>();
+    this.mappedIndexes_ = new WAbstractProxyModel.ItemMap();
     this.mappedRootItem_ = null;
+    this.defaultCompare_ =
+        !ObjectUtils.overrides(
+            this.getClass(),
+            WSortFilterProxyModel.class,
+            "compare",
+            WModelIndex.class,
+            WModelIndex.class);
+    this.defaultFilter_ =
+        !ObjectUtils.overrides(
+            this.getClass(),
+            WSortFilterProxyModel.class,
+            "filterAcceptRow",
+            int.class,
+            WModelIndex.class);
+    this.parallel_ = false;
   }
 
   public WModelIndex mapFromSource(final WModelIndex sourceIndex) {
     if ((sourceIndex != null)) {
       WModelIndex sourceParent = sourceIndex.getParent();
       WSortFilterProxyModel.Item item = this.itemFromSourceIndex(sourceParent);
-      int row = item.sourceRowMap_.get(sourceIndex.getRow());
+      int row = this.getMappedRow(item, sourceIndex.getRow());
       if (row != -1) {
         return this.createIndex(row, sourceIndex.getColumn(), item);
       } else {
@@ -390,6 +406,35 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   public boolean isDynamicSortFilter() {
     return this.dynamic_;
   }
+  /**
+   * Configures the proxy to filter and sort large models in parallel.
+   *
+   * <p>When <code>enable</code> is <code>true</code>, and {@link
+   * WSortFilterProxyModel#isSortFilterThreadSafe() isSortFilterThreadSafe()} returns <code>true
+   * </code>, rows are filtered and sorted on the common {@link ForkJoinPool} whenever a model
+   * with at least 8192 rows is (re)filtered. Worker threads are attached to the current
+   * application while they evaluate rows.
+   *
+   * <p>The default value is <code>false</code>.
+   *
+   * <p>
+   *
+   * <p><i><b>Note: </b>The source model must support concurrent reads of its data when this is
+   * enabled. </i>
+   */
+  public void setParallelSortFilter(boolean enable) {
+    this.parallel_ = enable;
+  }
+  /**
+   * Returns whether this proxy filters and sorts large models in parallel.
+   *
+   * <p>
+   *
+   * @see WSortFilterProxyModel#setParallelSortFilter(boolean enable)
+   */
+  public boolean isParallelSortFilter() {
+    return this.parallel_;
+  }
   /**
    * Invalidates the current filter.
    *
@@ -477,9 +522,15 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       return false;
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(parent);
-    this.beginInsertRows(parent, row, row);
-    item.proxyRowMap_.add(sourceRow);
-    item.sourceRowMap_.add(0 + sourceRow, row);
+    this.beginInsertRows(parent, row, row + count - 1);
+    shiftSourceRows(item, sourceRow, count);
+    item.sourceRowMap_.insert(sourceRow, count, -1);
+    int[] sourceRows = new int[count];
+    for (int i = 0; i < count; ++i) {
+      sourceRows[i] = sourceRow + i;
+    }
+    item.proxyRowMap_.insert(row, sourceRows, 0, count);
+    this.updateSourceRowMap(item, row);
     this.endInsertRows();
     return true;
   }
@@ -537,47 +588,50 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   protected int compare(final WModelIndex lhs, final WModelIndex rhs) {
     return ObjectUtils.compare(lhs.getData(this.sortRole_), rhs.getData(this.sortRole_));
   }
+  /**
+   * Returns whether filtering and sorting may be done concurrently.
+   *
+   * <p>This is used by {@link WSortFilterProxyModel#setParallelSortFilter(boolean enable)
+   * setParallelSortFilter()} to decide whether {@link WSortFilterProxyModel#filterAcceptRow(int
+   * sourceRow, WModelIndex sourceParent) filterAcceptRow()} and {@link
+   * WSortFilterProxyModel#compare(WModelIndex lhs, WModelIndex rhs) compare()} may be called from
+   * several threads at once.
+   *
+   * <p>The default implementation returns <code>true</code> unless one of these methods is
+   * reimplemented. You may reimplement this method to return <code>true</code> when your
+   * specialized filtering and sorting does not modify shared state.
+   */
+  protected boolean isSortFilterThreadSafe() {
+    return this.defaultFilter_ && this.defaultCompare_;
+  }
 
   static class Item extends WAbstractProxyModel.BaseItem {
     private static Logger logger = LoggerFactory.getLogger(Item.class);
 
-    public List<Integer> sourceRowMap_;
-    public List<Integer> proxyRowMap_;
+    public IntArrayList sourceRowMap_;
+    public IntArrayList proxyRowMap_;
+    public int sourceRowMapDirty_;
 
     public Item(final WModelIndex sourceIndex) {
       super(sourceIndex);
-      this.sourceRowMap_ = new ArrayList<Integer>();
-      this.proxyRowMap_ = new ArrayList<Integer>();
+      this.sourceRowMap_ = new IntArrayList();
+      this.proxyRowMap_ = new IntArrayList();
+      this.sourceRowMapDirty_ = -1;
     }
   }
 
-  static class Compare implements Comparator<Integer> {
-    private static Logger logger = LoggerFactory.getLogger(Compare.class);
+  static class RowKey {
+    private static Logger logger = LoggerFactory.getLogger(RowKey.class);
 
-    public Compare(WSortFilterProxyModel aModel, WSortFilterProxyModel.Item anItem) {
-      super();
-      this.model = aModel;
-      this.item = anItem;
-    }
+    public int row;
+    public Object key;
+    public int position;
 
-    public int compare(Integer sourceRow1, Integer sourceRow2) {
-      int factor = this.model.sortOrder_ == SortOrder.Ascending ? 1 : -1;
-      if (this.model.sortKeyColumn_ == -1) {
-        return factor * (sourceRow1 - sourceRow2);
-      }
-      WModelIndex lhs =
-          this.model
-              .getSourceModel()
-              .getIndex(sourceRow1, this.model.sortKeyColumn_, this.item.sourceIndex_);
-      WModelIndex rhs =
-          this.model
-              .getSourceModel()
-              .getIndex(sourceRow2, this.model.sortKeyColumn_, this.item.sourceIndex_);
-      return factor * this.model.compare(lhs, rhs);
+    public RowKey(int aRow, Object aKey) {
+      this.row = aRow;
+      this.key = aKey;
+      this.position = -1;
     }
-
-    public WSortFilterProxyModel model;
-    public WSortFilterProxyModel.Item item;
   }
 
   private Pattern regex_;
@@ -589,8 +643,12 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   private boolean dynamic_;
   private boolean inserting_;
   private List<AbstractSignal.Connection> modelConnections_;
-  private SortedMap<WModelIndex, WAbstractProxyModel.BaseItem> mappedIndexes_;
+  private WAbstractProxyModel.ItemMap mappedIndexes_;
   private WSortFilterProxyModel.Item mappedRootItem_;
+  private boolean defaultCompare_;
+  private boolean defaultFilter_;
+  private boolean parallel_;
+  private static final int PARALLEL_MIN_ROWS = 8192;
 
   private void sourceColumnsAboutToBeInserted(final WModelIndex parent, int start, int end) {
     this.beginInsertColumns(this.mapFromSource(parent), start, end);
@@ -620,7 +678,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   }
 
   private void sourceRowsInserted(final WModelIndex parent, int start, int end) {
-    this.startShiftModelIndexes(parent, end + 1, end - start + 1, this.mappedIndexes_);
+    this.startShiftModelIndexes(parent, start, end - start + 1, this.mappedIndexes_);
     if (this.inserting_) {
       return;
     }
@@ -630,30 +688,47 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       return;
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(pparent);
-    for (int i = 0; i < item.proxyRowMap_.size(); ++i) {
-      if (item.proxyRowMap_.get(i) >= start) {
-        item.proxyRowMap_.set(i, item.proxyRowMap_.get(i) + count);
-      }
-    }
-    {
-      int insertPos = 0 + start;
-      for (int ii = 0; ii < (count); ++ii) item.sourceRowMap_.add(insertPos + ii, -1);
-    }
-    ;
+    shiftSourceRows(item, start, count);
+    item.sourceRowMap_.insert(start, count, -1);
     if (!this.dynamic_) {
       return;
     }
+    List<WSortFilterProxyModel.RowKey> added = new ArrayList<WSortFilterProxyModel.RowKey>();
     for (int row = start; row <= end; ++row) {
-      int newMappedRow = this.mappedInsertionPoint(row, item);
-      if (newMappedRow != -1) {
-        this.beginInsertRows(pparent, newMappedRow, newMappedRow);
-        item.proxyRowMap_.add(0 + newMappedRow, row);
-        this.rebuildSourceRowMap(item);
-        this.endInsertRows();
-      } else {
-        item.sourceRowMap_.set(row, -1);
+      if (this.filterAcceptRow(row, item.sourceIndex_)) {
+        WSortFilterProxyModel.RowKey k =
+            new WSortFilterProxyModel.RowKey(row, this.getSortKey(row, item));
+        k.position = this.insertionPoint(k, item);
+        added.add(k);
+      }
+    }
+    Collections.sort(
+        added,
+        (WSortFilterProxyModel.RowKey k1, WSortFilterProxyModel.RowKey k2) -> {
+          if (k1.position != k2.position) {
+            return k1.position < k2.position ? -1 : 1;
+          }
+          return WSortFilterProxyModel.this.compareKeys(k1, k2);
+        });
+    int inserted = 0;
+    for (int i = 0; i < added.size(); ) {
+      int j = i + 1;
+      while (j < added.size() && added.get(j).position == added.get(i).position) {
+        ++j;
+      }
+      int first = added.get(i).position + inserted;
+      int[] rows = new int[j - i];
+      for (int k = i; k < j; ++k) {
+        rows[k - i] = added.get(k).row;
       }
+      this.beginInsertRows(pparent, first, first + rows.length - 1);
+      item.proxyRowMap_.insert(first, rows, 0, rows.length);
+      this.invalidateSourceRowMap(item, first);
+      this.endInsertRows();
+      inserted += rows.length;
+      i = j;
     }
+    this.validateSourceRowMap(item);
   }
 
   private void sourceRowsAboutToBeRemoved(final WModelIndex parent, int start, int end) {
@@ -662,15 +737,32 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       return;
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(pparent);
+    IntArrayList mapped = new IntArrayList();
     for (int row = start; row <= end; ++row) {
-      int mappedRow = item.sourceRowMap_.get(row);
+      int mappedRow = this.getMappedRow(item, row);
       if (mappedRow != -1) {
-        this.beginRemoveRows(pparent, mappedRow, mappedRow);
-        item.proxyRowMap_.remove(0 + mappedRow);
-        this.rebuildSourceRowMap(item);
-        this.endRemoveRows();
+        mapped.add(mappedRow);
       }
     }
+    int[] mappedRows = mapped.toArray();
+    Arrays.sort(mappedRows);
+    for (int j = mappedRows.length; j > 0; ) {
+      int i = j - 1;
+      while (i > 0 && mappedRows[i - 1] == mappedRows[i] - 1) {
+        --i;
+      }
+      int first = mappedRows[i];
+      int last = mappedRows[j - 1];
+      this.beginRemoveRows(pparent, first, last);
+      for (int k = first; k <= last; ++k) {
+        item.sourceRowMap_.set(item.proxyRowMap_.get(k), -1);
+      }
+      item.proxyRowMap_.removeRange(first, last + 1);
+      this.invalidateSourceRowMap(item, first);
+      this.endRemoveRows();
+      j = i;
+    }
+    this.validateSourceRowMap(item);
     int count = end - start + 1;
     this.startShiftModelIndexes(parent, start, -count, this.mappedIndexes_);
   }
@@ -683,14 +775,8 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
       return;
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(pparent);
-    for (int i = 0; i < item.proxyRowMap_.size(); ++i) {
-      if (item.proxyRowMap_.get(i) >= start) {
-        item.proxyRowMap_.set(i, item.proxyRowMap_.get(i) - count);
-      }
-    }
-    for (int ii = 0; ii < (0 + start + count) - (0 + start); ++ii)
-      item.sourceRowMap_.remove(0 + start);
-    ;
+    shiftSourceRows(item, start, -count);
+    item.sourceRowMap_.removeRange(start, start + count);
   }
 
   private void sourceDataChanged(final WModelIndex topLeft, final WModelIndex bottomRight) {
@@ -711,27 +797,28 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     }
     WSortFilterProxyModel.Item item = this.itemFromIndex(parent);
     for (int row = topLeft.getRow(); row <= bottomRight.getRow(); ++row) {
-      int oldMappedRow = item.sourceRowMap_.get(row);
+      int oldMappedRow = this.getMappedRow(item, row);
       boolean propagateDataChange = oldMappedRow != -1;
       if (refilter || resort) {
         if (oldMappedRow != -1) {
-          item.proxyRowMap_.remove(0 + oldMappedRow);
+          item.proxyRowMap_.remove(oldMappedRow);
         }
         int newMappedRow = this.mappedInsertionPoint(row, item);
         if (oldMappedRow != -1) {
-          item.proxyRowMap_.add(0 + oldMappedRow, row);
+          item.proxyRowMap_.add(oldMappedRow, row);
         }
         if (newMappedRow != oldMappedRow) {
           if (oldMappedRow != -1) {
             this.beginRemoveRows(parent, oldMappedRow, oldMappedRow);
-            item.proxyRowMap_.remove(0 + oldMappedRow);
-            this.rebuildSourceRowMap(item);
+            item.proxyRowMap_.remove(oldMappedRow);
+            item.sourceRowMap_.set(row, -1);
+            this.updateSourceRowMap(item, oldMappedRow);
             this.endRemoveRows();
           }
           if (newMappedRow != -1) {
             this.beginInsertRows(parent, newMappedRow, newMappedRow);
-            item.proxyRowMap_.add(0 + newMappedRow, row);
-            this.rebuildSourceRowMap(item);
+            item.proxyRowMap_.add(newMappedRow, row);
+            this.updateSourceRowMap(item, newMappedRow);
             this.endInsertRows();
           }
           propagateDataChange = false;
@@ -751,7 +838,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     if (orientation == Orientation.Vertical) {
       WSortFilterProxyModel.Item item = this.itemFromIndex(null);
       for (int row = start; row <= end; ++row) {
-        int mappedRow = item.sourceRowMap_.get(row);
+        int mappedRow = this.getMappedRow(item, row);
         if (mappedRow != -1) {
           this.headerDataChanged().trigger(orientation, mappedRow, mappedRow);
         }
@@ -787,7 +874,7 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
     WAbstractProxyModel.BaseItem i = this.mappedIndexes_.get(sourceParent);
     if (i == null) {
       WSortFilterProxyModel.Item result = new WSortFilterProxyModel.Item(sourceParent);
-      this.mappedIndexes_.put(sourceParent, result);
+      this.mappedIndexes_.put(result);
       this.updateItem(result);
       return result;
     } else {
@@ -815,11 +902,6 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
   }
 
   private void resetMappings() {
-    for (Iterator<Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem>> i_it =
-            this.mappedIndexes_.entrySet().iterator();
-        i_it.hasNext(); ) {
-      Map.Entry<WModelIndex, WAbstractProxyModel.BaseItem> i = i_it.next();
-    }
     this.mappedIndexes_.clear();
 
     this.mappedRootItem_ = null;
@@ -827,38 +909,250 @@ public class WSortFilterProxyModel extends WAbstractProxyModel {
 
   private void updateItem(WSortFilterProxyModel.Item item) {
     int sourceRowCount = this.getSourceModel().getRowCount(item.sourceIndex_);
-    CollectionUtils.resize(item.sourceRowMap_, sourceRowCount);
+    item.sourceRowMap_.clear();
+    item.sourceRowMap_.resize(sourceRowCount, -1);
+    item.sourceRowMapDirty_ = -1;
     item.proxyRowMap_.clear();
-    for (int i = 0; i < sourceRowCount; ++i) {
-      if (this.filterAcceptRow(i, item.sourceIndex_)) {
-        item.sourceRowMap_.set(i, item.proxyRowMap_.size());
-        item.proxyRowMap_.add(i);
-      } else {
-        item.sourceRowMap_.set(i, -1);
+    item.proxyRowMap_.ensureCapacity(sourceRowCount);
+    if (this.isParallel(sourceRowCount)) {
+      final boolean[] accepted = new boolean[sourceRowCount];
+      final WModelIndex sourceParent = item.sourceIndex_;
+      List<Runnable> tasks = new ArrayList<Runnable>();
+      for (final int[] chunk : chunks(sourceRowCount)) {
+        tasks.add(
+            () -> {
+              for (int i = chunk[0]; i < chunk[1]; ++i) {
+                accepted[i] = WSortFilterProxyModel.this.filterAcceptRow(i, sourceParent);
+              }
+            });
+      }
+      this.runParallel(tasks);
+      for (int i = 0; i < sourceRowCount; ++i) {
+        if (accepted[i]) {
+          item.sourceRowMap_.set(i, item.proxyRowMap_.size());
+          item.proxyRowMap_.add(i);
+        }
+      }
+    } else {
+      for (int i = 0; i < sourceRowCount; ++i) {
+        if (this.filterAcceptRow(i, item.sourceIndex_)) {
+          item.sourceRowMap_.set(i, item.proxyRowMap_.size());
+          item.proxyRowMap_.add(i);
+        }
       }
     }
     if (this.sortKeyColumn_ != -1) {
-      Collections.sort(item.proxyRowMap_, new WSortFilterProxyModel.Compare(this, item));
-      this.rebuildSourceRowMap(item);
+      this.sortRows(item);
+      this.updateSourceRowMap(item, 0);
     }
   }
 
-  private void rebuildSourceRowMap(WSortFilterProxyModel.Item item) {
-    for (int i = 0; i < item.sourceRowMap_.size(); ++i) {
-      item.sourceRowMap_.set(i, -1);
+  private void sortRows(final WSortFilterProxyModel.Item item) {
+    final int count = item.proxyRowMap_.size();
+    final WSortFilterProxyModel.RowKey[] keys = new WSortFilterProxyModel.RowKey[count];
+    final Comparator<WSortFilterProxyModel.RowKey> comparator =
+        (WSortFilterProxyModel.RowKey k1, WSortFilterProxyModel.RowKey k2) -> {
+          return WSortFilterProxyModel.this.compareKeys(k1, k2);
+        };
+    if (this.isParallel(count)) {
+      final List<int[]> chunks = chunks(count);
+      List<Runnable> tasks = new ArrayList<Runnable>();
+      for (final int[] chunk : chunks) {
+        tasks.add(
+            () -> {
+              for (int i = chunk[0]; i < chunk[1]; ++i) {
+                int row = item.proxyRowMap_.get(i);
+                keys[i] =
+                    new WSortFilterProxyModel.RowKey(
+                        row, WSortFilterProxyModel.this.getSortKey(row, item));
+              }
+              Arrays.sort(keys, chunk[0], chunk[1], comparator);
+            });
+      }
+      this.runParallel(tasks);
+      WSortFilterProxyModel.RowKey[] src = keys;
+      WSortFilterProxyModel.RowKey[] dst = new WSortFilterProxyModel.RowKey[count];
+      for (int width = 1; width < chunks.size(); width *= 2) {
+        tasks.clear();
+        for (int c = 0; c < chunks.size(); c += 2 * width) {
+          final int low = chunks.get(c)[0];
+          final int mid = chunks.get(Math.min(c + width, chunks.size()) - 1)[1];
+          final int high = chunks.get(Math.min(c + 2 * width, chunks.size()) - 1)[1];
+          final WSortFilterProxyModel.RowKey[] from = src;
+          final WSortFilterProxyModel.RowKey[] to = dst;
+          tasks.add(
+              () -> {
+                merge(from, low, mid, high, to, comparator);
+              });
+        }
+        this.runParallel(tasks);
+        WSortFilterProxyModel.RowKey[] tmp = src;
+        src = dst;
+        dst = tmp;
+      }
+      for (int i = 0; i < count; ++i) {
+        item.proxyRowMap_.set(i, src[i].row);
+      }
+    } else {
+      for (int i = 0; i < count; ++i) {
+        int row = item.proxyRowMap_.get(i);
+        keys[i] = new WSortFilterProxyModel.RowKey(row, this.getSortKey(row, item));
+      }
+      Arrays.sort(keys, comparator);
+      for (int i = 0; i < count; ++i) {
+        item.proxyRowMap_.set(i, keys[i].row);
+      }
     }
-    for (int i = 0; i < item.proxyRowMap_.size(); ++i) {
+  }
+
+  private static void merge(
+      WSortFilterProxyModel.RowKey[] from,
+      int low,
+      int mid,
+      int high,
+      WSortFilterProxyModel.RowKey[] to,
+      final Comparator<WSortFilterProxyModel.RowKey> comparator) {
+    int i = low;
+    int j = mid;
+    for (int k = low; k < high; ++k) {
+      if (j >= high || i < mid && comparator.compare(from[i], from[j]) <= 0) {
+        to[k] = from[i++];
+      } else {
+        to[k] = from[j++];
+      }
+    }
+  }
+
+  private boolean isParallel(int rowCount) {
+    return this.parallel_ && rowCount >= PARALLEL_MIN_ROWS && this.isSortFilterThreadSafe();
+  }
+
+  private static List<int[]> chunks(int count) {
+    int parallelism = ForkJoinPool.getCommonPoolParallelism();
+    int chunkCount = Math.max(1, Math.min(parallelism * 4, count / 1024));
+    List<int[]> result = new ArrayList<int[]>();
+    for (int i = 0; i < chunkCount; ++i) {
+      int from = (int) ((long) count * i / chunkCount);
+      int to = (int) ((long) count * (i + 1) / chunkCount);
+      result.add(new int[] {from, to});
+    }
+    return result;
+  }
+
+  private void runParallel(final List<Runnable> tasks) {
+    final WebSession.Handler handler = WebSession.Handler.getInstance();
+    List<Callable<Object>> callables = new ArrayList<Callable<Object>>();
+    for (final Runnable task : tasks) {
+      callables.add(
+          () -> {
+            WebSession.Handler previous = WebSession.Handler.attachThreadToHandler(handler);
+            try {
+              task.run();
+            } finally {
+              WebSession.Handler.attachThreadToHandler(previous);
+            }
+            return null;
+          });
+    }
+    try {
+      for (Future<Object> result : ForkJoinPool.commonPool().invokeAll(callables)) {
+        result.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new WException("Interrupted while filtering or sorting");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      } else if (e.getCause() instanceof Error) {
+        throw (Error) e.getCause();
+      } else {
+        throw new WException(e.getCause().toString());
+      }
+    }
+  }
+
+  private void updateSourceRowMap(WSortFilterProxyModel.Item item, int fromProxyRow) {
+    for (int i = fromProxyRow; i < item.proxyRowMap_.size(); ++i) {
       item.sourceRowMap_.set(item.proxyRowMap_.get(i), i);
     }
   }
 
+  private void invalidateSourceRowMap(WSortFilterProxyModel.Item item, int fromProxyRow) {
+    if (item.sourceRowMapDirty_ == -1 || fromProxyRow < item.sourceRowMapDirty_) {
+      item.sourceRowMapDirty_ = fromProxyRow;
+    }
+  }
+
+  private void validateSourceRowMap(WSortFilterProxyModel.Item item) {
+    if (item.sourceRowMapDirty_ != -1) {
+      int fromProxyRow = item.sourceRowMapDirty_;
+      item.sourceRowMapDirty_ = -1;
+      this.updateSourceRowMap(item, fromProxyRow);
+    }
+  }
+
+  private int getMappedRow(WSortFilterProxyModel.Item item, int sourceRow) {
+    this.validateSourceRowMap(item);
+    return item.sourceRowMap_.get(sourceRow);
+  }
+
+  private static void shiftSourceRows(WSortFilterProxyModel.Item item, int start, int count) {
+    for (int i = 0; i < item.proxyRowMap_.size(); ++i) {
+      int row = item.proxyRowMap_.get(i);
+      if (row >= start) {
+        item.proxyRowMap_.set(i, row + count);
+      }
+    }
+  }
+
   private int mappedInsertionPoint(int sourceRow, WSortFilterProxyModel.Item item) {
     boolean acceptRow = this.filterAcceptRow(sourceRow, item.sourceIndex_);
     if (!acceptRow) {
       return -1;
     } else {
-      return CollectionUtils.insertionPoint(
-          item.proxyRowMap_, sourceRow, new WSortFilterProxyModel.Compare(this, item));
+      return this.insertionPoint(
+          new WSortFilterProxyModel.RowKey(sourceRow, this.getSortKey(sourceRow, item)), item);
+    }
+  }
+
+  private int insertionPoint(WSortFilterProxyModel.RowKey key, WSortFilterProxyModel.Item item) {
+    int low = 0;
+    int high = item.proxyRowMap_.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      int row = item.proxyRowMap_.get(mid);
+      if (this.compareKeys(key, new WSortFilterProxyModel.RowKey(row, this.getSortKey(row, item)))
+          < 0) {
+        high = mid;
+      } else {
+        low = mid + 1;
+      }
+    }
+    return low;
+  }
+
+  private Object getSortKey(int sourceRow, WSortFilterProxyModel.Item item) {
+    if (this.sortKeyColumn_ == -1) {
+      return null;
+    }
+    WModelIndex index =
+        this.getSourceModel().getIndex(sourceRow, this.sortKeyColumn_, item.sourceIndex_);
+    if (this.defaultCompare_) {
+      return index.getData(this.sortRole_);
+    } else {
+      return index;
+    }
+  }
+
+  private int compareKeys(WSortFilterProxyModel.RowKey k1, WSortFilterProxyModel.RowKey k2) {
+    int factor = this.sortOrder_ == SortOrder.Ascending ? 1 : -1;
+    if (this.sortKeyColumn_ == -1) {
+      return factor * Integer.compare(k1.row, k2.row);
+    } else if (this.defaultCompare_) {
+      return factor * ObjectUtils.compare(k1.key, k2.key);
+    } else {
+      return factor * this.compare((WModelIndex) k1.key, (WModelIndex) k2.key);
     }
   }
 }
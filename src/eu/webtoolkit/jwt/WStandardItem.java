@@ -51,7 +51,9 @@ public class WStandardItem {
     this.parent_ = null;
     this.row_ = -1;
     this.column_ = -1;
-    this.data_ = new TreeMap<ItemDataRole, Object>();
+    this.dataRoles_ = 0;
+    this.roleData_ = NO_DATA;
+    this.userData_ = null;
     this.flags_ = EnumSet.of(ItemFlag.Selectable);
     this.columns_ = null;
   }
@@ -67,7 +69,9 @@ public class WStandardItem {
     this.parent_ = null;
     this.row_ = -1;
     this.column_ = -1;
-    this.data_ = new TreeMap<ItemDataRole, Object>();
+    this.dataRoles_ = 0;
+    this.roleData_ = NO_DATA;
+    this.userData_ = null;
     this.flags_ = EnumSet.of(ItemFlag.Selectable);
     this.columns_ = null;
     this.setText(text);
@@ -85,7 +89,9 @@ public class WStandardItem {
     this.parent_ = null;
     this.row_ = -1;
     this.column_ = -1;
-    this.data_ = new TreeMap<ItemDataRole, Object>();
+    this.dataRoles_ = 0;
+    this.roleData_ = NO_DATA;
+    this.userData_ = null;
     this.flags_ = EnumSet.of(ItemFlag.Selectable);
     this.columns_ = null;
     this.setText(text);
@@ -104,7 +110,9 @@ public class WStandardItem {
     this.parent_ = null;
     this.row_ = -1;
     this.column_ = -1;
-    this.data_ = new TreeMap<ItemDataRole, Object>();
+    this.dataRoles_ = 0;
+    this.roleData_ = NO_DATA;
+    this.userData_ = null;
     this.flags_ = EnumSet.of(ItemFlag.Selectable);
     this.columns_ = null;
     if (rows > 0) {
@@ -482,7 +490,7 @@ public class WStandardItem {
     if (role.equals(ItemDataRole.Edit)) {
       role = ItemDataRole.Display;
     }
-    this.data_.put(role, d);
+    this.setStoredData(role, d);
     if (this.model_ != null) {
       WModelIndex self = this.getIndex();
       this.model_.dataChanged().trigger(self, self);
@@ -507,7 +515,7 @@ public class WStandardItem {
    * @see WStandardItem#getData(ItemDataRole role)
    */
   public Object getData(ItemDataRole role) {
-    Object i = this.data_.get(role);
+    Object i = this.getStoredData(role);
     if (i != null) {
       return i;
     } else {
@@ -526,6 +534,23 @@ public class WStandardItem {
   public final Object getData() {
     return getData(ItemDataRole.User);
   }
+
+  SortedMap<ItemDataRole, Object> getItemData() {
+    SortedMap<ItemDataRole, Object> result = new TreeMap<ItemDataRole, Object>();
+    for (int i = 0; i <= ItemDataRole.BarBrushColor.getValue(); ++i) {
+      ItemDataRole role = ItemDataRole.of(i);
+      result.put(role, this.getStoredData(role));
+    }
+    if (result.get(ItemDataRole.Edit) == null) {
+      result.put(ItemDataRole.Edit, result.get(ItemDataRole.Display));
+    }
+    result.put(ItemDataRole.User, this.getStoredData(ItemDataRole.User));
+    return result;
+  }
+
+  boolean hasDefaultGetData() {
+    return defaultGetData.get(this.getClass());
+  }
   /**
    * Returns whether the item has any children.
    *
@@ -1207,7 +1232,10 @@ public class WStandardItem {
    * {@link WStandardItem#clone() clone()}.
    */
   protected WStandardItem(final WStandardItem other) {
-    this.data_ = new TreeMap<ItemDataRole, Object>(other.data_);
+    this.dataRoles_ = other.dataRoles_;
+    this.roleData_ = other.roleData_.clone();
+    this.userData_ =
+        other.userData_ != null ? new TreeMap<ItemDataRole, Object>(other.userData_) : null;
     this.flags_ = EnumSet.copyOf(other.flags_);
     this.columns_ = null;
   }
@@ -1252,9 +1280,71 @@ public class WStandardItem {
   private WStandardItem parent_;
   private int row_;
   private int column_;
-  private SortedMap<ItemDataRole, Object> data_;
+  private int dataRoles_;
+  private Object[] roleData_;
+  private SortedMap<ItemDataRole, Object> userData_;
   private EnumSet<ItemFlag> flags_;
   private List<List<WStandardItem>> columns_;
+  private static final Object[] NO_DATA = new Object[0];
+  private static ClassValue<Boolean> defaultGetData =
+      new ClassValue<Boolean>() {
+        protected Boolean computeValue(Class<?> c) {
+          return !ObjectUtils.overrides(c, WStandardItem.class, "getData", ItemDataRole.class);
+        }
+      };
+
+  private Object getStoredData(ItemDataRole role) {
+    int r = role.getValue();
+    if (r >= 0 && r < 32) {
+      int bit = 1 << r;
+      if ((this.dataRoles_ & bit) == 0) {
+        return null;
+      }
+      return this.roleData_[Integer.bitCount(this.dataRoles_ & (bit - 1))];
+    } else {
+      return this.userData_ != null ? this.userData_.get(role) : null;
+    }
+  }
+
+  private void setStoredData(ItemDataRole role, final Object d) {
+    int r = role.getValue();
+    if (r >= 0 && r < 32) {
+      int bit = 1 << r;
+      int i = Integer.bitCount(this.dataRoles_ & (bit - 1));
+      int n = this.roleData_.length;
+      if ((this.dataRoles_ & bit) != 0) {
+        if (d != null) {
+          this.roleData_[i] = d;
+        } else {
+          Object[] data = n == 1 ? NO_DATA : new Object[n - 1];
+          System.arraycopy(this.roleData_, 0, data, 0, i);
+          System.arraycopy(this.roleData_, i + 1, data, i, n - i - 1);
+          this.roleData_ = data;
+          this.dataRoles_ &= ~bit;
+        }
+      } else {
+        if (d != null) {
+          Object[] data = new Object[n + 1];
+          System.arraycopy(this.roleData_, 0, data, 0, i);
+          data[i] = d;
+          System.arraycopy(this.roleData_, i, data, i + 1, n - i);
+          this.roleData_ = data;
+          this.dataRoles_ |= bit;
+        }
+      }
+    } else {
+      if (d != null) {
+        if (this.userData_ == null) {
+          this.userData_ = new TreeMap<ItemDataRole, Object>();
+        }
+        this.userData_.put(role, d);
+      } else {
+        if (this.userData_ != null) {
+          this.userData_.remove(role);
+        }
+      }
+    }
+  }
 
   private void signalModelDataChange() {
     if (this.model_ != null) {
@@ -457,6 +457,16 @@ public class WStandardItemModel extends WAbstractItemModel {
     return item != null ? item.getData(role) : null;
   }
 
+  public SortedMap<ItemDataRole, Object> getItemData(final WModelIndex index) {
+    if ((index != null) && this.defaultGetData_) {
+      WStandardItem item = this.getItemFromIndex(index, false);
+      if (item != null && item.hasDefaultGetData()) {
+        return item.getItemData();
+      }
+    }
+    return super.getItemData(index);
+  }
+
   public Object getHeaderData(int section, Orientation orientation, ItemDataRole role) {
     if (role.equals(ItemDataRole.Level)) {
       return 0;
@@ -691,8 +701,16 @@ public class WStandardItemModel extends WAbstractItemModel {
   private WStandardItem invisibleRootItem_;
   private WStandardItem itemPrototype_;
   private Signal1<WStandardItem> itemChanged_;
+  private boolean defaultGetData_;
 
   private void init() {
+    this.defaultGetData_ =
+        !ObjectUtils.overrides(
+            this.getClass(),
+            WStandardItemModel.class,
+            "getData",
+            WModelIndex.class,
+            ItemDataRole.class);
     this.invisibleRootItem_ = new WStandardItem();
     this.invisibleRootItem_.model_ = this;
     this.itemPrototype_ = new WStandardItem();
@@ -63,6 +63,10 @@ public class WSvgImage extends WResource implements WVectorImage {
     this.currentShadowId_ = -1;
     this.nextShadowId_ = 0;
     this.pathTranslation_ = new WPointF();
+    this.pathX_ = 0;
+    this.pathY_ = 0;
+    this.pathHasCurrent_ = false;
+    this.precision_ = 3;
     this.pathBoundingBox_ = null;
     this.shapes_ = new StringBuilder();
     this.fillStyle_ = "";
@@ -78,6 +82,26 @@ public class WSvgImage extends WResource implements WVectorImage {
   public WSvgImage(final WLength width, final WLength height) {
     this(width, height, false);
   }
+  /**
+   * Sets the number of decimals used for coordinates.
+   *
+   * <p>Coordinates are rounded to this number of decimals, and written without trailing zeros.
+   *
+   * <p>The default value is 3.
+   */
+  public void setPrecision(int decimals) {
+    this.precision_ = Math.max(0, Math.min(6, decimals));
+  }
+  /**
+   * Returns the number of decimals used for coordinates.
+   *
+   * <p>
+   *
+   * @see WSvgImage#setPrecision(int decimals)
+   */
+  public int getPrecision() {
+    return this.precision_;
+  }
 
   public EnumSet<PaintDeviceFeatureFlag> getFeatures() {
     if (ServerSideFontMetrics.isAvailable()) {
@@ -98,20 +122,18 @@ public class WSvgImage extends WResource implements WVectorImage {
   }
 
   public void drawArc(final WRectF rect, double startAngle, double spanAngle) {
-    char[] buf = new char[30];
     if (Math.abs(spanAngle - 360.0) < 0.01 || spanAngle > 360.0) {
       this.finishPath();
       this.makeNewGroup();
-      this.shapes_
-          .append("<ellipse ")
-          .append(" cx=\"")
-          .append(MathUtils.roundJs(rect.getCenter().getX(), 3));
-      this.shapes_.append("\" cy=\"").append(MathUtils.roundJs(rect.getCenter().getY(), 3));
-      this.shapes_.append("\" rx=\"").append(MathUtils.roundJs(rect.getWidth() / 2, 3));
-      this.shapes_
-          .append("\" ry=\"")
-          .append(MathUtils.roundJs(rect.getHeight() / 2, 3))
-          .append("\" />");
+      this.shapes_.append("<ellipse ").append(" cx=\"");
+      MathUtils.appendRounded(this.shapes_, rect.getCenter().getX(), this.precision_);
+      this.shapes_.append("\" cy=\"");
+      MathUtils.appendRounded(this.shapes_, rect.getCenter().getY(), this.precision_);
+      this.shapes_.append("\" rx=\"");
+      MathUtils.appendRounded(this.shapes_, rect.getWidth() / 2, this.precision_);
+      this.shapes_.append("\" ry=\"");
+      MathUtils.appendRounded(this.shapes_, rect.getHeight() / 2, this.precision_);
+      this.shapes_.append("\" />");
     } else {
       WPainterPath path = new WPainterPath();
       path.arcMoveTo(rect.getX(), rect.getY(), rect.getWidth(), rect.getHeight(), startAngle);
@@ -368,6 +390,10 @@ public class WSvgImage extends WResource implements WVectorImage {
   private int currentShadowId_;
   private int nextShadowId_;
   private WPointF pathTranslation_;
+  private long pathX_;
+  private long pathY_;
+  private boolean pathHasCurrent_;
+  private int precision_;
   private WRectF pathBoundingBox_;
   private StringBuilder shapes_;
 
@@ -728,7 +754,6 @@ public class WSvgImage extends WResource implements WVectorImage {
   private String fontStyle_;
 
   private static String quote(double d) {
-    char[] buf = new char[30];
     return quote(MathUtils.roundJs(d, 3));
   }
 
@@ -737,16 +762,19 @@ public class WSvgImage extends WResource implements WVectorImage {
   }
 
   private void drawPlainPath(final StringBuilder out, final WPainterPath path) {
-    char[] buf = new char[30];
     if (!this.busyWithPath_) {
       out.append("<path d=\"");
       this.busyWithPath_ = true;
       this.pathTranslation_.setX(0);
       this.pathTranslation_.setY(0);
+      this.pathHasCurrent_ = false;
     }
     final List<WPainterPath.Segment> segments = path.getSegments();
     if (!segments.isEmpty() && segments.get(0).getType() != SegmentType.MoveTo) {
       out.append("M0,0");
+      this.pathX_ = 0;
+      this.pathY_ = 0;
+      this.pathHasCurrent_ = true;
     }
     for (int i = 0; i < segments.size(); ++i) {
       final WPainterPath.Segment s = segments.get(i);
@@ -769,49 +797,89 @@ public class WSvgImage extends WResource implements WVectorImage {
         final int fa = 0;
         final int fs = deltaTheta > 0 ? 1 : 0;
         if (!fequal(current.getX(), x1) || !fequal(current.getY(), y1)) {
-          out.append('L').append(MathUtils.roundJs(x1 + this.pathTranslation_.getX(), 3));
-          out.append(',').append(MathUtils.roundJs(y1 + this.pathTranslation_.getY(), 3));
+          this.drawPathPoint(out, 'L', x1, y1);
         }
-        out.append('A').append(MathUtils.roundJs(rx, 3));
-        out.append(',').append(MathUtils.roundJs(ry, 3));
-        out.append(" 0 ").append(fa).append(",").append(fs);
-        out.append(' ').append(MathUtils.roundJs(x2 + this.pathTranslation_.getX(), 3));
-        out.append(',').append(MathUtils.roundJs(y2 + this.pathTranslation_.getY(), 3));
-        out.append('A').append(MathUtils.roundJs(rx, 3));
-        out.append(',').append(MathUtils.roundJs(ry, 3));
-        out.append(" 0 ").append(fa).append(",").append(fs);
-        out.append(' ').append(MathUtils.roundJs(x3 + this.pathTranslation_.getX(), 3));
-        out.append(',').append(MathUtils.roundJs(y3 + this.pathTranslation_.getY(), 3));
+        out.append('A');
+        MathUtils.appendRounded(out, rx, this.precision_).append(',');
+        MathUtils.appendRounded(out, ry, this.precision_);
+        out.append(" 0 ").append(fa).append(",").append(fs).append(' ');
+        this.appendPathPoint(out, x2, y2, true);
+        out.append('A');
+        MathUtils.appendRounded(out, rx, this.precision_).append(',');
+        MathUtils.appendRounded(out, ry, this.precision_);
+        out.append(" 0 ").append(fa).append(",").append(fs).append(' ');
+        this.appendPathPoint(out, x3, y3, true);
       } else {
         switch (s.getType()) {
           case MoveTo:
-            out.append('M');
+            this.drawPathPoint(out, 'M', s.getX(), s.getY());
             break;
           case LineTo:
-            out.append('L');
+            this.drawPathPoint(out, 'L', s.getX(), s.getY());
             break;
           case CubicC1:
             out.append('C');
-            break;
-          case CubicC2:
-          case CubicEnd:
-            out.append(' ');
+            this.appendPathPoint(out, s.getX(), s.getY(), false);
             break;
           case QuadC:
             out.append('Q');
+            this.appendPathPoint(out, s.getX(), s.getY(), false);
             break;
+          case CubicC2:
+            out.append(' ');
+            this.appendPathPoint(out, s.getX(), s.getY(), false);
+            break;
+          case CubicEnd:
           case QuadEnd:
             out.append(' ');
+            this.appendPathPoint(out, s.getX(), s.getY(), true);
             break;
           default:
             assert false;
         }
-        out.append(MathUtils.roundJs(s.getX() + this.pathTranslation_.getX(), 3));
-        out.append(',').append(MathUtils.roundJs(s.getY() + this.pathTranslation_.getY(), 3));
       }
     }
   }
 
+  private void drawPathPoint(final StringBuilder out, char command, double x, double y) {
+    double tx = x + this.pathTranslation_.getX();
+    double ty = y + this.pathTranslation_.getY();
+    if (this.pathHasCurrent_
+        && MathUtils.isFixed(tx, this.precision_)
+        && MathUtils.isFixed(ty, this.precision_)) {
+      long fx = MathUtils.toFixed(tx, this.precision_);
+      long fy = MathUtils.toFixed(ty, this.precision_);
+      long dx = fx - this.pathX_;
+      long dy = fy - this.pathY_;
+      if (MathUtils.getFixedLength(dx, this.precision_)
+              + MathUtils.getFixedLength(dy, this.precision_)
+          < MathUtils.getFixedLength(fx, this.precision_)
+              + MathUtils.getFixedLength(fy, this.precision_)) {
+        out.append(Character.toLowerCase(command));
+        MathUtils.appendFixed(out, dx, this.precision_).append(',');
+        MathUtils.appendFixed(out, dy, this.precision_);
+        this.pathX_ = fx;
+        this.pathY_ = fy;
+        return;
+      }
+    }
+    out.append(command);
+    this.appendPathPoint(out, x, y, true);
+  }
+
+  private void appendPathPoint(final StringBuilder out, double x, double y, boolean current) {
+    x += this.pathTranslation_.getX();
+    y += this.pathTranslation_.getY();
+    MathUtils.appendRounded(out, x, this.precision_).append(',');
+    MathUtils.appendRounded(out, y, this.precision_);
+    if (current) {
+      this.pathHasCurrent_ =
+          MathUtils.isFixed(x, this.precision_) && MathUtils.isFixed(y, this.precision_);
+      this.pathX_ = MathUtils.toFixed(x, this.precision_);
+      this.pathY_ = MathUtils.toFixed(y, this.precision_);
+    }
+  }
+
   private void doDrawImage(
       final WRectF rect, WAbstractDataInfo info, int imgWidth, int imgHeight, final WRectF srect) {
     this.finishPath();
@@ -117,6 +117,8 @@ public class WTableView extends WAbstractItemView {
     this.scrollToRow_ = -1;
     this.scrollToHint_ = ScrollHint.EnsureVisible;
     this.columnResizeConnected_ = false;
+    this.dirtyCells_ = new TreeMap<Integer, BitSet>();
+    this.cellPool_ = null;
     this.preloadMargin_[0] =
         this.preloadMargin_[1] = this.preloadMargin_[2] = this.preloadMargin_[3] = new WLength();
     this.setSelectable(false);
@@ -742,6 +744,7 @@ public class WTableView extends WAbstractItemView {
         this.renderState_ = WAbstractItemView.RenderState.RenderOk;
         switch (s) {
           case NeedRerender:
+            this.discardDirtyCells();
             this.resetGeometry();
             this.rerenderHeader();
             this.rerenderData();
@@ -750,6 +753,7 @@ public class WTableView extends WAbstractItemView {
             this.rerenderHeader();
             break;
           case NeedRerenderData:
+            this.discardDirtyCells();
             this.rerenderData();
             break;
           case NeedUpdateModelIndexes:
@@ -761,6 +765,7 @@ public class WTableView extends WAbstractItemView {
             break;
         }
       }
+      this.applyDirtyCells();
     }
     super.render(flags);
   }
@@ -855,6 +860,8 @@ public class WTableView extends WAbstractItemView {
   private int scrollToRow_;
   private ScrollHint scrollToHint_;
   private boolean columnResizeConnected_;
+  private SortedMap<Integer, BitSet> dirtyCells_;
+  private Map<Integer, List<WWidget>> cellPool_;
 
   private void updateTableBackground() {
     if (this.isAjaxMode()) {
@@ -897,6 +904,7 @@ public class WTableView extends WAbstractItemView {
         || (parent != null && parent.equals(this.getRootIndex())))) {
       return;
     }
+    this.shiftDirtyColumns(start, end - start + 1);
     int count = end - start + 1;
     int width = 0;
     for (int i = start; i < start + count; ++i) {
@@ -925,6 +933,7 @@ public class WTableView extends WAbstractItemView {
         || (parent != null && parent.equals(this.getRootIndex())))) {
       return;
     }
+    this.applyDirtyCells();
     for (int r = 0; r < this.getModel().getRowCount(); r++) {
       for (int c = start; c <= end; c++) {
         this.closeEditor(this.getModel().getIndex(r, c), false);
@@ -969,6 +978,7 @@ public class WTableView extends WAbstractItemView {
         || (parent != null && parent.equals(this.getRootIndex())))) {
       return;
     }
+    this.shiftDirtyRows(start, end - start + 1);
     int count = end - start + 1;
     this.shiftModelIndexRows(start, count);
     this.computeRenderedArea();
@@ -996,6 +1006,7 @@ public class WTableView extends WAbstractItemView {
         || (parent != null && parent.equals(this.getRootIndex())))) {
       return;
     }
+    this.applyDirtyCells();
     for (int c = 0; c < this.getColumnCount(); c++) {
       for (int r = start; r <= end; r++) {
         this.closeEditor(this.getModel().getIndex(r, c), false);
@@ -1049,18 +1060,90 @@ public class WTableView extends WAbstractItemView {
       int row2 = Math.min(bottomRight.getRow(), this.getLastRow());
       int col1 = Math.max(topLeft.getColumn(), this.getFirstColumn());
       int col2 = Math.min(bottomRight.getColumn(), this.getLastColumn());
+      int rhc = this.isAjaxMode() ? this.getRowHeaderCount() : 0;
       for (int i = row1; i <= row2; ++i) {
-        int renderedRow = i - this.getFirstRow();
-        int rhc = this.isAjaxMode() ? this.getRowHeaderCount() : 0;
+        BitSet columns = this.dirtyCells_.get(i);
+        if (columns == null) {
+          columns = new BitSet();
+          this.dirtyCells_.put(i, columns);
+        }
         for (int j = topLeft.getColumn(); j < rhc; ++j) {
-          int renderedColumn = j;
-          WModelIndex index = this.getModel().getIndex(i, j, this.getRootIndex());
-          this.updateItem(index, renderedRow, renderedColumn);
+          this.markDirty(columns, j);
         }
         for (int j = col1; j <= col2; ++j) {
-          int renderedColumn = rhc + j - this.getFirstColumn();
-          WModelIndex index = this.getModel().getIndex(i, j, this.getRootIndex());
-          this.updateItem(index, renderedRow, renderedColumn);
+          this.markDirty(columns, j);
+        }
+      }
+      if (!this.dirtyCells_.isEmpty() && this.isRendered()) {
+        this.scheduleRender();
+      }
+    }
+  }
+
+  private void markDirty(BitSet columns, int column) {
+    if (columns.get(column)) {
+      ++this.coalescedUpdates_;
+    } else {
+      columns.set(column);
+    }
+  }
+
+  private void discardDirtyCells() {
+    for (BitSet columns : this.dirtyCells_.values()) {
+      this.coalescedUpdates_ += columns.cardinality();
+    }
+    this.dirtyCells_.clear();
+  }
+
+  private void shiftDirtyRows(int start, int count) {
+    SortedMap<Integer, BitSet> tail = this.dirtyCells_.tailMap(start);
+    if (tail.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<Integer, BitSet>> moved =
+        new ArrayList<Map.Entry<Integer, BitSet>>(tail.entrySet());
+    tail.clear();
+    for (Map.Entry<Integer, BitSet> row : moved) {
+      this.dirtyCells_.put(row.getKey() + count, row.getValue());
+    }
+  }
+
+  private void shiftDirtyColumns(int start, int count) {
+    for (BitSet columns : this.dirtyCells_.values()) {
+      int size = columns.length();
+      if (size > start) {
+        BitSet moved = columns.get(start, size);
+        columns.clear(start, size);
+        for (int j = moved.nextSetBit(0); j >= 0; j = moved.nextSetBit(j + 1)) {
+          columns.set(start + count + j);
+        }
+      }
+    }
+  }
+
+  private void applyDirtyCells() {
+    if (this.dirtyCells_.isEmpty()) {
+      return;
+    }
+    SortedMap<Integer, BitSet> cells = this.dirtyCells_;
+    this.dirtyCells_ = new TreeMap<Integer, BitSet>();
+    int rhc = this.isAjaxMode() ? this.getRowHeaderCount() : 0;
+    for (Map.Entry<Integer, BitSet> row : cells.entrySet()) {
+      int i = row.getKey();
+      if (!this.isRowRendered(i)) {
+        continue;
+      }
+      int renderedRow = i - this.getFirstRow();
+      BitSet columns = row.getValue();
+      for (int j = columns.nextSetBit(0); j >= 0; j = columns.nextSetBit(j + 1)) {
+        WModelIndex index = this.getModel().getIndex(i, j, this.getRootIndex());
+        if (j < rhc) {
+          this.updateItem(index, renderedRow, j);
+          ++this.appliedUpdates_;
+        }
+        if (j >= this.getFirstColumn() && j <= this.getLastColumn()) {
+          this.updateItem(index, renderedRow, rhc + j - this.getFirstColumn());
+          ++this.appliedUpdates_;
         }
       }
     }
@@ -1185,10 +1268,13 @@ public class WTableView extends WAbstractItemView {
 
   private void renderTable(final int fr, final int lr, final int fc, final int lc) {
     assert this.isAjaxMode();
+    this.cellPool_ = new HashMap<Integer, List<WWidget>>();
     if (fr > this.getLastRow()
         || this.getFirstRow() > lr
         || fc > this.getLastColumn()
         || this.getFirstColumn() > lc) {
+      // reset() removes the rendered rows through removeSection(), which
+      // recycles their cells into the pool before the table is cleared
       this.reset();
     }
     int oldFirstRow = this.getFirstRow();
@@ -1240,16 +1326,12 @@ public class WTableView extends WAbstractItemView {
       for (int col = 0; col < this.getRowHeaderCount(); ++col) {
         WTableView.ColumnWidget w = this.columnContainer(col);
         w.insertWidget(
-            i,
-            this.renderWidget(
-                (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+            i, this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
       }
       for (int col = fc; col <= lc; ++col) {
         WTableView.ColumnWidget w = this.columnContainer(col - fc + this.getRowHeaderCount());
         w.insertWidget(
-            i,
-            this.renderWidget(
-                (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+            i, this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
       }
       this.addSection(Side.Top);
     }
@@ -1260,15 +1342,13 @@ public class WTableView extends WAbstractItemView {
           int renderCol = this.getRowHeaderCount() + j;
           WTableView.ColumnWidget w = this.columnContainer(renderCol);
           w.addWidget(
-              this.renderWidget(
-                  (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+              this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
         }
         for (int j = 0; j < rightColsToAdd; ++j) {
           int col = lc - rightColsToAdd + 1 + j;
           WTableView.ColumnWidget w = this.columnContainer(col - fc + this.getRowHeaderCount());
           w.addWidget(
-              this.renderWidget(
-                  (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+              this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
         }
       }
     }
@@ -1276,18 +1356,15 @@ public class WTableView extends WAbstractItemView {
       int row = oldLastRow == -1 ? fr + i : oldLastRow + 1 + i;
       for (int col = 0; col < this.getRowHeaderCount(); ++col) {
         WTableView.ColumnWidget w = this.columnContainer(col);
-        w.addWidget(
-            this.renderWidget(
-                (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+        w.addWidget(this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
       }
       for (int col = fc; col <= lc; ++col) {
         WTableView.ColumnWidget w = this.columnContainer(col - fc + this.getRowHeaderCount());
-        w.addWidget(
-            this.renderWidget(
-                (WWidget) null, this.getModel().getIndex(row, col, this.getRootIndex())));
+        w.addWidget(this.createItemWidget(this.getModel().getIndex(row, col, this.getRootIndex())));
       }
       this.addSection(Side.Bottom);
     }
+    this.releaseCellPool();
     this.updateColumnOffsets();
     assert this.getLastRow() == lr && this.getFirstRow() == fr;
     assert this.getLastColumn() == lc && this.getFirstColumn() == fc;
@@ -1373,7 +1450,7 @@ public class WTableView extends WAbstractItemView {
         this.setSpannerCount(side, this.getSpannerCount(side) + 1);
         for (int i = 0; i < this.getRenderedColumnsCount(); ++i) {
           WTableView.ColumnWidget w = this.columnContainer(i);
-          this.deleteItem(row, col + i, w.getWidget(0));
+          this.recycleItem(row, col + i, w, w.getWidget(0));
         }
         break;
       case Bottom:
@@ -1381,7 +1458,7 @@ public class WTableView extends WAbstractItemView {
         this.setSpannerCount(side, this.getSpannerCount(side) + 1);
         for (int i = 0; i < this.getRenderedColumnsCount(); ++i) {
           WTableView.ColumnWidget w = this.columnContainer(i);
-          this.deleteItem(row, col + i, w.getWidget(w.getCount() - 1));
+          this.recycleItem(row, col + i, w, w.getWidget(w.getCount() - 1));
         }
         break;
       case Left:
@@ -2062,16 +2139,121 @@ public class WTableView extends WAbstractItemView {
   }
 
   void selectRange(final WModelIndex first, final WModelIndex last) {
-    for (int c = first.getColumn(); c <= last.getColumn(); ++c) {
-      for (int r = first.getRow(); r <= last.getRow(); ++r) {
-        this.internalSelect(
-            this.getModel().getIndex(r, c, this.getRootIndex()), SelectionFlag.Select);
+    if (this.getRootIndex() != null || this.getSelectionMode() != SelectionMode.Extended) {
+      for (int c = first.getColumn(); c <= last.getColumn(); ++c) {
+        for (int r = first.getRow(); r <= last.getRow(); ++r) {
+          this.internalSelect(
+              this.getModel().getIndex(r, c, this.getRootIndex()), SelectionFlag.Select);
+        }
+      }
+      return;
+    }
+    final ItemSelectionSet set = this.getSelectionModel().selection_;
+    int firstColumn = first.getColumn();
+    int lastColumn = last.getColumn();
+    if (this.getSelectionBehavior() == SelectionBehavior.Rows) {
+      firstColumn = lastColumn = 0;
+    }
+    final WAbstractItemModel model = this.getModel();
+    Class<?> modelClass = model.getClass();
+    if (!ObjectUtils.overrides(
+        modelClass, WAbstractItemModel.class, "getFlags", WModelIndex.class)) {
+      // the default flags are the same for every index, so every cell is selectable
+      for (int c = firstColumn; c <= lastColumn; ++c) {
+        set.addRange(model, c, first.getRow(), last.getRow());
+      }
+    } else {
+      // the flags of a standard item model can be read from its items without creating indexes
+      WStandardItemModel standardModel = ObjectUtils.cast(model, WStandardItemModel.class);
+      if (standardModel != null
+          && ObjectUtils.overrides(
+              modelClass, WStandardItemModel.class, "getFlags", WModelIndex.class)) {
+        standardModel = null;
+      }
+      for (int c = firstColumn; c <= lastColumn; ++c) {
+        this.selectSelectableRuns(set, standardModel, c, first.getRow(), last.getRow());
+      }
+    }
+    int firstRow = Math.max(first.getRow(), this.getFirstRow());
+    int lastRow = Math.min(last.getRow(), this.getLastRow());
+    for (int r = firstRow; r <= lastRow; ++r) {
+      for (int c = firstColumn; c <= lastColumn; ++c) {
+        WModelIndex index = model.getIndex(r, c);
+        if (set.contains(index)) {
+          this.renderSelected(true, index);
+        }
       }
     }
   }
 
+  private void selectSelectableRuns(
+      final ItemSelectionSet set,
+      WStandardItemModel standardModel,
+      int column,
+      int firstRow,
+      int lastRow) {
+    final WAbstractItemModel model = this.getModel();
+    int runStart = -1;
+    for (int r = firstRow; r <= lastRow + 1; ++r) {
+      boolean selectable = false;
+      if (r <= lastRow) {
+        if (standardModel != null) {
+          WStandardItem item = standardModel.getItem(r, column);
+          selectable = item != null && item.getFlags().contains(ItemFlag.Selectable);
+        } else {
+          selectable = model.getFlags(model.getIndex(r, column)).contains(ItemFlag.Selectable);
+        }
+      }
+      if (selectable && runStart == -1) {
+        runStart = r;
+      } else {
+        if (!selectable && runStart != -1) {
+          set.addRange(model, column, runStart, r - 1);
+          runStart = -1;
+        }
+      }
+    }
+  }
+
+  public void clearSelection() {
+    if (this.getRootIndex() != null) {
+      super.clearSelection();
+      return;
+    }
+    final ItemSelectionSet set = this.getSelectionModel().selection_;
+    if (set.isEmpty()) {
+      return;
+    }
+    List<WModelIndex> rendered = new ArrayList<WModelIndex>();
+    if (this.getModel() != null) {
+      int columnCount = this.getModel().getColumnCount();
+      int lastRow = Math.min(this.getLastRow(), this.getModel().getRowCount() - 1);
+      for (int r = Math.max(0, this.getFirstRow()); r <= lastRow; ++r) {
+        for (int c = 0; c < columnCount; ++c) {
+          WModelIndex index = this.getModel().getIndex(r, c);
+          if (set.contains(index)) {
+            rendered.add(index);
+          }
+        }
+      }
+    }
+    set.clear();
+    for (int i = 0; i < rendered.size(); ++i) {
+      this.renderSelected(false, rendered.get(i));
+    }
+  }
+
   private void shiftModelIndexRows(int start, int count) {
-    final SortedSet<WModelIndex> set = this.getSelectionModel().selection_;
+    final ItemSelectionSet set = this.getSelectionModel().selection_;
+    if (this.getRootIndex() == null) {
+      boolean changed = set.hasRowsFrom(start);
+      set.shiftRows(start, count);
+      this.shiftEditorRows(this.getRootIndex(), start, count, true);
+      if (changed) {
+        this.selectionChanged().trigger();
+      }
+      return;
+    }
     List<WModelIndex> toShift = new ArrayList<WModelIndex>();
     List<WModelIndex> toErase = new ArrayList<WModelIndex>();
     for (Iterator<WModelIndex> it_it =
@@ -2106,7 +2288,15 @@ public class WTableView extends WAbstractItemView {
   }
 
   private void shiftModelIndexColumns(int start, int count) {
-    final SortedSet<WModelIndex> set = this.getSelectionModel().selection_;
+    final ItemSelectionSet set = this.getSelectionModel().selection_;
+    if (this.getRootIndex() == null) {
+      boolean changed = set.shiftColumns(start, count);
+      this.shiftEditorColumns(this.getRootIndex(), start, count, true);
+      if (changed) {
+        this.selectionChanged().trigger();
+      }
+      return;
+    }
     List<WModelIndex> toShift = new ArrayList<WModelIndex>();
     List<WModelIndex> toErase = new ArrayList<WModelIndex>();
     for (Iterator<WModelIndex> it_it = set.iterator(); it_it.hasNext(); ) {
@@ -2365,6 +2555,48 @@ public class WTableView extends WAbstractItemView {
     this.dropEvent(e, index, side.equals("top") ? Side.Top : Side.Bottom);
   }
 
+  private void recycleItem(int row, int col, WTableView.ColumnWidget column, WWidget w) {
+    WModelIndex index = this.getModel().getIndex(row, column.getColumn(), this.getRootIndex());
+    if (this.cellPool_ == null
+        || this.isEditing(index)
+        || !this.getItemDelegate(column.getColumn()).isWidgetReuseSupported()) {
+      this.deleteItem(row, col, w);
+      return;
+    }
+    List<WWidget> pool = this.cellPool_.get(column.getColumn());
+    if (pool == null) {
+      pool = new ArrayList<WWidget>();
+      this.cellPool_.put(column.getColumn(), pool);
+    }
+    pool.add(w.removeFromParent());
+  }
+
+  private WWidget createItemWidget(final WModelIndex index) {
+    List<WWidget> pool = this.cellPool_ != null ? this.cellPool_.get(index.getColumn()) : null;
+    if (pool == null || pool.isEmpty() || this.isEditing(index)) {
+      return this.renderWidget((WWidget) null, index);
+    }
+    WWidget widget = pool.remove(pool.size() - 1);
+    WWidget wAfter = this.renderWidget(widget, index);
+    if (wAfter != null) {
+      widget.remove();
+      return wAfter;
+    }
+    this.getItemDelegate(index.getColumn()).updateModelIndex(widget, index);
+    return widget;
+  }
+
+  private void releaseCellPool() {
+    if (this.cellPool_ != null) {
+      for (List<WWidget> pool : this.cellPool_.values()) {
+        for (int i = 0; i < pool.size(); ++i) {
+          pool.get(i).remove();
+        }
+      }
+      this.cellPool_ = null;
+    }
+  }
+
   private void deleteItem(int row, int col, WWidget w) {
     this.persistEditor(this.getModel().getIndex(row, col, this.getRootIndex()));
     {
@@ -102,8 +102,10 @@ public class WTreeView extends WAbstractItemView {
     super();
     this.skipNextMouseEvent_ = false;
     this.expandedSet_ = new HashSet<WModelIndex>();
+    this.rowHeights_ = new HashMap<WModelIndex, RowHeightIndex>();
     this.renderedNodes_ = new HashMap<WModelIndex, WTreeViewNode>();
     this.renderedNodesAdded_ = false;
+    this.dirtyNodes_ = new LinkedHashMap<WTreeViewNode, int[]>();
     this.rootNode_ = null;
     this.rowHeightRule_ = null;
     this.rowWidthRule_ = null;
@@ -195,7 +197,7 @@ public class WTreeView extends WAbstractItemView {
       } else {
         int height = this.subTreeHeight(index);
         if (expanded) {
-          this.expandedSet_.add(index);
+          this.setExpanded(index);
         } else {
           this.setCollapsed(index);
         }
@@ -457,6 +459,7 @@ public class WTreeView extends WAbstractItemView {
                   WTreeView.this.modelReset();
                 }));
     this.expandedSet_.clear();
+    this.rowHeights_.clear();
     WApplication app = WApplication.getInstance();
     while ((int) this.columns_.size() > model.getColumnCount()) {
       app.getStyleSheet().removeRule(this.columns_.get(this.columns_.size() - 1).styleRule);
@@ -745,6 +748,7 @@ public class WTreeView extends WAbstractItemView {
       this.renderState_ = WAbstractItemView.RenderState.RenderOk;
       switch (s) {
         case NeedRerender:
+          this.discardDirtyNodes();
           this.rerenderHeader();
           this.rerenderTree();
           break;
@@ -752,6 +756,7 @@ public class WTreeView extends WAbstractItemView {
           this.rerenderHeader();
           break;
         case NeedRerenderData:
+          this.discardDirtyNodes();
           this.rerenderTree();
           break;
         case NeedAdjustViewPort:
@@ -761,6 +766,7 @@ public class WTreeView extends WAbstractItemView {
           break;
       }
     }
+    this.applyDirtyNodes();
     this.contents_.setHeight(
         new WLength(this.subTreeHeight(this.getRootIndex()) * this.getRowHeight().toPixels()));
     if (app.getEnvironment().hasAjax()
@@ -803,8 +809,10 @@ public class WTreeView extends WAbstractItemView {
 
   private boolean skipNextMouseEvent_;
   HashSet<WModelIndex> expandedSet_;
+  private Map<WModelIndex, RowHeightIndex> rowHeights_;
   private HashMap<WModelIndex, WTreeViewNode> renderedNodes_;
   private boolean renderedNodesAdded_;
+  private Map<WTreeViewNode, int[]> dirtyNodes_;
   private WTreeViewNode rootNode_;
   private WCssTemplateRule rowHeightRule_;
   private WCssTemplateRule rowWidthRule_;
@@ -915,6 +923,7 @@ public class WTreeView extends WAbstractItemView {
     WContainerWidget wrapRoot =
         ObjectUtils.cast(this.contents_.getWidget(0), WContainerWidget.class);
     wrapRoot.clear();
+    this.rowHeights_.clear();
     this.firstRenderedRow_ = this.getCalcOptimalFirstRenderedRow();
     this.validRowCount_ = 0;
     this.rootNode_ = new WTreeViewNode(this, this.getRootIndex(), -1, true, null);
@@ -1024,6 +1033,7 @@ public class WTreeView extends WAbstractItemView {
   }
 
   private void modelColumnsInserted(final WModelIndex parent, int start, int end) {
+    this.invalidateDirtyColumns();
     int count = end - start + 1;
     if (!(parent != null)) {
       WApplication app = WApplication.getInstance();
@@ -1066,6 +1076,7 @@ public class WTreeView extends WAbstractItemView {
   }
 
   private void modelColumnsAboutToBeRemoved(final WModelIndex parent, int start, int end) {
+    this.invalidateDirtyColumns();
     int count = end - start + 1;
     if (!(parent != null)) {
       WApplication app = WApplication.getInstance();
@@ -1372,9 +1383,48 @@ public class WTreeView extends WAbstractItemView {
         WModelIndex index = this.getModel().getIndex(r, 0, parent);
         WTreeViewNode n = this.nodeForIndex(index);
         if (n != null) {
-          n.update(topLeft.getColumn(), bottomRight.getColumn());
+          int[] columns = this.dirtyNodes_.get(n);
+          if (columns == null) {
+            this.dirtyNodes_.put(n, new int[] {topLeft.getColumn(), bottomRight.getColumn()});
+          } else {
+            ++this.coalescedUpdates_;
+            columns[0] = Math.min(columns[0], topLeft.getColumn());
+            columns[1] = Math.max(columns[1], bottomRight.getColumn());
+          }
         }
       }
+      if (!this.dirtyNodes_.isEmpty() && this.isRendered()) {
+        this.scheduleRender();
+      }
+    }
+  }
+
+  private void invalidateDirtyColumns() {
+    for (int[] columns : this.dirtyNodes_.values()) {
+      columns[0] = 0;
+      columns[1] = Integer.MAX_VALUE;
+    }
+  }
+
+  private void discardDirtyNodes() {
+    this.coalescedUpdates_ += this.dirtyNodes_.size();
+    this.dirtyNodes_.clear();
+  }
+
+  private void applyDirtyNodes() {
+    if (this.dirtyNodes_.isEmpty()) {
+      return;
+    }
+    Map<WTreeViewNode, int[]> nodes = this.dirtyNodes_;
+    this.dirtyNodes_ = new LinkedHashMap<WTreeViewNode, int[]>();
+    for (Map.Entry<WTreeViewNode, int[]> i : nodes.entrySet()) {
+      WTreeViewNode n = i.getKey();
+      if (this.renderedNodes_.get(n.getModelIndex()) != n) {
+        continue;
+      }
+      int lastColumn = Math.min(i.getValue()[1], this.getColumnCount() - 1);
+      n.update(i.getValue()[0], lastColumn);
+      ++this.appliedUpdates_;
     }
   }
 
@@ -1386,6 +1436,7 @@ public class WTreeView extends WAbstractItemView {
   void modelLayoutChanged() {
     super.modelLayoutChanged();
     this.expandedSet_ = WModelIndex.decodeFromRawIndexes(this.expandedSet_);
+    this.rowHeights_.clear();
     this.renderedNodes_.clear();
     this.pageChanged().trigger();
   }
@@ -1524,8 +1575,74 @@ public class WTreeView extends WAbstractItemView {
     }
   }
 
+  void setExpanded(final WModelIndex index) {
+    if (this.expandedSet_.add(index)) {
+      this.subTreeHeightChanged(index, this.getRowHeights(index).getTotal());
+    }
+  }
+
   void setCollapsed(final WModelIndex index) {
-    this.expandedSet_.remove(index);
+    if (this.expandedSet_.contains(index)) {
+      int height = this.getRowHeights(index).getTotal();
+      this.expandedSet_.remove(index);
+      this.subTreeHeightChanged(index, -height);
+    }
+  }
+
+  private RowHeightIndex getRowHeights(final WModelIndex index) {
+    RowHeightIndex result = this.rowHeights_.get(index);
+    if (result == null) {
+      int[] heights = new int[this.getModel().getRowCount(index)];
+      for (int i = 0; i < heights.length; ++i) {
+        heights[i] = this.subTreeHeight(this.getModel().getIndex(i, 0, index));
+      }
+      result = new RowHeightIndex(heights);
+      this.rowHeights_.put(index, result);
+    }
+    return result;
+  }
+
+  private void subTreeHeightChanged(final WModelIndex index, int delta) {
+    if (delta == 0) {
+      return;
+    }
+    for (WModelIndex c = index;
+        c != null && !(c == this.getRootIndex() || c.equals(this.getRootIndex())); ) {
+      WModelIndex p = c.getParent();
+      RowHeightIndex heights = this.rowHeights_.get(p);
+      if (heights != null && c.getRow() < heights.getCount()) {
+        heights.add(c.getRow(), delta);
+      }
+      if (!this.isExpanded(p)) {
+        break;
+      }
+      c = p;
+    }
+  }
+
+  private void invalidateRowHeights(final WModelIndex parent, int start, int count) {
+    if (this.rowHeights_.isEmpty()) {
+      return;
+    }
+    for (WModelIndex p = parent; ; p = p.getParent()) {
+      this.rowHeights_.remove(p);
+      if (p == null) {
+        break;
+      }
+    }
+    for (Iterator<WModelIndex> i_it = this.rowHeights_.keySet().iterator(); i_it.hasNext(); ) {
+      WModelIndex i = i_it.next();
+      for (WModelIndex c = i; c != null; c = c.getParent()) {
+        WModelIndex p = c.getParent();
+        if ((p == parent || (p != null && p.equals(parent)))) {
+          if ((c == i && c.getRow() >= start)
+              || (count < 0 && c.getRow() >= start && c.getRow() < start - count)) {
+            i_it.remove();
+          }
+          break;
+        }
+      }
+    }
   }
 
   private int getCalcOptimalFirstRenderedRow() {
@@ -1546,6 +1663,7 @@ public class WTreeView extends WAbstractItemView {
 
   private void shiftModelIndexes(final WModelIndex parent, int start, int count) {
     shiftModelIndexes(parent, start, count, this.getModel(), this.expandedSet_);
+    this.invalidateRowHeights(parent, start, count);
     int removed =
         shiftModelIndexes(
             parent, start, count, this.getModel(), this.getSelectionModel().selection_);
@@ -1561,6 +1679,9 @@ public class WTreeView extends WAbstractItemView {
       int count,
       final WAbstractItemModel model,
       final SortedSet<WModelIndex> set) {
+    if (parent == null && set instanceof ItemSelectionSet) {
+      return ((ItemSelectionSet) set).shiftRows(start, count);
+    }
     List<WModelIndex> toShift = new ArrayList<WModelIndex>();
     List<WModelIndex> toErase = new ArrayList<WModelIndex>();
     for (Iterator<WModelIndex> it_it = set.tailSet(model.getIndex(start, 0, parent)).iterator();
@@ -1800,31 +1921,24 @@ public class WTreeView extends WAbstractItemView {
     if (node.isAllSpacer()) {
       if (nodeRow + node.getChildrenHeight() > this.firstRenderedRow_
           && nodeRow < this.firstRenderedRow_ + this.validRowCount_) {
-        int childCount = this.getModel().getRowCount(index);
-        boolean firstNode = true;
-        int rowStubs = 0;
-        for (int i = 0; i < childCount; ++i) {
+        RowHeightIndex heights = this.getRowHeights(index);
+        int childCount = heights.getCount();
+        int i = heights.findRow(Math.max(0, this.firstRenderedRow_ - nodeRow));
+        int childRow = nodeRow + heights.getOffset(i);
+        node.setTopSpacerHeight(childRow - nodeRow);
+        for (; i < childCount && childRow <= this.firstRenderedRow_ + this.validRowCount_; ++i) {
           WModelIndex childIndex = this.getModel().getIndex(i, 0, index);
-          int childHeight = this.subTreeHeight(childIndex);
-          if (nodeRow <= this.firstRenderedRow_ + this.validRowCount_
-              && nodeRow + childHeight > this.firstRenderedRow_) {
-            if (firstNode) {
-              firstNode = false;
-              node.setTopSpacerHeight(rowStubs);
-              rowStubs = 0;
-            }
-            WTreeViewNode n =
-                new WTreeViewNode(this, childIndex, childHeight - 1, i == childCount - 1, node);
-            node.getChildContainer().addWidget(n);
-            int nestedNodeRow = nodeRow;
-            nestedNodeRow = this.adjustRenderedNode(n, nestedNodeRow);
-            assert nestedNodeRow == nodeRow + childHeight;
-          } else {
-            rowStubs += childHeight;
-          }
-          nodeRow += childHeight;
+          int childHeight = heights.getHeight(i);
+          WTreeViewNode n =
+              new WTreeViewNode(this, childIndex, childHeight - 1, i == childCount - 1, node);
+          node.getChildContainer().addWidget(n);
+          int nestedNodeRow = childRow;
+          nestedNodeRow = this.adjustRenderedNode(n, nestedNodeRow);
+          assert nestedNodeRow == childRow + childHeight;
+          childRow += childHeight;
         }
-        node.setBottomSpacerHeight(rowStubs);
+        nodeRow += heights.getTotal();
+        node.setBottomSpacerHeight(nodeRow - childRow);
       } else {
         nodeRow += node.getChildrenHeight();
       }
@@ -1941,14 +2055,7 @@ public class WTreeView extends WAbstractItemView {
       return result;
     }
     if (this.getModel() != null && this.isExpanded(index)) {
-      int childCount = this.getModel().getRowCount(index);
-      for (int i = 0; i < childCount; ++i) {
-        WModelIndex childIndex = this.getModel().getIndex(i, 0, index);
-        result += this.subTreeHeight(childIndex, upperBound - result);
-        if (result >= upperBound) {
-          return result;
-        }
-      }
+      result += this.getRowHeights(index).getTotal();
     }
     return result;
   }
@@ -1996,13 +2103,9 @@ public class WTreeView extends WAbstractItemView {
       return 0;
     } else {
       WModelIndex parent = child.getParent();
-      int result = 0;
-      for (int r = 0; r < child.getRow(); ++r) {
-        result +=
-            this.subTreeHeight(this.getModel().getIndex(r, 0, parent), 0, upperBound - result);
-        if (result >= upperBound) {
-          return result;
-        }
+      int result = this.getRowHeights(parent).getOffset(child.getRow());
+      if (result >= upperBound) {
+        return result;
       }
       if (!(parent == ancestor || (parent != null && parent.equals(ancestor)))) {
         return result
@@ -565,7 +565,7 @@ class WTreeViewNode extends WContainerWidget {
     if (expandButton != null) {
       expandButton.setState(1);
     }
-    this.view_.expandedSet_.add(this.index_);
+    this.view_.setExpanded(this.index_);
     this.getChildContainer().show();
     if (this.getParentNode() != null) {
       this.getParentNode().adjustChildrenHeight(this.childrenHeight_);
@@ -14,6 +14,7 @@ import java.io.*;
 import java.lang.ref.*;
 import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.*;
 import javax.servlet.*;
 import javax.servlet.http.*;
@@ -1945,6 +1946,11 @@ public abstract class WWidget extends WObject {
   private LinkedList<AbstractEventSignal> eventSignals_;
   List<AbstractEventSignal> jsignals_;
   WWidget parent_;
+  private long depthVersion_ = -1;
+  private long depthDetachedVersion_ = -1;
+  private int depth_;
+  private WWidget topWidget_;
+  private static final AtomicLong detachedParentChanges = new AtomicLong();
 
   static class ThemeStyle {
     private static Logger logger = LoggerFactory.getLogger(ThemeStyle.class);
@@ -1987,7 +1993,51 @@ public abstract class WWidget extends WObject {
   }
 
   void setParentWidget(WWidget p) {
-    this.parent_ = p;
+    if (this.parent_ != p) {
+      this.parent_ = p;
+      WApplication app = WApplication.getInstance();
+      if (app != null) {
+        ++app.widgetTreeVersion_;
+      } else {
+        detachedParentChanges.incrementAndGet();
+      }
+    }
+  }
+
+  int getDepth() {
+    this.updateDepth();
+    return this.depth_;
+  }
+
+  WWidget getTopWidget() {
+    this.updateDepth();
+    return this.topWidget_;
+  }
+
+  private void updateDepth() {
+    WApplication app = WApplication.getInstance();
+    if (app != null) {
+      this.updateDepth(app.widgetTreeVersion_, detachedParentChanges.get());
+    } else {
+      this.updateDepth(-1, -1);
+    }
+  }
+
+  private void updateDepth(long version, long detachedVersion) {
+    if (version == -1
+        || this.depthVersion_ != version
+        || this.depthDetachedVersion_ != detachedVersion) {
+      if (this.parent_ == null) {
+        this.depth_ = 1;
+        this.topWidget_ = this;
+      } else {
+        this.parent_.updateDepth(version, detachedVersion);
+        this.depth_ = this.parent_.depth_ + 1;
+        this.topWidget_ = this.parent_.topWidget_;
+      }
+      this.depthVersion_ = version;
+      this.depthDetachedVersion_ = detachedVersion;
+    }
   }
 
   void setGlobalWidget(boolean globalWidget) {
@@ -12,9 +12,11 @@ import eu.webtoolkit.jwt.servlet.*;
 import eu.webtoolkit.jwt.utils.*;
 import java.io.*;
 import java.lang.ref.*;
+import java.nio.charset.StandardCharsets;
 import java.time.*;
 import java.util.*;
 import java.util.regex.*;
+import java.util.zip.GZIPOutputStream;
 import javax.servlet.*;
 import javax.servlet.http.*;
 import org.slf4j.Logger;
@@ -50,6 +52,7 @@ class WebRenderer implements SlotLearnerInterface {
     this.statelessJS_ = new StringBuilder();
     this.beforeLoadJS_ = new StringBuilder();
     this.updateMap_ = new HashSet<WWidget>();
+    this.depthOrder_ = new ArrayList<List<WWidget>>();
     this.learning_ = false;
   }
 
@@ -71,21 +74,25 @@ class WebRenderer implements SlotLearnerInterface {
 
   public void setRendered(boolean how) {
     if (this.rendered_ != how) {
-      logger.debug(
-          new StringWriter().append("setRendered: ").append(String.valueOf(how)).toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            new StringWriter().append("setRendered: ").append(String.valueOf(how)).toString());
+      }
       this.rendered_ = how;
     }
   }
 
   public void needUpdate(WWidget w, boolean laterOnly) {
-    logger.debug(
-        new StringWriter()
-            .append("needUpdate: ")
-            .append(w.getId())
-            .append(" (")
-            .append("(fixme)")
-            .append(")")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("needUpdate: ")
+              .append(w.getId())
+              .append(" (")
+              .append("(fixme)")
+              .append(")")
+              .toString());
+    }
     this.updateMap_.add(w);
     if (!laterOnly) {
       this.moreUpdates_ = true;
@@ -93,14 +100,16 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void doneUpdate(WWidget w) {
-    logger.debug(
-        new StringWriter()
-            .append("doneUpdate: ")
-            .append(w.getId())
-            .append(" (")
-            .append("(fixme)")
-            .append(")")
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("doneUpdate: ")
+              .append(w.getId())
+              .append(" (")
+              .append("(fixme)")
+              .append(")")
+              .toString());
+    }
     this.updateMap_.remove(w);
   }
 
@@ -123,7 +132,7 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void saveChanges() throws IOException {
-    this.collectedJS1_.append(this.invisibleJS_.toString());
+    this.collectedJS1_.append(this.invisibleJS_);
     this.invisibleJS_.setLength(0);
     this.collectJS(this.collectedJS1_);
   }
@@ -303,15 +312,19 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public WebRenderer.AckState ackUpdate(int updateId) {
-    logger.debug(
-        new StringWriter()
-            .append("ackUpdate: expecting ")
-            .append(String.valueOf(this.expectedAckId_))
-            .append(", received ")
-            .append(String.valueOf(updateId))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("ackUpdate: expecting ")
+              .append(String.valueOf(this.expectedAckId_))
+              .append(", received ")
+              .append(String.valueOf(updateId))
+              .toString());
+    }
     if (updateId == this.expectedAckId_) {
-      logger.debug(new StringWriter().append("jsSynced(false) after ackUpdate okay").toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("jsSynced(false) after ackUpdate okay").toString());
+      }
       this.setJSSynced(false);
       this.ackErrs_ = 0;
       return WebRenderer.AckState.CorrectAck;
@@ -400,12 +413,14 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   public void setJSSynced(boolean invisibleToo) {
-    logger.debug(
-        new StringWriter().append("setJSSynced: ").append(String.valueOf(invisibleToo)).toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter().append("setJSSynced: ").append(String.valueOf(invisibleToo)).toString());
+    }
     this.collectedJS1_.setLength(0);
     this.collectedJS2_.setLength(0);
     if (!invisibleToo) {
-      this.collectedJS1_.append(this.invisibleJS_.toString());
+      this.collectedJS1_.append(this.invisibleJS_);
     }
     this.invisibleJS_.setLength(0);
   }
@@ -449,6 +464,55 @@ class WebRenderer implements SlotLearnerInterface {
     response.addHeader("Expires", "0");
   }
 
+  private void writeResponse(final WebResponse response, final CharSequence... fragments)
+      throws IOException {
+    final Configuration conf = this.session_.getController().getConfiguration();
+    long length = 0;
+    for (int i = 0; i < fragments.length; ++i) {
+      length += fragments[i].length();
+    }
+    char[] buffer = new char[(int) Math.min(length, RESPONSE_CHUNK_SIZE)];
+    if (!response.isWebSocketMessage()
+        && conf.isResponseCompression()
+        && length >= conf.getResponseCompressionThreshold()
+        && response.acceptsEncoding("gzip")) {
+      response.setHeader("Content-Encoding", "gzip");
+      response.addHeader("Vary", "Accept-Encoding");
+      ByteCounter compressed = new ByteCounter(response.getOutputStream(), false);
+      ByteCounter uncompressed =
+          new ByteCounter(new GZIPOutputStream(compressed, RESPONSE_CHUNK_SIZE), true);
+      Writer gzip = new OutputStreamWriter(uncompressed, StandardCharsets.UTF_8);
+      for (int i = 0; i < fragments.length; ++i) {
+        writeChunked(gzip, fragments[i], buffer);
+      }
+      gzip.close();
+      this.session_.addCompressedResponse(uncompressed.count_, compressed.count_);
+    } else {
+      final Writer out = response.out();
+      for (int i = 0; i < fragments.length; ++i) {
+        writeChunked(out, fragments[i], buffer);
+      }
+    }
+  }
+
+  private static void writeChunked(final Writer out, final CharSequence s, char[] buffer)
+      throws IOException {
+    int length = s.length();
+    for (int pos = 0; pos < length; pos += buffer.length) {
+      int end = Math.min(length, pos + buffer.length);
+      if (s instanceof StringBuilder) {
+        ((StringBuilder) s).getChars(pos, end, buffer, 0);
+      } else if (s instanceof String) {
+        ((String) s).getChars(pos, end, buffer, 0);
+      } else {
+        for (int i = pos; i < end; ++i) {
+          buffer[i - pos] = s.charAt(i);
+        }
+      }
+      out.write(buffer, 0, end - pos);
+    }
+  }
+
   private void serveJavaScriptUpdate(final WebResponse response) throws IOException {
     if (!response.isWebSocketMessage()) {
       this.addNoCacheHeaders(response);
@@ -464,28 +528,35 @@ class WebRenderer implements SlotLearnerInterface {
     StringBuilder out = new StringBuilder();
     if (!this.rendered_) {
       this.serveMainAjax(out);
+      this.writeResponse(response, out);
     } else {
       this.collectJavaScript();
       this.addResponseAckPuzzle(out);
       this.renderSetServerPush(out);
-      logger.debug(
-          new StringWriter()
-              .append("js: ")
-              .append(this.collectedJS1_.toString())
-              .append(this.collectedJS2_.toString())
-              .toString());
-      out.append(this.collectedJS1_.toString()).append(this.collectedJS2_.toString());
-      if (response.isWebSocketMessage()) {
-        this.renderCookieUpdate(out);
-        this.renderWsRequestsDone(out);
+      if (logger.isDebugEnabled()) {
         logger.debug(
             new StringWriter()
-                .append("jsSynced(false) after rendering websocket message")
+                .append("js: ")
+                .append(this.collectedJS1_.toString())
+                .append(this.collectedJS2_.toString())
                 .toString());
+      }
+      StringBuilder tail = new StringBuilder();
+      if (response.isWebSocketMessage()) {
+        this.renderCookieUpdate(tail);
+        this.renderWsRequestsDone(tail);
+      }
+      this.writeResponse(response, out, this.collectedJS1_, this.collectedJS2_, tail);
+      if (response.isWebSocketMessage()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("jsSynced(false) after rendering websocket message")
+                  .toString());
+        }
         this.setJSSynced(false);
       }
     }
-    response.out().append(out.toString());
   }
 
   private void serveMainscript(final WebResponse response) throws IOException {
@@ -499,7 +570,7 @@ class WebRenderer implements SlotLearnerInterface {
       String redirect = this.session_.getRedirect();
       if (redirect.length() != 0) {
         this.streamRedirectJS(out, redirect);
-        response.out().append(out.toString());
+        this.writeResponse(response, out);
         return;
       }
     } else {
@@ -584,7 +655,7 @@ class WebRenderer implements SlotLearnerInterface {
         if (app.enableAjax_) {
           this.collectedJS1_
               .append("var form = Wt4_12_1.getElement('Wt-form'); if (form) {")
-              .append(this.beforeLoadJS_.toString());
+              .append(this.beforeLoadJS_);
           this.beforeLoadJS_.setLength(0);
           this.collectedJS1_
               .append("var domRoot=")
@@ -618,13 +689,15 @@ class WebRenderer implements SlotLearnerInterface {
         this.currentFormObjectsList_ = "";
         this.collectJavaScript();
         this.updateLoadIndicator(this.collectedJS1_, app, true);
-        logger.debug(
-            new StringWriter()
-                .append("js: ")
-                .append(this.collectedJS1_.toString())
-                .append(this.collectedJS2_.toString())
-                .toString());
-        out.append(this.collectedJS1_.toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("js: ")
+                  .append(this.collectedJS1_.toString())
+                  .append(this.collectedJS2_.toString())
+                  .toString());
+        }
+        out.append(this.collectedJS1_);
         this.addResponseAckPuzzle(out);
         out.append(app.getJavaScriptClass())
             .append("._p_.setHash(")
@@ -635,7 +708,7 @@ class WebRenderer implements SlotLearnerInterface {
         }
         out.append(app.getJavaScriptClass())
             .append("._p_.update(null, 'load', null, false);")
-            .append(this.collectedJS2_.toString())
+            .append(this.collectedJS2_)
             .append("};");
         this.session_.getApp().serverPushChanged_ = true;
         this.renderSetServerPush(out);
@@ -652,7 +725,7 @@ class WebRenderer implements SlotLearnerInterface {
             .append("._p_.load(true);});\n");
       }
     }
-    response.out().append(out.toString());
+    this.writeResponse(response, out);
   }
 
   private void serveBootstrap(final WebResponse response) throws IOException {
@@ -685,10 +758,10 @@ class WebRenderer implements SlotLearnerInterface {
     String contentType = "text/html; charset=UTF-8";
     this.setHeaders(response, contentType);
     StringBuilder out = new StringBuilder();
-    this.streamBootContent(response, boot, false);
+    this.streamBootContent(response, out, boot, false);
     boot.stream(out);
     this.setRendered(false);
-    response.out().append(out.toString());
+    this.writeResponse(response, out);
   }
 
   private void serveMainpage(final WebResponse response) throws IOException {
@@ -781,10 +854,10 @@ class WebRenderer implements SlotLearnerInterface {
     }
     this.setHeaders(response, contentType);
     this.currentFormObjectsList_ = this.createFormObjectsList(app);
+    StringBuilder out = new StringBuilder();
     if (hybridPage) {
-      this.streamBootContent(response, page, true);
+      this.streamBootContent(response, out, page, true);
     }
-    StringBuilder out = new StringBuilder();
     page.streamUntil(out, "HTML");
     List<DomElement.TimeoutEvent> timeouts = new ArrayList<DomElement.TimeoutEvent>();
     {
@@ -814,7 +887,7 @@ class WebRenderer implements SlotLearnerInterface {
     page.setVar("REFRESH", String.valueOf(refresh));
     page.stream(out);
     app.internalPathIsChanged_ = false;
-    response.out().append(out.toString());
+    this.writeResponse(response, out);
   }
 
   private void serveMainAjax(final StringBuilder out) {
@@ -913,8 +986,10 @@ class WebRenderer implements SlotLearnerInterface {
     if (widgetset) {
       app.domRoot2_.rootAsJavaScript(app, s, true);
     }
-    logger.debug(new StringWriter().append("js: ").append(s.toString()).toString());
-    out.append(s.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("js: ").append(s.toString()).toString());
+    }
+    out.append(s);
     this.currentFormObjectsList_ = this.createFormObjectsList(app);
     out.append(app.getJavaScriptClass())
         .append("._p_.setFormObjects([")
@@ -927,7 +1002,7 @@ class WebRenderer implements SlotLearnerInterface {
       this.preCollectInvisibleChanges();
       if (this.twoPhaseThreshold_ > 0
           && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-        this.collectedJS1_.append(this.invisibleJS_.toString());
+        this.collectedJS1_.append(this.invisibleJS_);
         this.invisibleJS_.setLength(0);
       } else {
         if (widgetset) {
@@ -938,9 +1013,11 @@ class WebRenderer implements SlotLearnerInterface {
       }
     }
     this.preLearnStateless(app, this.collectedJS1_);
-    logger.debug(
-        new StringWriter().append("js: ").append(this.collectedJS1_.toString()).toString());
-    out.append(this.collectedJS1_.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter().append("js: ").append(this.collectedJS1_.toString()).toString());
+    }
+    out.append(this.collectedJS1_);
     this.collectedJS1_.setLength(0);
     this.updateLoadIndicator(out, app, true);
     if (widgetset) {
@@ -975,12 +1052,14 @@ class WebRenderer implements SlotLearnerInterface {
   private void collectJavaScript() throws IOException {
     WApplication app = this.session_.getApp();
     final Configuration conf = this.session_.getController().getConfiguration();
-    logger.debug(
-        new StringWriter()
-            .append("Rendering invisible: ")
-            .append(this.invisibleJS_.toString())
-            .toString());
-    this.collectedJS1_.append(this.invisibleJS_.toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("Rendering invisible: ")
+              .append(this.invisibleJS_.toString())
+              .toString());
+    }
+    this.collectedJS1_.append(this.invisibleJS_);
     this.invisibleJS_.setLength(0);
     int librariesLoaded = this.loadScriptLibraries(this.collectedJS1_, app);
     this.loadScriptLibraries(this.collectedJS2_, app, librariesLoaded);
@@ -1041,7 +1120,7 @@ class WebRenderer implements SlotLearnerInterface {
       this.preCollectInvisibleChanges();
       if (this.twoPhaseThreshold_ > 0
           && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-        this.collectedJS1_.append(this.invisibleJS_.toString());
+        this.collectedJS1_.append(this.invisibleJS_);
         this.invisibleJS_.setLength(0);
       } else {
         this.collectedJS1_
@@ -1074,64 +1153,77 @@ class WebRenderer implements SlotLearnerInterface {
 
   private void collectChanges(final List<DomElement> changes) {
     WApplication app = this.session_.getApp();
-    do {
-      this.moreUpdates_ = false;
-      OrderedMultiMap<Integer, WWidget> depthOrder = new OrderedMultiMap<Integer, WWidget>();
-      for (Iterator<WWidget> i_it = this.updateMap_.iterator(); i_it.hasNext(); ) {
-        WWidget i = i_it.next();
-        int depth = 1;
-        WWidget ww = i;
-        WWidget w = ww;
-        for (; w.getParent() != null; ++depth) {
-          w = w.getParent();
-        }
-        if (w != app.domRoot_ && w != app.domRoot2_) {
-          logger.debug(
-              new StringWriter()
-                  .append("ignoring: ")
-                  .append(ww.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(") ")
-                  .append(w.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(")")
-                  .toString());
-          depth = 0;
-        }
-        depthOrder.put(depth, ww);
-      }
-      for (Iterator<Map.Entry<Integer, WWidget>> i_it = depthOrder.entrySet().iterator();
-          i_it.hasNext(); ) {
-        Map.Entry<Integer, WWidget> i = i_it.next();
-        boolean j = this.updateMap_.contains(i.getValue());
-        if (j != false) {
-          WWidget w = i.getValue();
-          if (i.getKey() == 0) {
-            w.getWebWidget().propagateRenderOk();
-            continue;
+    try {
+      do {
+        this.moreUpdates_ = false;
+        List<List<WWidget>> depthOrder = this.depthOrder_;
+        for (Iterator<WWidget> i_it = this.updateMap_.iterator(); i_it.hasNext(); ) {
+          WWidget ww = i_it.next();
+          int depth = ww.getDepth();
+          WWidget w = ww.getTopWidget();
+          if (w != app.domRoot_ && w != app.domRoot2_) {
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  new StringWriter()
+                      .append("ignoring: ")
+                      .append(ww.getId())
+                      .append(" (")
+                      .append("(fixme)")
+                      .append(") ")
+                      .append(w.getId())
+                      .append(" (")
+                      .append("(fixme)")
+                      .append(")")
+                      .toString());
+            }
+            depth = 0;
           }
-          logger.debug(
-              new StringWriter()
-                  .append("updating: ")
-                  .append(w.getId())
-                  .append(" (")
-                  .append("(fixme)")
-                  .append(")")
-                  .toString());
-          if (!this.learning_ && this.visibleOnly_) {
-            if (w.isRendered()) {
-              w.getSDomChanges(changes, app);
+          while (depthOrder.size() <= depth) {
+            depthOrder.add(new ArrayList<WWidget>());
+          }
+          depthOrder.get(depth).add(ww);
+        }
+        for (int depth = 0; depth < depthOrder.size(); ++depth) {
+          List<WWidget> bucket = depthOrder.get(depth);
+          for (int i = 0; i < bucket.size(); ++i) {
+            WWidget w = bucket.get(i);
+            if (!this.updateMap_.contains(w)) {
+              continue;
+            }
+            if (depth == 0) {
+              w.getWebWidget().propagateRenderOk();
+              continue;
+            }
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  new StringWriter()
+                      .append("updating: ")
+                      .append(w.getId())
+                      .append(" (")
+                      .append("(fixme)")
+                      .append(")")
+                      .toString());
+            }
+            if (!this.learning_ && this.visibleOnly_) {
+              if (w.isRendered()) {
+                w.getSDomChanges(changes, app);
+              } else {
+                if (logger.isDebugEnabled()) {
+                  logger.debug(new StringWriter().append("Ignoring: ").append(w.getId()).toString());
+                }
+              }
             } else {
-              logger.debug(new StringWriter().append("Ignoring: ").append(w.getId()).toString());
+              w.getSDomChanges(changes, app);
             }
-          } else {
-            w.getSDomChanges(changes, app);
           }
+          bucket.clear();
         }
+      } while (!this.learning_ && this.moreUpdates_);
+    } finally {
+      for (int i = 0; i < this.depthOrder_.size(); ++i) {
+        this.depthOrder_.get(i).clear();
       }
-    } while (!this.learning_ && this.moreUpdates_);
+    }
   }
 
   private void collectJavaScriptUpdate(final StringBuilder out) {
@@ -1158,7 +1250,7 @@ class WebRenderer implements SlotLearnerInterface {
         this.preCollectInvisibleChanges();
         if (this.twoPhaseThreshold_ > 0
             && this.invisibleJS_.length() < (int) this.twoPhaseThreshold_) {
-          this.collectedJS1_.append(this.invisibleJS_.toString());
+          this.collectedJS1_.append(this.invisibleJS_);
           this.invisibleJS_.setLength(0);
         }
       }
@@ -1331,7 +1423,7 @@ class WebRenderer implements SlotLearnerInterface {
         }
       }
     }
-    out.append(this.statelessJS_.toString());
+    out.append(this.statelessJS_);
     this.statelessJS_.setLength(0);
   }
 
@@ -1468,10 +1560,10 @@ class WebRenderer implements SlotLearnerInterface {
     }
   }
 
-  private void streamBootContent(final WebResponse response, final FileServe boot, boolean hybrid)
+  private void streamBootContent(
+      final WebResponse response, final StringBuilder out, final FileServe boot, boolean hybrid)
       throws IOException {
     final Configuration conf = this.session_.getController().getConfiguration();
-    StringBuilder out = new StringBuilder();
     boot.setVar(
         "BLANK_HTML",
         this.session_.getBootstrapUrl(response, WebSession.BootstrapOption.ClearInternalPath)
@@ -1511,7 +1603,6 @@ class WebRenderer implements SlotLearnerInterface {
       bootJs.setVar("INTERNAL_PATH", this.safeJsStringLiteral(internalPath));
       bootJs.stream(out);
     }
-    response.out().append(out.toString());
   }
 
   private void addResponseAckPuzzle(final StringBuilder out) {
@@ -1543,11 +1634,13 @@ class WebRenderer implements SlotLearnerInterface {
       }
     }
     ++this.expectedAckId_;
-    logger.debug(
-        new StringWriter()
-            .append("addResponseAckPuzzle: incremented expectedAckId to ")
-            .append(String.valueOf(this.expectedAckId_))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("addResponseAckPuzzle: incremented expectedAckId to ")
+              .append(String.valueOf(this.expectedAckId_))
+              .toString());
+    }
     out.append(this.session_.getApp().getJavaScriptClass())
         .append("._p_.response(")
         .append(this.expectedAckId_);
@@ -1739,9 +1832,11 @@ class WebRenderer implements SlotLearnerInterface {
   }
 
   private Set<WWidget> updateMap_;
+  private List<List<WWidget>> depthOrder_;
   private boolean learning_;
   private boolean learningIncomplete_;
   private boolean moreUpdates_;
+  private static final int RESPONSE_CHUNK_SIZE = 8192;
 
   private String safeJsStringLiteral(final String value) {
     String s = WWebWidget.jsStringLiteral(value);
@@ -1804,7 +1899,9 @@ class WebRenderer implements SlotLearnerInterface {
     StringBuilder js = new StringBuilder();
     this.collectJS(js);
     String result = js.toString();
-    logger.debug(new StringWriter().append("learned: ").append(result).toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("learned: ").append(result).toString());
+    }
     if (slot.getType() == SlotType.PreLearnStateless) {
       slot.undoTrigger();
       this.collectJS((StringBuilder) null);
@@ -1842,4 +1939,36 @@ class WebRenderer implements SlotLearnerInterface {
   static void closeSpecial(final EscapeOStream s) {
     s.append(">\n");
   }
+
+  static class ByteCounter extends FilterOutputStream {
+    private static Logger logger = LoggerFactory.getLogger(ByteCounter.class);
+
+    public long count_;
+
+    public ByteCounter(OutputStream out, boolean propagateClose) {
+      super(out);
+      this.count_ = 0;
+      this.propagateClose_ = propagateClose;
+    }
+
+    public void write(int b) throws IOException {
+      this.out.write(b);
+      ++this.count_;
+    }
+
+    public void write(byte[] b, int off, int len) throws IOException {
+      this.out.write(b, off, len);
+      this.count_ += len;
+    }
+
+    public void close() throws IOException {
+      if (this.propagateClose_) {
+        super.close();
+      } else {
+        this.flush();
+      }
+    }
+
+    private boolean propagateClose_;
+  }
 }
@@ -81,6 +81,10 @@ class WebSession {
     this.recursiveEventDone_ = this.mutex_.newCondition();
     this.newRecursiveEvent_ = null;
     this.updatesPendingEvent_ = this.mutex_.newCondition();
+    this.appStarted_ = this.mutex_.newCondition();
+    this.bootStyleServed_ = this.mutex_.newCondition();
+    this.bootStyleWaiting_ = 0;
+    this.requestWaitNanos_ = 0;
     this.updatesPending_ = false;
     this.triggerUpdate_ = false;
     this.embeddedEnv_ = new WEnvironment(this);
@@ -88,6 +92,8 @@ class WebSession {
     this.debug_ = this.controller_.getConfiguration().debug();
     this.handlers_ = new ArrayList<WebSession.Handler>();
     this.recursiveEventHandler_ = null;
+    this.uncompressedResponseBytes_ = 0;
+    this.compressedResponseBytes_ = 0;
     this.env_ = env != null ? env : this.embeddedEnv_;
     if (request != null) {
       this.env_.updateUrlScheme(request);
@@ -137,6 +143,7 @@ class WebSession {
     }
     this.mutex_.lock();
     this.updatesPendingEvent_.signal();
+    this.appStarted_.signalAll();
     this.mutex_.unlock();
     this.flushBootStyleResponse();
   }
@@ -197,6 +204,23 @@ class WebSession {
     return this.renderer_;
   }
 
+  public long getUncompressedResponseBytes() {
+    return this.uncompressedResponseBytes_;
+  }
+
+  public long getCompressedResponseBytes() {
+    return this.compressedResponseBytes_;
+  }
+
+  public Duration getRequestWaitTime() {
+    return Duration.ofNanos(this.requestWaitNanos_);
+  }
+
+  void addCompressedResponse(long uncompressedBytes, long compressedBytes) {
+    this.uncompressedResponseBytes_ += uncompressedBytes;
+    this.compressedResponseBytes_ += compressedBytes;
+  }
+
   public boolean isUseUrlRewriting() {
     final Configuration conf = this.controller_.getConfiguration();
     return !(conf.getSessionTracking() == Configuration.SessionTracking.CookiesURL
@@ -501,10 +525,12 @@ class WebSession {
               if (signalE.equals("poll")
                   && ackState != WebRenderer.AckState.CorrectAck
                   && this.renderer_.isJsSynced()) {
-                logger.debug(
-                    new StringWriter()
-                        .append("Ignoring poll with incorrect ack -- was rescheduled in browser?")
-                        .toString());
+                if (logger.isDebugEnabled()) {
+                  logger.debug(
+                      new StringWriter()
+                          .append("Ignoring poll with incorrect ack -- was rescheduled in browser?")
+                          .toString());
+                }
                 handler.flushResponse();
                 return;
               }
@@ -541,12 +567,14 @@ class WebSession {
                     handler.setRequest((WebRequest) null, (WebResponse) null);
                   } else {
                     ++this.pollRequestsIgnored_;
-                    logger.debug(
-                        new StringWriter()
-                            .append("ignored poll request (#")
-                            .append(String.valueOf(this.pollRequestsIgnored_))
-                            .append(")")
-                            .toString());
+                    if (logger.isDebugEnabled()) {
+                      logger.debug(
+                          new StringWriter()
+                              .append("ignored poll request (#")
+                              .append(String.valueOf(this.pollRequestsIgnored_))
+                              .append(")")
+                              .toString());
+                    }
                   }
                 } else {
                   this.pollRequestsIgnored_ = 0;
@@ -558,7 +586,9 @@ class WebSession {
                 }
               }
               if (handler.getRequest() != null) {
-                logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+                if (logger.isDebugEnabled()) {
+                  logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+                }
                 try {
                   handler.nextSignal = -1;
                   this.notifySignal(event);
@@ -1105,12 +1135,14 @@ class WebSession {
   public void setState(WebSession.State state, int timeout) {
     if (this.state_ != WebSession.State.Dead) {
       this.state_ = state;
-      logger.debug(
-          new StringWriter()
-              .append("Setting to expire in ")
-              .append(String.valueOf(timeout))
-              .append("s")
-              .toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(
+            new StringWriter()
+                .append("Setting to expire in ")
+                .append(String.valueOf(timeout))
+                .append("s")
+                .toString());
+      }
     }
   }
 
@@ -1390,15 +1422,17 @@ class WebSession {
               && (requestE.equals("jsupdate")
                   || requestE.equals("jserror")
                   || requestE.equals("resource")))) {
-        logger.debug(
-            new StringWriter()
-                .append("CSRF: ")
-                .append(wtdE != null ? wtdE : "no wtd")
-                .append(" != ")
-                .append(this.sessionId_)
-                .append(", requestE: ")
-                .append(requestE != null ? requestE : "none")
-                .toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(
+              new StringWriter()
+                  .append("CSRF: ")
+                  .append(wtdE != null ? wtdE : "no wtd")
+                  .append(" != ")
+                  .append(this.sessionId_)
+                  .append(", requestE: ")
+                  .append(requestE != null ? requestE : "none")
+                  .toString());
+        }
         logger.warn(
             new StringWriter().append("secure:").append("CSRF prevention kicked in.").toString());
         this.serveError(403, handler, "Forbidden");
@@ -1572,18 +1606,16 @@ class WebSession {
                           handler.getResponse().setContentType("text/css");
                           handler.flushResponse();
                         } else {
-                          int i = 0;
-                          final int MAX_TRIES = 1000;
-                          while (!(this.app_ != null) && i < MAX_TRIES) {
-                            this.mutex_.unlock();
-                            ThreadUtils.sleep(Duration.ofMillis(5));
-                            this.mutex_.lock();
-                            ++i;
-                          }
-                          if (i < MAX_TRIES) {
-                            this.renderer_.serveLinkedCss(handler.getResponse());
+                          ++this.bootStyleWaiting_;
+                          try {
+                            if (this.awaitApplication(BOOT_STYLE_TIMEOUT)) {
+                              this.renderer_.serveLinkedCss(handler.getResponse());
+                            }
+                            handler.flushResponse();
+                          } finally {
+                            --this.bootStyleWaiting_;
+                            this.bootStyleServed_.signalAll();
                           }
-                          handler.flushResponse();
                         }
                         break;
                       }
@@ -1729,11 +1761,13 @@ class WebSession {
   public void queueEvent(final ApplicationEvent event) {
     this.eventQueueMutex_.lock();
     this.eventQueue_.addLast(event);
-    logger.debug(
-        new StringWriter()
-            .append("queueEvent(): ")
-            .append(String.valueOf(this.eventQueue_.size()))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("queueEvent(): ")
+              .append(String.valueOf(this.eventQueue_.size()))
+              .toString());
+    }
     this.eventQueueMutex_.unlock();
   }
 
@@ -1754,7 +1788,9 @@ class WebSession {
       }
       String signalE = message.getParameter("signal");
       if (signalE != null && signalE.equals("ping")) {
-        logger.debug(new StringWriter().append("ws: handle ping").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("ws: handle ping").toString());
+        }
         if (this.canWriteWebSocket_) {
           this.webSocket_.out().append("{}");
           this.webSocket_.flushBuffer();
@@ -1866,13 +1902,24 @@ class WebSession {
   private boolean debug_;
   private List<WebSession.Handler> handlers_;
   private WebSession.Handler recursiveEventHandler_;
+  private long uncompressedResponseBytes_;
+  private long compressedResponseBytes_;
+  private java.util.concurrent.locks.Condition appStarted_;
+  private java.util.concurrent.locks.Condition bootStyleServed_;
+  private int bootStyleWaiting_;
+  private long requestWaitNanos_;
+  private static final Duration BOOT_STYLE_TIMEOUT = Duration.ofSeconds(5);
 
   void pushUpdates() {
     try {
-      logger.debug(new StringWriter().append("pushUpdates()").toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("pushUpdates()").toString());
+      }
       this.triggerUpdate_ = false;
       if (!(this.app_ != null) || !this.renderer_.isDirty()) {
-        logger.debug(new StringWriter().append("pushUpdates(): nothing to do").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("pushUpdates(): nothing to do").toString());
+        }
         return;
       }
       this.updatesPending_ = true;
@@ -1884,9 +1931,11 @@ class WebSession {
         this.asyncResponse_ = null;
       } else {
         if (this.webSocket_ != null && this.webSocketConnected_) {
-          if (this.webSocket_.isWebSocketMessagePending()) {
-            logger.debug(
-                new StringWriter().append("pushUpdates(): web socket message pending").toString());
+          if (this.webSocket_.deferPushUpdates()) {
+            if (logger.isDebugEnabled()) {
+              logger.debug(
+                  new StringWriter().append("pushUpdates(): web socket message pending").toString());
+            }
             return;
           }
           if (this.canWriteWebSocket_) {
@@ -1898,7 +1947,9 @@ class WebSession {
         }
       }
       if (this.updatesPending_) {
-        logger.debug(new StringWriter().append("pushUpdates(): cannot write now").toString());
+        if (logger.isDebugEnabled()) {
+          logger.debug(new StringWriter().append("pushUpdates(): cannot write now").toString());
+        }
         this.updatesPendingEvent_.signal();
       }
     } catch (IOException ioe) {
@@ -1940,7 +1991,9 @@ class WebSession {
   }
 
   private void render(final WebSession.Handler handler) throws IOException {
-    logger.debug(new StringWriter().append("render()").toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(new StringWriter().append("render()").toString());
+    }
     try {
       if (!this.env_.hasAjax()) {
         try {
@@ -1985,12 +2038,7 @@ class WebSession {
     }
     if (!handler.getRequest().isWebSocketMessage()) {
       if (handler.getResponse().getResponseType() == WebRequest.ResponseType.Script) {
-        this.mutex_.unlock();
-        try {
-          ThreadUtils.sleep(Duration.ofMillis(1));
-        } catch (final InterruptedException e) {
-        }
-        this.mutex_.lock();
+        this.awaitBootStyle(BOOT_STYLE_TIMEOUT);
       }
       this.renderer_.serveResponse(handler.getResponse());
     }
@@ -2087,7 +2135,9 @@ class WebSession {
       if (!(signalE != null)) {
         return;
       }
-      logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+      if (logger.isDebugEnabled()) {
+        logger.debug(new StringWriter().append("signal: ").append(signalE).toString());
+      }
       if (this.getType() != EntryPointType.WidgetSet
           || !signalE.equals("none") && !signalE.equals("load")) {
         this.renderer_.setRendered(true);
@@ -2258,6 +2308,38 @@ class WebSession {
     this.docRoot_ = this.getCgiValue("DOCUMENT_ROOT");
   }
 
+  private boolean awaitApplication(final Duration timeout) throws InterruptedException {
+    if (this.app_ != null) {
+      return true;
+    }
+    long start = System.nanoTime();
+    long remaining = timeout.toNanos();
+    try {
+      while (this.app_ == null && !this.isDead() && remaining > 0) {
+        remaining = this.appStarted_.awaitNanos(remaining);
+      }
+    } finally {
+      this.requestWaitNanos_ += System.nanoTime() - start;
+    }
+    return this.app_ != null;
+  }
+
+  private void awaitBootStyle(final Duration timeout) {
+    if (this.bootStyleWaiting_ == 0) {
+      return;
+    }
+    long start = System.nanoTime();
+    long remaining = timeout.toNanos();
+    try {
+      while (this.bootStyleWaiting_ > 0 && remaining > 0) {
+        remaining = this.bootStyleServed_.awaitNanos(remaining);
+      }
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.requestWaitNanos_ += System.nanoTime() - start;
+  }
+
   private boolean start(WebResponse response) {
     try {
       this.app_ = this.controller_.doCreateApplication(this);
@@ -2274,6 +2356,8 @@ class WebSession {
       this.app_ = null;
       this.kill();
       throw e;
+    } finally {
+      this.appStarted_.signalAll();
     }
     return this.app_ != null;
   }
@@ -2330,11 +2414,13 @@ class WebSession {
   private ApplicationEvent getPopQueuedEvent() {
     this.eventQueueMutex_.lock();
     ApplicationEvent result = null;
-    logger.debug(
-        new StringWriter()
-            .append("popQueuedEvent(): ")
-            .append(String.valueOf(this.eventQueue_.size()))
-            .toString());
+    if (logger.isDebugEnabled()) {
+      logger.debug(
+          new StringWriter()
+              .append("popQueuedEvent(): ")
+              .append(String.valueOf(this.eventQueue_.size()))
+              .toString());
+    }
     if (!this.eventQueue_.isEmpty()) {
       result = this.eventQueue_.getFirst();
       this.eventQueue_.removeFirst();
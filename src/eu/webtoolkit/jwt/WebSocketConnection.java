@@ -4,12 +4,16 @@
 package eu.webtoolkit.jwt;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.io.Writer;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
 import javax.websocket.Session;
 
 import org.slf4j.Logger;
@@ -28,6 +32,21 @@ class WebSocketConnection extends WebResponse {
 	private Session socketSession;
 	private Map<String, List<String>> headers;
 	private WebSession webSession;
+
+	/*
+	 * Asynchronous push: messages are rendered in buffer, and sent using the async remote.
+	 * While a message is in flight, further messages wait in queued and are sent one by one,
+	 * each in its own frame, and pushing updates is deferred until the queue is empty.
+	 */
+	private StringWriter buffer;
+	private final Object sendLock = new Object();
+	private boolean sending;
+	private boolean pushDeferred;
+	private final ArrayDeque<String> queued = new ArrayDeque<String>();
+	private long queuedSize;
+	private long maxQueuedSize;
+	private long sentMessages;
+	private long deferredPushes;
 	
 	public WebSocketConnection(final Session socketSession, Map<String, List<String>> headers) throws IOException {
 		super();
@@ -77,7 +96,12 @@ class WebSocketConnection extends WebResponse {
 	 */
 	@Override
 	public void flushBuffer() {
-		if (this.outWriter != null) {
+		if (this.buffer != null) {
+			String message = this.buffer.toString();
+			this.buffer = null;
+			if (!message.isEmpty())
+				send(message);
+		} else if (this.outWriter != null) {
 			try {
 				this.outWriter.close();
 				this.outWriter = null;
@@ -100,8 +124,41 @@ class WebSocketConnection extends WebResponse {
 		return null;
 	}
 	
+	/**
+	 * Returns whether a message is still being sent asynchronously.
+	 */
+	@Override
+	public boolean isWebSocketMessagePending() {
+		synchronized (this.sendLock) {
+			return this.sending;
+		}
+	}
+
+	/**
+	 * Postpones pushing updates while a message is being sent asynchronously.
+	 * <p>
+	 * The push is retried when all messages have been sent. Returns false, and postpones
+	 * nothing, when no message is pending.
+	 */
+	@Override
+	public boolean deferPushUpdates() {
+		synchronized (this.sendLock) {
+			if (!this.sending)
+				return false;
+			this.pushDeferred = true;
+			++this.deferredPushes;
+			return true;
+		}
+	}
+
 	@Override
 	public Writer out() {
+		if (isAsyncPush()) {
+			if (this.buffer == null)
+				this.buffer = new StringWriter();
+			return this.buffer;
+		}
+
 		if (this.outWriter == null) {
 			try {
 				this.outWriter = this.socketSession.getBasicRemote().getSendWriter();
@@ -166,6 +223,118 @@ class WebSocketConnection extends WebResponse {
 		return "POST";
 	}
 	
+	/**
+	 * Returns the number of messages waiting for the message in flight.
+	 */
+	public int getQueuedMessages() {
+		synchronized (this.sendLock) {
+			return this.queued.size();
+		}
+	}
+
+	/**
+	 * Returns the size (in characters) of the messages waiting for the message in flight.
+	 */
+	public long getQueuedSize() {
+		synchronized (this.sendLock) {
+			return this.queuedSize;
+		}
+	}
+
+	/**
+	 * Returns the largest size (in characters) that messages waiting to be sent have reached.
+	 */
+	public long getMaxQueuedSize() {
+		synchronized (this.sendLock) {
+			return this.maxQueuedSize;
+		}
+	}
+
+	/**
+	 * Returns the number of messages sent asynchronously.
+	 */
+	public long getSentMessages() {
+		synchronized (this.sendLock) {
+			return this.sentMessages;
+		}
+	}
+
+	/**
+	 * Returns the number of times pushing updates was postponed because a message was pending.
+	 * <p>
+	 * The updates of a postponed push are rendered together with later changes, in the push
+	 * that follows when all messages have been sent.
+	 */
+	public long getDeferredPushes() {
+		synchronized (this.sendLock) {
+			return this.deferredPushes;
+		}
+	}
+
+	boolean isAsyncPush() {
+		return this.webSession != null
+			&& this.webSession.getController().getConfiguration().isWebSocketAsyncPush();
+	}
+
+	private void send(String message) {
+		synchronized (this.sendLock) {
+			if (this.sending) {
+				this.queued.add(message);
+				this.queuedSize += message.length();
+				this.maxQueuedSize = Math.max(this.maxQueuedSize, this.queuedSize);
+				return;
+			}
+			this.sending = true;
+		}
+
+		sendAsync(message);
+	}
+
+	private void sendAsync(String message) {
+		this.socketSession.getAsyncRemote().sendText(message, new SendHandler() {
+			@Override
+			public void onResult(SendResult result) {
+				if (!result.isOK())
+					logger.info("Error sending web socket message", result.getException());
+
+				String next = null;
+				boolean push = false;
+				synchronized (sendLock) {
+					++sentMessages;
+					next = queued.poll();
+					if (next != null) {
+						queuedSize -= next.length();
+					} else {
+						sending = false;
+						push = pushDeferred;
+						pushDeferred = false;
+					}
+				}
+
+				if (next != null)
+					sendAsync(next);
+				else if (push)
+					retryPush();
+			}
+		});
+	}
+
+	void retryPush() {
+		final WebSession session = this.webSession;
+		session.queueEvent(new ApplicationEvent(session.getSessionId(), new Runnable() {
+			@Override
+			public void run() {
+				session.setTriggerUpdate(true);
+			}
+		}));
+		WebSession.Handler handler = null;
+		try {
+			handler = new WebSession.Handler(session, WebSession.Handler.LockOption.TryLock);
+		} finally {
+			handler.release();
+		}
+	}
+
 	/**
 	 * Set the web session in order to push updates on flush
 	 * @param webSession the associated web session
@@ -8,16 +8,19 @@ package eu.webtoolkit.jwt;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
@@ -37,7 +40,6 @@ import eu.webtoolkit.jwt.servlet.WebRequest;
 import eu.webtoolkit.jwt.servlet.WebRequest.ProgressListener;
 import eu.webtoolkit.jwt.servlet.WebResponse;
 import eu.webtoolkit.jwt.utils.MathUtils;
-import eu.webtoolkit.jwt.utils.StreamUtils;
 
 /**
  * The abstract JWt servlet class.
@@ -84,15 +86,65 @@ public abstract class WtServlet extends HttpServlet {
 	private Configuration configuration;
 	private ProgressListener progressListener;
 	private Set<String> uploadProgressUrls_ = new HashSet<String>();
-	private int ajaxSessions = 0;
-	private Map<String,WebSession> sessions = new HashMap<String,WebSession>();
+	private final LongAdder sessionCount = new LongAdder();
+	private final LongAdder ajaxSessionCount = new LongAdder();
+	private final Map<String,WebSession> sessions = new ConcurrentHashMap<String,WebSession>();
 
 	private String redirectSecret_;
 
 	private static final String WT_WEBSESSION_ID = "wt-websession";
-	private static final Map<String, String> mimeTypes = new HashMap<String, String>();
+	private final ResourcesCache resourcesCache = new ResourcesCache();
 
-	private List<WResource> staticResources = new ArrayList<WResource>();
+	/*
+	 * Static resources, indexed by path: absolute paths (starting with '/') are matched
+	 * against the full request path, other paths against the part following the script name.
+	 */
+	private final StaticResourceIndex absoluteStaticResources = new StaticResourceIndex();
+	private final StaticResourceIndex relativeStaticResources = new StaticResourceIndex();
+
+	/*
+	 * Resources are found with a hash lookup of the exact path. Paths that end with '/'
+	 * are also kept in a sorted map, in which the longest one that prefixes a request
+	 * path is found by walking down with floorKey().
+	 */
+	static class StaticResourceIndex {
+		private final Map<String, WResource> exact = new ConcurrentHashMap<String, WResource>();
+		private final NavigableMap<String, WResource> prefixes = new ConcurrentSkipListMap<String, WResource>();
+
+		boolean isEmpty() {
+			return exact.isEmpty();
+		}
+
+		boolean add(String path, WResource resource) {
+			if (exact.putIfAbsent(path, resource) != null)
+				return false;
+			if (path.endsWith("/"))
+				prefixes.put(path, resource);
+			return true;
+		}
+
+		WResource find(String path) {
+			WResource result = exact.get(path);
+			if (result != null || prefixes.isEmpty())
+				return result;
+
+			for (String key = prefixes.floorKey(path); key != null; ) {
+				if (path.startsWith(key))
+					return prefixes.get(key);
+
+				/*
+				 * A prefix of path that sorts below key is also a prefix of the part that
+				 * key and path have in common.
+				 */
+				int common = 0;
+				while (common < key.length() && key.charAt(common) == path.charAt(common))
+					++common;
+				key = prefixes.floorKey(path.substring(0, common));
+			}
+
+			return null;
+		}
+	}
 
 	private int idForWebSocket = -1;
 
@@ -119,19 +171,6 @@ public abstract class WtServlet extends HttpServlet {
 		Wt_js = readFile("/eu/webtoolkit/jwt/skeletons/Wt.min.js");
 		Boot_js = readFile("/eu/webtoolkit/jwt/skeletons/Boot.min.js");
 
-		String[][] mimeTypes = {
-				{ "css", "text/css" },
-				{ "gif", "image/gif" },
-				{ "htm", "text/html" },
-				{ "html", "text/html" },
-				{ "jpg", "image/jpeg" },
-				{ "png", "image/png" },
-				{ "js", "text/javascript" }
-			};
-
-		for (String[] s : mimeTypes)
-			WtServlet.mimeTypes.put(s[0], s[1]);
-
 		WObject.seedId(MathUtils.randomInt());
 	}
 
@@ -196,31 +235,16 @@ public abstract class WtServlet extends HttpServlet {
 		addDefaultHeader(response);
 
 		if (pathInfo != null) {
-			String scriptName = WebRequest.computeScriptName(request, configuration);
-
-			String requestPath = scriptName;
-			if (requestPath.endsWith("/") && pathInfo.startsWith("/"))
-				requestPath += pathInfo.substring(1);
-			else
-				requestPath += pathInfo;
-
-			for (WResource staticResource : staticResources) {
-				String staticResourcePath = null;
-				if (!staticResource.getInternalPath().startsWith("/"))
-					staticResourcePath = StringUtils.append(scriptName, '/') + staticResource.getInternalPath();
-				else
-					staticResourcePath = staticResource.getInternalPath();
-
-				if (requestPath.equals(staticResourcePath)) {
-					try {
-						WebRequest webRequest = new WebRequest(request, progressListener, configuration);
-						WebResponse webResponse = new WebResponse(response, webRequest);
-						staticResource.handle(webRequest, webResponse);
-					} catch (IOException e) {
-						logger.info("IOException handling {}", pathInfo);
-					}
-					return;
+			WResource staticResource = findStaticResource(request, pathInfo);
+			if (staticResource != null) {
+				try {
+					WebRequest webRequest = new WebRequest(request, progressListener, configuration);
+					WebResponse webResponse = new WebResponse(response, webRequest);
+					staticResource.handle(webRequest, webResponse);
+				} catch (IOException e) {
+					logger.info("IOException handling {}", pathInfo);
 				}
+				return;
 			}
 		}
 
@@ -237,19 +261,7 @@ public abstract class WtServlet extends HttpServlet {
 
 			fileName += pathInfo;
 			try {
-				InputStream s = getResourceStream(fileName);
-				if (s != null) {
-					String suffix = fileName.substring(fileName.lastIndexOf('.') + 1);
-					String mimeType = mimeTypes.get(suffix);
-					if (mimeType != null)
-						response.setContentType(mimeType);
-					else
-						response.setContentType("application/octet-stream");
-					StreamUtils.copy(s, response.getOutputStream());
-					response.getOutputStream().flush();
-				} else {
-					response.setStatus(404);
-				}
+				resourcesCache.serve(fileName, request, response, configuration.getResourcesCacheControl());
 			} catch (FileNotFoundException e) {
 				response.setStatus(404);
 				logger.info("File not found: {}", fileName, e);
@@ -267,6 +279,28 @@ public abstract class WtServlet extends HttpServlet {
 		servletApi.doHandleRequest(this, webRequest, webResponse);
 	}
 
+	private WResource findStaticResource(final HttpServletRequest request, String pathInfo) {
+		if (absoluteStaticResources.isEmpty() && relativeStaticResources.isEmpty())
+			return null;
+
+		String scriptName = WebRequest.computeScriptName(request, configuration);
+
+		String requestPath = scriptName;
+		if (requestPath.endsWith("/") && pathInfo.startsWith("/"))
+			requestPath += pathInfo.substring(1);
+		else
+			requestPath += pathInfo;
+
+		WResource result = absoluteStaticResources.find(requestPath);
+		if (result == null && !relativeStaticResources.isEmpty()) {
+			String prefix = StringUtils.append(scriptName, '/');
+			if (requestPath.startsWith(prefix))
+				result = relativeStaticResources.find(requestPath.substring(prefix.length()));
+		}
+
+		return result;
+	}
+
 	/**
 	 * Implement the GET request.
 	 */
@@ -318,29 +352,45 @@ public abstract class WtServlet extends HttpServlet {
 	 */
 	public abstract WApplication createApplication(WEnvironment env);
 
-	synchronized int addSession(WebSession session) {
-		sessions.put(session.getSessionId(), session);
-		return sessions.size();
+	int addSession(WebSession session) {
+		if (sessions.put(session.getSessionId(), session) == null)
+			sessionCount.increment();
+		return getSessionCount();
 	}
 
-	synchronized void newAjaxSession() {
-		++ajaxSessions;
+	void newAjaxSession() {
+		ajaxSessionCount.increment();
 	}
 
-	synchronized int removeSession(WebSession session) {
-		if (session.getEnv().hasAjax())
-			--ajaxSessions;
-		sessions.remove(session.getSessionId());
-		return sessions.size();
+	int removeSession(WebSession session) {
+		if (sessions.remove(session.getSessionId(), session)) {
+			sessionCount.decrement();
+			if (session.getEnv().hasAjax())
+				ajaxSessionCount.decrement();
+		}
+		return getSessionCount();
 	}
 
-
-	synchronized void removeSession(String sessionId) {
-		WebSession session = sessions.get(sessionId);
+	void removeSession(String sessionId) {
+		WebSession session = getSession(sessionId);
 		if (session != null)
 			removeSession(session);
 	}
 
+	/**
+	 * Returns the number of active sessions.
+	 */
+	public int getSessionCount() {
+		return sessionCount.intValue();
+	}
+
+	/**
+	 * Returns the number of active sessions that use Ajax.
+	 */
+	public int getAjaxSessionCount() {
+		return ajaxSessionCount.intValue();
+	}
+
 	/*
 	 * Actual request handling, may be within an async call depending on the servlet API.
 	 */
@@ -512,14 +562,47 @@ public abstract class WtServlet extends HttpServlet {
 	 * @param function the task to be run
 	 */
 	public void postAll(Runnable function) {
-		for (WebSession session : sessions.values()) {
-			session.queueEvent(new ApplicationEvent(session.getSessionId(), function));
-			WebSession.Handler handler = null;
-			try {
-				handler = new WebSession.Handler(session, WebSession.Handler.LockOption.TryLock);
-			} finally {
-				handler.release();
-			}
+		for (WebSession session : sessions.values())
+			postToSession(session, function);
+	}
+
+	/**
+	 * Posts a task to be run within the scope of all currently active sessions, using an executor.
+	 * <p>
+	 * The currently active sessions are split in batches of <code>batchSize</code> sessions, and
+	 * each batch is posted by a task that is submitted to the executor, instead of on the calling
+	 * thread. A bounded executor thus bounds the number of threads that concurrently run
+	 * the task for sessions that are not locked.
+	 *
+	 * @see #postAll(Runnable)
+	 * @param function the task to be run
+	 * @param executor the executor that posts the batches
+	 * @param batchSize the number of sessions per batch
+	 */
+	public void postAll(final Runnable function, Executor executor, int batchSize) {
+		if (batchSize < 1)
+			throw new IllegalArgumentException("postAll(): batchSize must be positive");
+
+		final List<WebSession> all = new ArrayList<WebSession>(sessions.values());
+		for (int i = 0; i < all.size(); i += batchSize) {
+			final List<WebSession> batch = all.subList(i, Math.min(i + batchSize, all.size()));
+			executor.execute(new Runnable() {
+				@Override
+				public void run() {
+					for (WebSession session : batch)
+						postToSession(session, function);
+				}
+			});
+		}
+	}
+
+	private void postToSession(WebSession session, Runnable function) {
+		session.queueEvent(new ApplicationEvent(session.getSessionId(), function));
+		WebSession.Handler handler = null;
+		try {
+			handler = new WebSession.Handler(session, WebSession.Handler.LockOption.TryLock);
+		} finally {
+			handler.release();
 		}
 	}
 
@@ -535,10 +618,6 @@ public abstract class WtServlet extends HttpServlet {
 			return result;
 	}
 
-	private InputStream getResourceStream(final String fileName) throws IOException {
-		return FileUtils.getResourceAsStream("/eu/webtoolkit/jwt/" + fileName);
-	}
-
 	private static String readFile(final String fileName) {
 		return FileUtils.resourceToString(fileName);
 	}
@@ -568,18 +647,19 @@ public abstract class WtServlet extends HttpServlet {
 	 * Resources may either be private to a single session or public. Use this method to add a public resource with a fixed path.
 	 * When the path contains the application context's path, the path should start with a '/',
 	 * if not the '/' should be omitted.
+	 * <p>
+	 * When the path ends with a '/', the resource also handles all paths below it, unless a
+	 * resource was added for a longer matching path.
 	 */
 	public void addResource(WResource staticResource, String path) {
-		for (WResource sr : staticResources) {
-			if (sr.getInternalPath() != null && sr.getInternalPath().equals(path)) {
-				WString error = new WString(
-						"WtServlet#addResource() error: a static resource was already deployed on path '{1}'");
-				throw new RuntimeException(error.arg(path).toString());
-			}
+		StaticResourceIndex index = path.startsWith("/") ? absoluteStaticResources : relativeStaticResources;
+		if (!index.add(path, staticResource)) {
+			WString error = new WString(
+					"WtServlet#addResource() error: a static resource was already deployed on path '{1}'");
+			throw new RuntimeException(error.arg(path).toString());
 		}
 
 		staticResource.setInternalPath(path);
-		staticResources.add(staticResource);
 	}
 
 	public static WtServlet getInstance() {
@@ -587,7 +667,7 @@ public abstract class WtServlet extends HttpServlet {
 	}
 
 	WebSession getSession(String name) {
-		return sessions.get(name);
+		return name != null ? sessions.get(name) : null;
 	}
 
 	int getIdForWebSocket() {
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import eu.webtoolkit.jwt.*;
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+final class DecimatingSeriesRenderer extends SeriesRenderer {
+  private static Logger logger = LoggerFactory.getLogger(DecimatingSeriesRenderer.class);
+
+  public DecimatingSeriesRenderer(
+      final WCartesianChart chart,
+      final WPainter painter,
+      final WDataSeries series,
+      final SeriesRenderIterator it,
+      SeriesRenderer renderer) {
+    super(chart, painter, series, it);
+    this.renderer_ = renderer;
+    this.decimation_ = series.getDecimation();
+    this.xAxis_ = chart.getXAxis(series.getXAxis());
+    double zoomLength =
+        Math.abs(
+            this.xAxis_.mapToDevice(this.xAxis_.getZoomMaximum())
+                - this.xAxis_.mapToDevice(this.xAxis_.getZoomMinimum()));
+    double zoom = this.xAxis_.fullRenderLength_ / zoomLength;
+    this.zoom_ = zoom > 0 && !Double.isInfinite(zoom) ? zoom : 1.0;
+    this.values_ = new double[VALUES * 64];
+    this.indexes_ = new int[INDEXES * 64];
+    this.size_ = 0;
+    this.nextStart_ = 0;
+    this.bucket_ = 0;
+    this.nextBucket_ = 0;
+    this.hasSelected_ = false;
+    this.selectedPx_ = 0;
+    this.selectedY_ = 0;
+  }
+
+  public void addValue(
+      double x, double y, double stackY, int xRow, int xColumn, int yRow, int yColumn) {
+    double px = this.xAxis_.mapToDevice(x, this.it_.getCurrentXSegment()) * this.zoom_;
+    long bucket = (long) Math.floor(px);
+    if (this.decimation_ == SeriesDecimation.MinMax) {
+      if (this.size_ > 0 && bucket != this.bucket_) {
+        this.flushMinMax();
+      }
+      this.bucket_ = bucket;
+      this.append(x, y, stackY, px, xRow, xColumn, yRow, yColumn);
+      return;
+    }
+    if (!this.hasSelected_) {
+      this.renderer_.addValue(x, y, stackY, xRow, xColumn, yRow, yColumn);
+      this.select(px, y);
+      this.bucket_ = bucket;
+      return;
+    }
+    if (this.size_ == 0 || this.nextStart_ == this.size_ && bucket == this.bucket_) {
+      this.bucket_ = bucket;
+      this.append(x, y, stackY, px, xRow, xColumn, yRow, yColumn);
+      this.nextStart_ = this.size_;
+    } else {
+      if (this.nextStart_ == this.size_ || bucket == this.nextBucket_) {
+        this.nextBucket_ = bucket;
+        this.append(x, y, stackY, px, xRow, xColumn, yRow, yColumn);
+      } else {
+        this.selectCurrent();
+        this.bucket_ = this.nextBucket_;
+        this.nextBucket_ = bucket;
+        this.append(x, y, stackY, px, xRow, xColumn, yRow, yColumn);
+      }
+    }
+  }
+
+  public void addBreak() {
+    this.flush();
+    this.renderer_.addBreak();
+  }
+
+  public void paint() {
+    this.flush();
+    this.renderer_.paint();
+  }
+
+  private static final int VALUES = 4;
+  private static final int INDEXES = 4;
+  private final SeriesRenderer renderer_;
+  private final SeriesDecimation decimation_;
+  private final WAxis xAxis_;
+  private final double zoom_;
+  private double[] values_;
+  private int[] indexes_;
+  private int size_;
+  private int nextStart_;
+  private long bucket_;
+  private long nextBucket_;
+  private boolean hasSelected_;
+  private double selectedPx_;
+  private double selectedY_;
+
+  private void append(
+      double x, double y, double stackY, double px, int xRow, int xColumn, int yRow, int yColumn) {
+    if (this.size_ * VALUES == this.values_.length) {
+      this.values_ = Arrays.copyOf(this.values_, this.values_.length * 2);
+      this.indexes_ = Arrays.copyOf(this.indexes_, this.indexes_.length * 2);
+    }
+    int v = this.size_ * VALUES;
+    this.values_[v] = x;
+    this.values_[v + 1] = y;
+    this.values_[v + 2] = stackY;
+    this.values_[v + 3] = px;
+    int i = this.size_ * INDEXES;
+    this.indexes_[i] = xRow;
+    this.indexes_[i + 1] = xColumn;
+    this.indexes_[i + 2] = yRow;
+    this.indexes_[i + 3] = yColumn;
+    ++this.size_;
+  }
+
+  private void emit(int point) {
+    int v = point * VALUES;
+    int i = point * INDEXES;
+    this.renderer_.addValue(
+        this.values_[v],
+        this.values_[v + 1],
+        this.values_[v + 2],
+        this.indexes_[i],
+        this.indexes_[i + 1],
+        this.indexes_[i + 2],
+        this.indexes_[i + 3]);
+  }
+
+  private double getY(int point) {
+    return this.values_[point * VALUES + 1];
+  }
+
+  private double getPx(int point) {
+    return this.values_[point * VALUES + 3];
+  }
+
+  private void select(double px, double y) {
+    this.hasSelected_ = true;
+    this.selectedPx_ = px;
+    this.selectedY_ = y;
+  }
+
+  private void flushMinMax() {
+    int min = 0;
+    int max = 0;
+    for (int i = 1; i < this.size_; ++i) {
+      if (this.getY(i) < this.getY(min)) {
+        min = i;
+      }
+      if (this.getY(i) > this.getY(max)) {
+        max = i;
+      }
+    }
+    int last = this.size_ - 1;
+    this.emit(0);
+    int first = Math.min(min, max);
+    int second = Math.max(min, max);
+    if (first != 0 && first != last) {
+      this.emit(first);
+    }
+    if (second != first && second != 0 && second != last) {
+      this.emit(second);
+    }
+    if (last != 0) {
+      this.emit(last);
+    }
+    this.size_ = 0;
+  }
+
+  private void selectCurrent() {
+    double avgPx = 0;
+    double avgY = 0;
+    for (int i = this.nextStart_; i < this.size_; ++i) {
+      avgPx += this.getPx(i);
+      avgY += this.getY(i);
+    }
+    avgPx /= this.size_ - this.nextStart_;
+    avgY /= this.size_ - this.nextStart_;
+    int selected = 0;
+    double maxArea = -1;
+    for (int i = 0; i < this.nextStart_; ++i) {
+      double area =
+          Math.abs(
+              (this.selectedPx_ - avgPx) * (this.getY(i) - this.selectedY_)
+                  - (this.selectedPx_ - this.getPx(i)) * (avgY - this.selectedY_));
+      if (area > maxArea) {
+        maxArea = area;
+        selected = i;
+      }
+    }
+    this.emit(selected);
+    this.select(this.getPx(selected), this.getY(selected));
+    int remaining = this.size_ - this.nextStart_;
+    System.arraycopy(this.values_, this.nextStart_ * VALUES, this.values_, 0, remaining * VALUES);
+    System.arraycopy(
+        this.indexes_, this.nextStart_ * INDEXES, this.indexes_, 0, remaining * INDEXES);
+    this.size_ = remaining;
+    this.nextStart_ = remaining;
+  }
+
+  private void flush() {
+    if (this.decimation_ == SeriesDecimation.MinMax) {
+      if (this.size_ > 0) {
+        this.flushMinMax();
+      }
+    } else {
+      if (this.nextStart_ < this.size_) {
+        this.selectCurrent();
+      }
+      if (this.size_ > 0) {
+        this.emit(this.size_ - 1);
+      }
+      this.size_ = 0;
+      this.nextStart_ = 0;
+      this.hasSelected_ = false;
+    }
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import eu.webtoolkit.jwt.*;
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+
+/**
+ * Enumeration that specifies how the points of a data series are decimated.
+ *
+ * <p>When a line or curve series has many more points than the chart has pixels along its X axis,
+ * the series may be decimated while it is rendered. The points are then grouped into buckets of
+ * one device pixel along the X axis (at the current zoom level), and only a few points of each
+ * bucket are drawn.
+ *
+ * <p>
+ *
+ * @see WDataSeries#setDecimation(SeriesDecimation decimation)
+ */
+public enum SeriesDecimation {
+  /** Draw all points. */
+  None,
+  /**
+   * Draw the first, lowest, highest and last point of each bucket.
+   *
+   * <p>This preserves the envelope of the series: peaks and valleys are never lost.
+   */
+  MinMax,
+  /**
+   * Draw one point of each bucket, using the largest-triangle-three-buckets algorithm.
+   *
+   * <p>Of each bucket, the point that forms the largest triangle with the point drawn for the
+   * previous bucket and the average of the next bucket is drawn. This preserves the visual shape of
+   * the series using fewer points than {@link SeriesDecimation#MinMax}.
+   */
+  LargestTriangleThreeBuckets;
+
+  /** Returns the numerical representation of this enum. */
+  public int getValue() {
+    return ordinal();
+  }
+}
@@ -58,6 +58,11 @@ final class SeriesRenderIterator extends SeriesIterator {
       case Line:
       case Curve:
         this.seriesRenderer_ = new LineSeriesRenderer(this.chart_, this.painter_, series, this);
+        if (series.getDecimation() != SeriesDecimation.None) {
+          this.seriesRenderer_ =
+              new DecimatingSeriesRenderer(
+                  this.chart_, this.painter_, series, this, this.seriesRenderer_);
+        }
         break;
       case Bar:
         this.seriesRenderer_ =
@@ -32,6 +32,7 @@ public abstract class WAbstractChartModel extends WObject {
   public WAbstractChartModel() {
     super();
     this.changed_ = new Signal();
+    this.rowsChanged_ = new Signal1<Integer>();
   }
   /**
    * Returns data at a given row and column.
@@ -39,6 +40,20 @@ public abstract class WAbstractChartModel extends WObject {
    * <p>This value determines the position of a data point on the chart.
    */
   public abstract double getData(int row, int column);
+  /**
+   * Returns data of a range of rows in a given column.
+   *
+   * <p>Stores the values of the rows <code>row</code> to <code>row + count - 1</code> in <code>
+   * values</code>, starting at index 0. The chart uses this to read the data of a series in blocks.
+   *
+   * <p>The default implementation calls {@link WAbstractChartModel#getData(int row, int column)
+   * getData()} for every row. Reimplement this method if the data can be copied more efficiently.
+   */
+  public void getColumnData(int column, int row, int count, double[] values) {
+    for (int i = 0; i < count; ++i) {
+      values[i] = this.getData(row + i, column);
+    }
+  }
   /**
    * Returns display data at a given row and column.
    *
@@ -204,6 +219,21 @@ public abstract class WAbstractChartModel extends WObject {
   public Signal changed() {
     return this.changed_;
   }
+  /**
+   * A signal that notifies that a change only affects rows from a given row onwards.
+   *
+   * <p>Implementations may trigger this signal right before {@link WAbstractChartModel#changed()
+   * changed()}, with the first row that was appended or modified, to indicate that the data of the
+   * rows before it did not change. A chart then only needs to scan the changed rows to update the
+   * cached ranges of its axes.
+   *
+   * <p>When {@link WAbstractChartModel#changed() changed()} is triggered without this signal, all
+   * data is considered to have changed.
+   */
+  public Signal1<Integer> rowsChanged() {
+    return this.rowsChanged_;
+  }
 
   private Signal changed_;
+  private Signal1<Integer> rowsChanged_;
 }
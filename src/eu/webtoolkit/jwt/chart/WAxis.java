@@ -121,6 +121,8 @@ public class WAxis {
     this.segments_ = new ArrayList<WAxis.Segment>();
     this.renderInterval_ = 0.0;
     this.fullRenderLength_ = 0.0;
+    this.labelCache_ = new HashMap<Double, String>();
+    this.labelCacheKey_ = null;
     this.titleFont_.setFamily(FontFamily.SansSerif, "Arial");
     this.titleFont_.setSize(new WLength(12, LengthUnit.Point));
     this.labelFont_.setFamily(FontFamily.SansSerif, "Arial");
@@ -934,17 +936,25 @@ public class WAxis {
       }
     } else {
       if (this.scale_ == AxisScale.Date) {
-        WDate d = WDate.fromJulianDay((int) u);
-        WString format = this.getLabelFormat();
-        return new WString(d.toString(format.toString()));
+        String format = this.getLabelFormat().toString();
+        buf = this.getCachedLabel(u, format);
+        if (buf == null) {
+          WDate d = WDate.fromJulianDay((int) u);
+          buf = this.cacheLabel(u, d.toString(format));
+        }
+        return new WString(buf);
       } else {
         String format = this.getLabelFormat().toString();
-        if (format.length() == 0) {
-          text = new WString(LocaleUtils.toString(LocaleUtils.getCurrentLocale(), u));
-        } else {
-          buf = String.format(format, u);
-          text = new WString(buf);
+        buf = this.getCachedLabel(u, format);
+        if (buf == null) {
+          if (format.length() == 0) {
+            buf = LocaleUtils.toString(LocaleUtils.getCurrentLocale(), u);
+          } else {
+            buf = String.format(format, u);
+          }
+          this.cacheLabel(u, buf);
         }
+        text = new WString(buf);
       }
     }
     return text;
@@ -2468,7 +2478,12 @@ public class WAxis {
                                     this.getLabelTransform(config.side)
                                         .apply((double) dt.getDate().getTime() / 1000)));
               }
-              text = new WString(transformedDt.toString(format.toString()));
+              double time = (double) transformedDt.getDate().getTime();
+              String label = this.getCachedLabel(time, format.toString());
+              if (label == null) {
+                label = this.cacheLabel(time, transformedDt.toString(format.toString()));
+              }
+              text = new WString(label);
             }
             if (dl >= s.renderMinimum) {
               ticks.add(
@@ -2624,6 +2639,22 @@ public class WAxis {
   List<WAxis.Segment> segments_;
   double renderInterval_;
   double fullRenderLength_;
+  private Map<Double, String> labelCache_;
+  private String labelCacheKey_;
+
+  private String getCachedLabel(double u, final String format) {
+    String key = this.scale_ + "/" + LocaleUtils.getCurrentLocale() + "/" + format;
+    if (!key.equals(this.labelCacheKey_) || this.labelCache_.size() >= LABEL_CACHE_SIZE) {
+      this.labelCache_.clear();
+      this.labelCacheKey_ = key;
+    }
+    return this.labelCache_.get(u);
+  }
+
+  private String cacheLabel(double u, final String label) {
+    this.labelCache_.put(u, label);
+    return label;
+  }
 
   void init(WAbstractChartImplementation chart, Axis axis) {
     this.chart_ = chart;
@@ -3084,6 +3115,7 @@ public class WAxis {
   }
 
   private static double EPSILON = 1E-3;
+  private static final int LABEL_CACHE_SIZE = 1000;
   private static final int AUTO_V_LABEL_PIXELS = 25;
   private static final int AUTO_H_LABEL_PIXELS = 80;
 
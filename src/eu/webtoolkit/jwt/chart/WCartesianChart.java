@@ -2355,29 +2355,32 @@ public class WCartesianChart extends WAbstractChart {
 
   public void iterateSeries(
       SeriesIterator iterator, WPainter painter, boolean reverseStacked, boolean extremesOnly) {
+    this.iterateSeries(iterator, painter, reverseStacked, extremesOnly, null);
+  }
+
+  void iterateSeries(
+      SeriesIterator iterator,
+      WPainter painter,
+      boolean reverseStacked,
+      boolean extremesOnly,
+      final Map<WAbstractChartModel, Integer> startRows) {
     double groupWidth = 0.0;
     int numBarGroups;
     int currentBarGroup;
     int rowCount = this.getModel() != null ? this.getModel().getRowCount() : 0;
-    List<Double> posStackedValuesInit = new ArrayList<Double>();
-    List<Double> minStackedValuesInit = new ArrayList<Double>();
     final boolean scatterPlot = this.type_ == ChartType.Scatter;
+    double[] posStackedValuesInit = new double[scatterPlot ? 0 : rowCount];
+    double[] minStackedValuesInit = new double[scatterPlot ? 0 : rowCount];
+    double[] posStackedValues = new double[posStackedValuesInit.length];
+    double[] minStackedValues = new double[minStackedValuesInit.length];
+    double[] xValues = new double[ROW_BLOCK_SIZE];
+    double[] yValues = new double[ROW_BLOCK_SIZE];
     if (scatterPlot) {
       numBarGroups = 1;
       currentBarGroup = 0;
     } else {
       numBarGroups = this.getCalcNumBarGroups();
       currentBarGroup = 0;
-      {
-        int insertPos = 0;
-        for (int ii = 0; ii < (rowCount); ++ii) posStackedValuesInit.add(insertPos + ii, 0.0);
-      }
-      ;
-      {
-        int insertPos = 0;
-        for (int ii = 0; ii < (rowCount); ++ii) minStackedValuesInit.add(insertPos + ii, 0.0);
-      }
-      ;
     }
     boolean containsBars = false;
     for (int g = 0; g < this.series_.size(); ++g) {
@@ -2401,9 +2404,8 @@ public class WCartesianChart extends WAbstractChart {
         startSeries = endSeries = g;
       } else {
         if (this.series_.get(g).getModel() == this.getModel()) {
-          for (int i = 0; i < rowCount; ++i) {
-            posStackedValuesInit.set(i, minStackedValuesInit.set(i, 0.0));
-          }
+          Arrays.fill(posStackedValuesInit, 0.0);
+          Arrays.fill(minStackedValuesInit, 0.0);
           if (reverseStacked) {
             endSeries = g;
             int xAxis = this.series_.get(g).getXAxis();
@@ -2416,15 +2418,19 @@ public class WCartesianChart extends WAbstractChart {
                 if (this.series_.get(g).getType() == SeriesType.Bar) {
                   containsBars = true;
                 }
-                for (int row = 0; row < rowCount; ++row) {
-                  double y =
-                      StringUtils.asNumber(
-                          this.getModel().getData(row, this.series_.get(g).getModelColumn()));
-                  if (!Double.isNaN(y)) {
-                    if (y > 0) {
-                      posStackedValuesInit.set(row, posStackedValuesInit.get(row) + y);
-                    } else {
-                      minStackedValuesInit.set(row, minStackedValuesInit.get(row) + y);
+                for (int blockStart = 0; blockStart < rowCount; blockStart += ROW_BLOCK_SIZE) {
+                  int blockSize = Math.min(ROW_BLOCK_SIZE, rowCount - blockStart);
+                  this.getModel()
+                      .getColumnData(
+                          this.series_.get(g).getModelColumn(), blockStart, blockSize, yValues);
+                  for (int row = blockStart; row < blockStart + blockSize; ++row) {
+                    double y = yValues[row - blockStart];
+                    if (!Double.isNaN(y)) {
+                      if (y > 0) {
+                        posStackedValuesInit[row] += y;
+                      } else {
+                        minStackedValuesInit[row] += y;
+                      }
                     }
                   }
                 }
@@ -2473,8 +2479,6 @@ public class WCartesianChart extends WAbstractChart {
                 && this.series_.get(i).getYAxis() < this.getYAxisCount()
                 && iterator.startSeries(
                     this.series_.get(i), groupWidth, numBarGroups, currentBarGroup);
-        List<Double> posStackedValues = new ArrayList<Double>();
-        List<Double> minStackedValues = new ArrayList<Double>();
         if (doSeries || !scatterPlot && i != endSeries) {
           for (int currentXSegment = 0;
               currentXSegment < this.getXAxis(this.series_.get(i).getXAxis()).getSegmentCount();
@@ -2482,10 +2486,10 @@ public class WCartesianChart extends WAbstractChart {
             for (int currentYSegment = 0;
                 currentYSegment < this.getYAxis(this.series_.get(i).getYAxis()).getSegmentCount();
                 ++currentYSegment) {
-              posStackedValues.clear();
-              posStackedValues.addAll(posStackedValuesInit);
-              minStackedValues.clear();
-              minStackedValues.addAll(minStackedValuesInit);
+              System.arraycopy(
+                  posStackedValuesInit, 0, posStackedValues, 0, posStackedValues.length);
+              System.arraycopy(
+                  minStackedValuesInit, 0, minStackedValues, 0, minStackedValues.length);
               if (painter != null) {
                 WRectF csa =
                     this.chartSegmentArea(
@@ -2547,28 +2551,42 @@ public class WCartesianChart extends WAbstractChart {
                           endRow);
                 }
               }
+              if (startRows != null && startRows.containsKey(this.series_.get(i).getModel())) {
+                startRow = Math.max(startRow, startRows.get(this.series_.get(i).getModel()));
+              }
+              int seriesXColumn = -1;
+              if (scatterPlot) {
+                seriesXColumn = this.series_.get(i).XSeriesColumn();
+                if (seriesXColumn == -1) {
+                  seriesXColumn = this.XSeriesColumn();
+                }
+              }
+              int seriesYColumn = this.series_.get(i).getModelColumn();
+              int blockStart = startRow;
+              int blockEnd = startRow;
               for (int row = startRow; row < endRow; ++row) {
+                if (row >= blockEnd) {
+                  blockStart = row;
+                  blockEnd = Math.min(endRow, row + ROW_BLOCK_SIZE);
+                  final WAbstractChartModel model = this.series_.get(i).getModel();
+                  if (seriesXColumn != -1) {
+                    model.getColumnData(seriesXColumn, blockStart, blockEnd - blockStart, xValues);
+                  }
+                  model.getColumnData(seriesYColumn, blockStart, blockEnd - blockStart, yValues);
+                }
                 int[] xIndex = {-1, -1};
                 int[] yIndex = {-1, -1};
                 double x;
-                if (scatterPlot) {
-                  int c = this.series_.get(i).XSeriesColumn();
-                  if (c == -1) {
-                    c = this.XSeriesColumn();
-                  }
-                  if (c != -1) {
-                    xIndex[0] = row;
-                    xIndex[1] = c;
-                    x = this.series_.get(i).getModel().getData(xIndex[0], xIndex[1]);
-                  } else {
-                    x = row;
-                  }
+                if (seriesXColumn != -1) {
+                  xIndex[0] = row;
+                  xIndex[1] = seriesXColumn;
+                  x = xValues[row - blockStart];
                 } else {
                   x = row;
                 }
                 yIndex[0] = row;
-                yIndex[1] = this.series_.get(i).getModelColumn();
-                double y = this.series_.get(i).getModel().getData(yIndex[0], yIndex[1]);
+                yIndex[1] = seriesYColumn;
+                double y = yValues[row - blockStart];
                 if (scatterPlot) {
                   iterator.newValue(
                       this.series_.get(i), x, y, 0, xIndex[0], xIndex[1], yIndex[0], yIndex[1]);
@@ -2578,9 +2596,9 @@ public class WCartesianChart extends WAbstractChart {
                   boolean hasValue = !Double.isNaN(y);
                   if (hasValue) {
                     if (y > 0) {
-                      prevStack = nextStack = posStackedValues.get(row);
+                      prevStack = nextStack = posStackedValues[row];
                     } else {
-                      prevStack = nextStack = minStackedValues.get(row);
+                      prevStack = nextStack = minStackedValues[row];
                     }
                     if (reverseStacked) {
                       nextStack -= y;
@@ -2588,9 +2606,9 @@ public class WCartesianChart extends WAbstractChart {
                       nextStack += y;
                     }
                     if (y > 0) {
-                      posStackedValues.set(row, nextStack);
+                      posStackedValues[row] = nextStack;
                     } else {
-                      minStackedValues.set(row, nextStack);
+                      minStackedValues[row] = nextStack;
                     }
                   }
                   if (doSeries) {
@@ -2627,10 +2645,10 @@ public class WCartesianChart extends WAbstractChart {
               }
             }
           }
-          posStackedValuesInit.clear();
-          posStackedValuesInit.addAll(posStackedValues);
-          minStackedValuesInit.clear();
-          minStackedValuesInit.addAll(minStackedValues);
+          System.arraycopy(
+              posStackedValues, 0, posStackedValuesInit, 0, posStackedValuesInit.length);
+          System.arraycopy(
+              minStackedValues, 0, minStackedValuesInit, 0, minStackedValuesInit.length);
         }
         if (doSeries) {
           iterator.endSeries();
@@ -3048,7 +3066,9 @@ public class WCartesianChart extends WAbstractChart {
         }
       }
       for (int i = 0; i < this.getXAxisCount(); ++i) {
-        if ((this.getXAxis(i).zoomRangeChanged().isConnected() || this.isOnDemandLoadingEnabled())
+        if ((this.getXAxis(i).zoomRangeChanged().isConnected()
+                || this.isOnDemandLoadingEnabled()
+                || this.hasDecimatedSeries(i))
             && !this.xAxes_.get(i).transformChanged.isConnected()) {
           final int axis = i;
           this.xAxes_
@@ -5593,7 +5613,7 @@ public class WCartesianChart extends WAbstractChart {
   }
 
   private void xTransformChanged(int xAxis) {
-    if (this.isOnDemandLoadingEnabled()) {
+    if (this.isOnDemandLoadingEnabled() || this.hasDecimatedSeries(xAxis)) {
       this.update();
     }
     this.getXAxis(xAxis)
@@ -5601,6 +5621,16 @@ public class WCartesianChart extends WAbstractChart {
         .trigger(this.getXAxis(xAxis).getZoomMinimum(), this.getXAxis(xAxis).getZoomMaximum());
   }
 
+  private boolean hasDecimatedSeries(int xAxis) {
+    for (int i = 0; i < this.series_.size(); ++i) {
+      if (this.series_.get(i).getXAxis() == xAxis
+          && this.series_.get(i).getDecimation() != SeriesDecimation.None) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   private void yTransformChanged(int yAxis) {
     if (this.isOnDemandLoadingEnabled()) {
       this.update();
@@ -5961,7 +5991,7 @@ public class WCartesianChart extends WAbstractChart {
     }
   }
 
-  private boolean axisSliderWidgetForSeries(WDataSeries series) {
+  boolean axisSliderWidgetForSeries(WDataSeries series) {
     for (int i = 0; i < this.axisSliderWidgets_.size(); ++i) {
       if (this.axisSliderWidgets_.get(i).getSeries() == series) {
         return true;
@@ -6057,6 +6087,7 @@ public class WCartesianChart extends WAbstractChart {
   private static final int CURVE_LABEL_PADDING = 10;
   private static final int DEFAULT_CURVE_LABEL_WIDTH = 100;
   private static final int CURVE_SELECTION_DISTANCE_SQUARED = 400;
+  private static final int ROW_BLOCK_SIZE = 1024;
 
   static int toZoomLevel(double zoomFactor) {
     return (int) Math.floor(Math.log(zoomFactor) / Math.log(2.0) + 0.5) + 1;
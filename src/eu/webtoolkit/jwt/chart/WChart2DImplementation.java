@@ -26,6 +26,10 @@ class WChart2DImplementation implements WAbstractChartImplementation {
   public WChart2DImplementation(WCartesianChart chart) {
     super();
     this.chart_ = chart;
+    this.extremesConfiguration_ = null;
+    this.extremes_ = new HashMap<String, WChart2DImplementation.CachedRange>();
+    this.changedFrom_ = new HashMap<WAbstractChartModel, Integer>();
+    this.modelConnections_ = new HashMap<WAbstractChartModel, List<AbstractSignal.Connection>>();
   }
 
   public ChartType getChartType() {
@@ -62,11 +66,39 @@ class WChart2DImplementation implements WAbstractChartImplementation {
 
   public WAbstractChartImplementation.RenderRange computeRenderRange(
       Axis axis, int xAxis, int yAxis, AxisScale scale) {
-    ExtremesIterator iterator = new ExtremesIterator(axis, xAxis, yAxis, scale);
-    this.chart_.iterateSeries(iterator, (WPainter) null, false, axis == Axis.X);
+    List<Object> configuration = this.getExtremesConfiguration();
+    if (!configuration.equals(this.extremesConfiguration_)) {
+      this.clearExtremes();
+      this.extremesConfiguration_ = configuration;
+    }
+    Map<WAbstractChartModel, Integer> rowCounts = this.getRowCounts();
+    String key = axis + "/" + xAxis + "/" + yAxis + "/" + scale;
+    WChart2DImplementation.CachedRange cached = this.extremes_.get(key);
+    if (cached != null) {
+      for (Map.Entry<WAbstractChartModel, Integer> i : rowCounts.entrySet()) {
+        Integer rows = cached.rowCounts.get(i.getKey());
+        if (rows == null || rows > i.getValue()) {
+          cached = null;
+          break;
+        }
+      }
+    }
+    if (cached == null || !cached.rowCounts.equals(rowCounts)) {
+      ExtremesIterator iterator = new ExtremesIterator(axis, xAxis, yAxis, scale);
+      this.chart_.iterateSeries(
+          iterator, (WPainter) null, false, axis == Axis.X, cached != null ? cached.rowCounts : null);
+      double minimum = iterator.getMinimum();
+      double maximum = iterator.getMaximum();
+      if (cached != null) {
+        minimum = Math.min(minimum, cached.minimum);
+        maximum = Math.max(maximum, cached.maximum);
+      }
+      cached = new WChart2DImplementation.CachedRange(minimum, maximum, rowCounts);
+      this.extremes_.put(key, cached);
+    }
     WAbstractChartImplementation.RenderRange range = new WAbstractChartImplementation.RenderRange();
-    range.minimum = iterator.getMinimum();
-    range.maximum = iterator.getMaximum();
+    range.minimum = cached.minimum;
+    range.maximum = cached.maximum;
     return range;
   }
 
@@ -78,5 +110,112 @@ class WChart2DImplementation implements WAbstractChartImplementation {
     this.chart_.update();
   }
 
+  static class CachedRange {
+    private static Logger logger = LoggerFactory.getLogger(CachedRange.class);
+
+    public CachedRange(
+        double minimum, double maximum, final Map<WAbstractChartModel, Integer> rowCounts) {
+      this.minimum = minimum;
+      this.maximum = maximum;
+      this.rowCounts = rowCounts;
+    }
+
+    public double minimum;
+    public double maximum;
+    public Map<WAbstractChartModel, Integer> rowCounts;
+  }
+
   private WCartesianChart chart_;
+  private List<Object> extremesConfiguration_;
+  private Map<String, WChart2DImplementation.CachedRange> extremes_;
+  private Map<WAbstractChartModel, Integer> changedFrom_;
+  private Map<WAbstractChartModel, List<AbstractSignal.Connection>> modelConnections_;
+
+  private List<Object> getExtremesConfiguration() {
+    List<Object> result = new ArrayList<Object>();
+    result.add(this.chart_.getType());
+    result.add(this.chart_.XSeriesColumn());
+    result.add(this.chart_.isInteractive() && this.chart_.isOnDemandLoadingEnabled());
+    if (this.chart_.isInteractive() && this.chart_.isOnDemandLoadingEnabled()) {
+      for (int i = 0; i < this.chart_.getXAxisCount(); ++i) {
+        result.add(this.chart_.getXAxis(i).getZoomMinimum());
+        result.add(this.chart_.getXAxis(i).getZoomMaximum());
+      }
+    }
+    for (WDataSeries series : this.chart_.getSeries()) {
+      result.add(series.getModel());
+      result.add(series.getModelColumn());
+      result.add(series.XSeriesColumn());
+      result.add(series.getXAxis());
+      result.add(series.getYAxis());
+      result.add(series.getType());
+      result.add(series.isStacked());
+      result.add(series.isHidden());
+      result.add(this.chart_.axisSliderWidgetForSeries(series));
+    }
+    return result;
+  }
+
+  private Map<WAbstractChartModel, Integer> getRowCounts() {
+    Map<WAbstractChartModel, Integer> result = new HashMap<WAbstractChartModel, Integer>();
+    for (WDataSeries series : this.chart_.getSeries()) {
+      final WAbstractChartModel model = series.getModel();
+      if (model != null && !result.containsKey(model)) {
+        result.put(model, model.getRowCount());
+        if (!this.modelConnections_.containsKey(model)) {
+          this.connectModel(model);
+        }
+      }
+    }
+    return result;
+  }
+
+  private void connectModel(final WAbstractChartModel model) {
+    List<AbstractSignal.Connection> connections = new ArrayList<AbstractSignal.Connection>();
+    connections.add(
+        model
+            .rowsChanged()
+            .addListener(
+                this.chart_,
+                (Integer e1) -> {
+                  WChart2DImplementation.this.modelRowsChanged(model, e1);
+                }));
+    connections.add(
+        model
+            .changed()
+            .addListener(
+                this.chart_,
+                () -> {
+                  WChart2DImplementation.this.modelChanged(model);
+                }));
+    this.modelConnections_.put(model, connections);
+  }
+
+  private void clearExtremes() {
+    for (List<AbstractSignal.Connection> connections : this.modelConnections_.values()) {
+      for (AbstractSignal.Connection connection : connections) {
+        connection.disconnect();
+      }
+    }
+    this.modelConnections_.clear();
+    this.changedFrom_.clear();
+    this.extremes_.clear();
+  }
+
+  private void modelRowsChanged(WAbstractChartModel model, int row) {
+    Integer from = this.changedFrom_.get(model);
+    this.changedFrom_.put(model, from != null ? Math.min(from, row) : row);
+  }
+
+  private void modelChanged(WAbstractChartModel model) {
+    Integer from = this.changedFrom_.remove(model);
+    int firstChangedRow = from != null ? from : 0;
+    for (Iterator<WChart2DImplementation.CachedRange> i = this.extremes_.values().iterator();
+        i.hasNext(); ) {
+      Integer rows = i.next().rowCounts.get(model);
+      if (rows != null && rows > firstChangedRow) {
+        i.remove();
+      }
+    }
+  }
 }
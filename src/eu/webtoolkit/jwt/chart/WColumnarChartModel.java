@@ -0,0 +1,228 @@
+/*
+ * Copyright (C) 2020 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.chart;
+
+import eu.webtoolkit.jwt.*;
+import eu.webtoolkit.jwt.auth.*;
+import eu.webtoolkit.jwt.auth.mfa.*;
+import eu.webtoolkit.jwt.servlet.*;
+import eu.webtoolkit.jwt.utils.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.time.*;
+import java.util.*;
+import java.util.regex.*;
+import javax.servlet.*;
+import javax.servlet.http.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link WAbstractChartModel} that stores its data in columns of doubles.
+ *
+ * <p>Every column is stored in a primitive <code>double[]</code> array, so that a chart can read the
+ * data of a series without boxing, using {@link WColumnarChartModel#getColumnData(int column, int
+ * row, int count, double[] values) getColumnData()}.
+ *
+ * <p>The model is intended for streaming data: rows are added at the end using {@link
+ * WColumnarChartModel#appendRow(double[] values) appendRow()} or {@link
+ * WColumnarChartModel#appendRows(double[][] columns) appendRows()}. When a {@link
+ * WColumnarChartModel#setMaximumRowCount(int rows) maximum row count} is set, the columns are kept
+ * in a ring buffer, and appending rows discards the oldest rows once the maximum is reached.
+ *
+ * <p>Every change to the model triggers the {@link WAbstractChartModel#changed()} signal. To avoid
+ * updating the chart for every row, append rows in blocks.
+ */
+public class WColumnarChartModel extends WAbstractChartModel {
+  private static Logger logger = LoggerFactory.getLogger(WColumnarChartModel.class);
+
+  /** Creates a new model with the given number of columns. */
+  public WColumnarChartModel(int columnCount) {
+    super();
+    this.columns_ = new double[columnCount][0];
+    this.headers_ = new WString[columnCount];
+    this.capacity_ = 0;
+    this.start_ = 0;
+    this.rowCount_ = 0;
+    this.maximumRowCount_ = -1;
+  }
+  /**
+   * Sets the maximum number of rows.
+   *
+   * <p>When appending rows would exceed this number, the oldest rows are discarded. A value of -1
+   * means that the number of rows is not limited.
+   *
+   * <p>The default value is -1.
+   */
+  public void setMaximumRowCount(int rows) {
+    this.maximumRowCount_ = rows < 0 ? -1 : rows;
+    if (this.maximumRowCount_ != -1 && this.rowCount_ > this.maximumRowCount_) {
+      this.discardRows(this.rowCount_ - this.maximumRowCount_);
+      this.changed().trigger();
+    }
+  }
+  /**
+   * Returns the maximum number of rows.
+   *
+   * <p>
+   *
+   * @see WColumnarChartModel#setMaximumRowCount(int rows)
+   */
+  public int getMaximumRowCount() {
+    return this.maximumRowCount_;
+  }
+  /**
+   * Appends a row.
+   *
+   * <p>The <code>values</code> are the values of the new row, one for every column.
+   */
+  public void appendRow(double... values) {
+    if (values.length != this.columns_.length) {
+      throw new IllegalArgumentException("WColumnarChartModel: expected one value per column");
+    }
+    if (this.maximumRowCount_ == 0) {
+      return;
+    }
+    this.reserve(this.rowCount_ + 1);
+    int p = this.physicalRow(this.rowCount_);
+    for (int c = 0; c < this.columns_.length; ++c) {
+      this.columns_[c][p] = values[c];
+    }
+    this.added(1);
+  }
+  /**
+   * Appends a block of rows.
+   *
+   * <p>The <code>columns</code> contain the values of the new rows, one array for every column. All
+   * arrays should have the same length.
+   */
+  public void appendRows(double[]... columns) {
+    if (columns.length != this.columns_.length) {
+      throw new IllegalArgumentException("WColumnarChartModel: expected one array per column");
+    }
+    int count = columns.length > 0 ? columns[0].length : 0;
+    for (int c = 0; c < columns.length; ++c) {
+      if (columns[c].length != count) {
+        throw new IllegalArgumentException("WColumnarChartModel: column arrays differ in length");
+      }
+    }
+    if (count == 0) {
+      return;
+    }
+    int skip = 0;
+    if (this.maximumRowCount_ != -1 && count > this.maximumRowCount_) {
+      skip = count - this.maximumRowCount_;
+      this.rowCount_ = 0;
+      this.start_ = 0;
+    }
+    int n = count - skip;
+    this.reserve(this.rowCount_ + n);
+    int p = this.physicalRow(this.rowCount_);
+    int first = Math.min(n, this.capacity_ - p);
+    for (int c = 0; c < this.columns_.length; ++c) {
+      System.arraycopy(columns[c], skip, this.columns_[c], p, first);
+      System.arraycopy(columns[c], skip + first, this.columns_[c], 0, n - first);
+    }
+    this.added(n);
+  }
+  /** Removes all rows. */
+  public void clear() {
+    this.start_ = 0;
+    this.rowCount_ = 0;
+    this.changed().trigger();
+  }
+  /** Sets the value at a given row and column. */
+  public void setData(int row, int column, double value) {
+    this.columns_[column][this.physicalRow(row)] = value;
+    this.rowsChanged().trigger(row);
+    this.changed().trigger();
+  }
+  /**
+   * Sets the header data of a column.
+   *
+   * <p>
+   *
+   * @see WAbstractChartModel#getHeaderData(int column)
+   */
+  public void setHeaderData(int column, final CharSequence header) {
+    this.headers_[column] = WString.toWString(header);
+    this.changed().trigger();
+  }
+
+  public double getData(int row, int column) {
+    return this.columns_[column][this.physicalRow(row)];
+  }
+
+  public void getColumnData(int column, int row, int count, double[] values) {
+    double[] data = this.columns_[column];
+    int p = this.physicalRow(row);
+    int first = Math.min(count, this.capacity_ - p);
+    System.arraycopy(data, p, values, 0, first);
+    System.arraycopy(data, 0, values, first, count - first);
+  }
+
+  public WString getHeaderData(int column) {
+    WString header = this.headers_[column];
+    return header != null ? header : new WString();
+  }
+
+  public int getColumnCount() {
+    return this.columns_.length;
+  }
+
+  public int getRowCount() {
+    return this.rowCount_;
+  }
+
+  private double[][] columns_;
+  private WString[] headers_;
+  private int capacity_;
+  private int start_;
+  private int rowCount_;
+  private int maximumRowCount_;
+
+  private int physicalRow(int row) {
+    int p = this.start_ + row;
+    return p >= this.capacity_ ? p - this.capacity_ : p;
+  }
+
+  private void reserve(int rows) {
+    if (this.maximumRowCount_ != -1) {
+      rows = Math.min(rows, this.maximumRowCount_);
+    }
+    if (rows <= this.capacity_) {
+      return;
+    }
+    int capacity = Math.max(rows, this.capacity_ * 2);
+    if (this.maximumRowCount_ != -1) {
+      capacity = Math.min(capacity, this.maximumRowCount_);
+    }
+    for (int c = 0; c < this.columns_.length; ++c) {
+      double[] column = new double[capacity];
+      int first = Math.min(this.rowCount_, this.capacity_ - this.start_);
+      System.arraycopy(this.columns_[c], this.start_, column, 0, first);
+      System.arraycopy(this.columns_[c], 0, column, first, this.rowCount_ - first);
+      this.columns_[c] = column;
+    }
+    this.capacity_ = capacity;
+    this.start_ = 0;
+  }
+
+  private void added(int count) {
+    this.rowCount_ += count;
+    if (this.maximumRowCount_ != -1 && this.rowCount_ > this.maximumRowCount_) {
+      this.discardRows(this.rowCount_ - this.maximumRowCount_);
+    } else {
+      this.rowsChanged().trigger(this.rowCount_ - count);
+    }
+    this.changed().trigger();
+  }
+
+  private void discardRows(int count) {
+    this.start_ = this.physicalRow(count);
+    this.rowCount_ -= count;
+  }
+}
@@ -83,6 +83,7 @@ public class WDataSeries extends WObject {
     this.markerBrush_ = new WBrush();
     this.labelColor_ = new WColor();
     this.shadow_ = new WShadow();
+    this.decimation_ = SeriesDecimation.None;
     this.fillRange_ = FillRangeType.None;
     this.marker_ = type == SeriesType.Point ? MarkerType.Circle : MarkerType.None;
     this.markerSize_ = 6;
@@ -144,6 +145,7 @@ public class WDataSeries extends WObject {
     this.markerBrush_ = new WBrush();
     this.labelColor_ = new WColor();
     this.shadow_ = new WShadow();
+    this.decimation_ = SeriesDecimation.None;
     this.fillRange_ = FillRangeType.None;
     this.marker_ = type == SeriesType.Point ? MarkerType.Circle : MarkerType.None;
     this.markerSize_ = 6;
@@ -513,6 +515,37 @@ public class WDataSeries extends WObject {
   public WShadow getShadow() {
     return this.shadow_;
   }
+  /**
+   * Sets how the points of a line or curve series are decimated.
+   *
+   * <p>When a series has many more points than the chart area has pixels, drawing all of them only
+   * adds to the size of the rendered chart. With decimation enabled, the points are grouped per
+   * device pixel along the X axis, and only a few points of each pixel are drawn. The grouping
+   * takes into account the current zoom level of the X axis, and is updated when the user zooms or
+   * pans an interactive chart.
+   *
+   * <p>Decimation only affects the line or curve: markers and labels are still drawn for every
+   * point. The X values of the series should be sorted in ascending order.
+   *
+   * <p>The default value is {@link SeriesDecimation#None}.
+   */
+  public void setDecimation(SeriesDecimation decimation) {
+    if (!ChartUtils.equals(this.decimation_, decimation)) {
+      this.decimation_ = decimation;
+      update();
+    }
+    ;
+  }
+  /**
+   * Returns how the points of a line or curve series are decimated.
+   *
+   * <p>
+   *
+   * @see WDataSeries#setDecimation(SeriesDecimation decimation)
+   */
+  public SeriesDecimation getDecimation() {
+    return this.decimation_;
+  }
   /**
    * Sets the fill range for line or curve series.
    *
@@ -1027,6 +1060,7 @@ public class WDataSeries extends WObject {
   private WBrush markerBrush_;
   private WColor labelColor_;
   private WShadow shadow_;
+  private SeriesDecimation decimation_;
   private FillRangeType fillRange_;
   private MarkerType marker_;
   private double markerSize_;
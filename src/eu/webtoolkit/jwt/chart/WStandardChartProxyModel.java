@@ -55,7 +55,7 @@ public class WStandardChartProxyModel extends WAbstractChartModel {
         .addListener(
             this,
             (WModelIndex e1, Integer e2, Integer e3) -> {
-              WStandardChartProxyModel.this.sourceModelModified();
+              WStandardChartProxyModel.this.sourceRowsInserted(e1, e2, e3);
             });
     sourceModel
         .rowsRemoved()
@@ -69,7 +69,7 @@ public class WStandardChartProxyModel extends WAbstractChartModel {
         .addListener(
             this,
             (WModelIndex e1, WModelIndex e2) -> {
-              WStandardChartProxyModel.this.sourceModelModified();
+              WStandardChartProxyModel.this.sourceDataChanged(e1, e2);
             });
     sourceModel
         .headerDataChanged()
@@ -310,6 +310,20 @@ public class WStandardChartProxyModel extends WAbstractChartModel {
     this.changed().trigger();
   }
 
+  private void sourceRowsInserted(final WModelIndex parent, int start, int end) {
+    if (parent == null && end == this.sourceModel_.getRowCount() - 1) {
+      this.rowsChanged().trigger(start);
+    }
+    this.changed().trigger();
+  }
+
+  private void sourceDataChanged(final WModelIndex topLeft, final WModelIndex bottomRight) {
+    if (topLeft != null && topLeft.getParent() == null) {
+      this.rowsChanged().trigger(topLeft.getRow());
+    }
+    this.changed().trigger();
+  }
+
   private WColor color(int row, int column, ItemDataRole colorDataRole) {
     Object result = this.sourceModel_.getData(row, column, colorDataRole);
     if (!(result != null)) {
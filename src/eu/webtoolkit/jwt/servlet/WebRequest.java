@@ -262,6 +262,55 @@ public class WebRequest extends HttpServletRequestWrapper {
 		return v != null ? v : "";
 	}
 
+	/**
+	 * Returns whether the client accepts a content coding.
+	 * <p>
+	 * This inspects the Accept-Encoding header. A coding is accepted when it is
+	 * listed (or matched by <code>*</code>) with a non-zero quality value.
+	 *
+	 * @param coding the content coding, e.g. "gzip"
+	 * @return whether the response may be encoded using the coding.
+	 */
+	public boolean acceptsEncoding(String coding) {
+		return acceptsEncoding(getHeaderValue("Accept-Encoding"), coding);
+	}
+
+	/**
+	 * Returns whether an Accept-Encoding header value accepts a content coding.
+	 *
+	 * @param acceptEncoding the Accept-Encoding header value, may be <code>null</code>
+	 * @param coding the content coding, e.g. "gzip"
+	 * @return whether the response may be encoded using the coding.
+	 */
+	public static boolean acceptsEncoding(String acceptEncoding, String coding) {
+		if (acceptEncoding == null)
+			return false;
+
+		boolean wildcard = false;
+		for (String item : acceptEncoding.split(",")) {
+			String[] parts = item.split(";");
+			String name = parts[0].trim();
+			boolean accepted = true;
+			for (int i = 1; i < parts.length; ++i) {
+				String param = parts[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						accepted = Double.parseDouble(param.substring(2).trim()) > 0;
+					} catch (NumberFormatException e) {
+						accepted = false;
+					}
+				}
+			}
+
+			if (name.equalsIgnoreCase(coding))
+				return accepted;
+			else if (name.equals("*"))
+				wildcard = accepted;
+		}
+
+		return wildcard;
+	}
+
 	/**
 	 * Returns the internal path information.
 	 * <p>
@@ -231,6 +231,18 @@ public class WebResponse extends HttpServletResponseWrapper {
 		return ((WebRequest)request).getParameterMap();
 	}
 
+	/**
+	 * Returns whether the client accepts a content coding.
+	 *
+	 * @param coding the content coding, e.g. "gzip"
+	 * @return whether the response may be encoded using the coding.
+	 *
+	 * @see WebRequest#acceptsEncoding(String)
+	 */
+	public boolean acceptsEncoding(String coding) {
+		return request instanceof WebRequest && ((WebRequest) request).acceptsEncoding(coding);
+	}
+
 	/**
 	 * Returns whether this request is a WebSocket request.
 	 * 
@@ -257,6 +269,17 @@ public class WebResponse extends HttpServletResponseWrapper {
 	public boolean isWebSocketMessagePending() {
 		return false;
 	}
+
+	/**
+	 * Postpones pushing updates until the pending WebSocket message has been sent.
+	 * 
+	 * Returns whether the push was postponed, which is only the case while a message is pending.
+	 * 
+	 * This is an internal JWt method.
+	 */
+	public boolean deferPushUpdates() {
+		return false;
+	}
 	
 	/**
 	 * Sets the response type.
@@ -0,0 +1,197 @@
+/*
+ * Copyright (C) 2009 Emweb bv, Herent, Belgium.
+ *
+ * See the LICENSE file for terms of use.
+ */
+package eu.webtoolkit.jwt.utils;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive int values.
+ * <p>
+ * This is used instead of a <code>List&lt;Integer&gt;</code> for large row mappings, to avoid
+ * boxing every value.
+ * <p>
+ * The unused capacity is kept as a gap at the position of the last insertion or removal, so that
+ * a series of insertions or removals that moves through the list in one direction (e.g. for
+ * scattered rows that are processed in order) only moves each value once.
+ */
+public class IntArrayList {
+	private int[] data;
+	private int size;
+	private int gapStart;
+
+	/**
+	 * Creates an empty list.
+	 */
+	public IntArrayList() {
+		this(10);
+	}
+
+	/**
+	 * Creates an empty list with a given initial capacity.
+	 */
+	public IntArrayList(int capacity) {
+		this.data = new int[Math.max(capacity, 1)];
+		this.size = 0;
+		this.gapStart = 0;
+	}
+
+	/**
+	 * Returns the number of values.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns whether the list is empty.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the value at an index.
+	 */
+	public int get(int index) {
+		checkIndex(index);
+		return data[physical(index)];
+	}
+
+	/**
+	 * Sets the value at an index.
+	 */
+	public void set(int index, int value) {
+		checkIndex(index);
+		data[physical(index)] = value;
+	}
+
+	/**
+	 * Appends a value.
+	 */
+	public void add(int value) {
+		insert(size, 1, value);
+	}
+
+	/**
+	 * Inserts a value at an index.
+	 */
+	public void add(int index, int value) {
+		insert(index, 1, value);
+	}
+
+	/**
+	 * Inserts <code>count</code> copies of a value at an index.
+	 */
+	public void insert(int index, int count, int value) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		ensureCapacity(size + count);
+		moveGap(index);
+		Arrays.fill(data, index, index + count, value);
+		gapStart += count;
+		size += count;
+	}
+
+	/**
+	 * Inserts values at an index.
+	 */
+	public void insert(int index, int[] values, int offset, int count) {
+		if (index < 0 || index > size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		ensureCapacity(size + count);
+		moveGap(index);
+		System.arraycopy(values, offset, data, index, count);
+		gapStart += count;
+		size += count;
+	}
+
+	/**
+	 * Removes the value at an index, and returns it.
+	 */
+	public int remove(int index) {
+		int result = get(index);
+		removeRange(index, index + 1);
+		return result;
+	}
+
+	/**
+	 * Removes the values from <code>fromIndex</code> (inclusive) to <code>toIndex</code>
+	 * (exclusive).
+	 */
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("Range: " + fromIndex + "-" + toIndex + ", Size: " + size);
+		moveGap(fromIndex);
+		size -= toIndex - fromIndex;
+	}
+
+	/**
+	 * Removes all values.
+	 */
+	public void clear() {
+		size = 0;
+		gapStart = 0;
+	}
+
+	/**
+	 * Resizes the list, filling new entries with a value.
+	 */
+	public void resize(int newSize, int value) {
+		if (newSize > size)
+			insert(size, newSize - size, value);
+		else
+			removeRange(newSize, size);
+	}
+
+	/**
+	 * Sets all values to a value.
+	 */
+	public void fill(int value) {
+		Arrays.fill(data, 0, gapStart, value);
+		Arrays.fill(data, gapStart + gapLength(), data.length, value);
+	}
+
+	/**
+	 * Returns a copy of the values as an array.
+	 */
+	public int[] toArray() {
+		int[] result = Arrays.copyOf(data, size);
+		System.arraycopy(data, gapStart + gapLength(), result, gapStart, size - gapStart);
+		return result;
+	}
+
+	/**
+	 * Ensures that the list can hold <code>capacity</code> values without growing.
+	 */
+	public void ensureCapacity(int capacity) {
+		if (capacity > data.length) {
+			moveGap(size);
+			data = Arrays.copyOf(data, Math.max(capacity, data.length + (data.length >> 1)));
+		}
+	}
+
+	private int gapLength() {
+		return data.length - size;
+	}
+
+	private int physical(int index) {
+		return index < gapStart ? index : index + gapLength();
+	}
+
+	private void moveGap(int index) {
+		int gap = gapLength();
+		if (index < gapStart)
+			System.arraycopy(data, index, data, index + gap, gapStart - index);
+		else if (index > gapStart)
+			System.arraycopy(data, gapStart + gap, data, gapStart, index - gapStart);
+		gapStart = index;
+	}
+
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+	}
+}
@@ -23,6 +23,101 @@ public class MathUtils {
 		return String.valueOf(v);
 	}
 
+	/**
+	 * Appends a number, rounded to <code>decimals</code> decimals, in a compact notation.
+	 * <p>
+	 * Trailing zeros are omitted, as is the decimal point of a whole number: 12.5 is appended as
+	 * "12.5" and 40.0 as "40". Numbers that are not finite or too large to be rounded are appended
+	 * as by {@link StringBuilder#append(double)}.
+	 * <p>
+	 * Unlike {@link #roundJs(double, int)}, this does not allocate a string, and is intended for the
+	 * coordinates written by the vector paint devices.
+	 */
+	public static StringBuilder appendRounded(StringBuilder out, double v, int decimals) {
+		if (isFixed(v, decimals))
+			return appendFixed(out, toFixed(v, decimals), decimals);
+		else
+			return out.append(v);
+	}
+
+	/**
+	 * Returns whether a number can be represented as a fixed point number.
+	 * 
+	 * @see #toFixed(double, int)
+	 */
+	public static boolean isFixed(double v, int decimals) {
+		return Math.abs(v) * POW10[decimals] < MAX_FIXED;
+	}
+
+	/**
+	 * Returns a number as a fixed point number with <code>decimals</code> decimals.
+	 * <p>
+	 * The result is the number of units of 10<sup>-decimals</sup>, which can be formatted using
+	 * {@link #appendFixed(StringBuilder, long, int)}. Differences of fixed point numbers are exact.
+	 */
+	public static long toFixed(double v, int decimals) {
+		return Math.round(v * POW10[decimals]);
+	}
+
+	/**
+	 * Appends a fixed point number in a compact notation.
+	 * 
+	 * @see #appendRounded(StringBuilder, double, int)
+	 */
+	public static StringBuilder appendFixed(StringBuilder out, long units, int decimals) {
+		if (units < 0) {
+			out.append('-');
+			units = -units;
+		}
+		long scale = POW10[decimals];
+		out.append(units / scale);
+		long fraction = units % scale;
+		if (fraction != 0) {
+			int digits = decimals;
+			for (; fraction % 10 == 0; fraction /= 10)
+				--digits;
+			out.append('.');
+			for (long p = POW10[digits - 1]; p > fraction; p /= 10)
+				out.append('0');
+			out.append(fraction);
+		}
+		return out;
+	}
+
+	/**
+	 * Returns the number of characters appended by {@link #appendFixed(StringBuilder, long, int)}.
+	 */
+	public static int getFixedLength(long units, int decimals) {
+		int length = 0;
+		if (units < 0) {
+			++length;
+			units = -units;
+		}
+		long scale = POW10[decimals];
+		length += getDigitCount(units / scale);
+		long fraction = units % scale;
+		if (fraction != 0) {
+			int digits = decimals;
+			for (; fraction % 10 == 0; fraction /= 10)
+				--digits;
+			length += 1 + digits;
+		}
+		return length;
+	}
+
+	private static int getDigitCount(long v) {
+		int digits = 1;
+		for (; digits < POW10.length && v >= POW10[digits]; ++digits)
+			;
+		return digits;
+	}
+
+	private static final double MAX_FIXED = 1E15;
+	private static final long[] POW10 = new long[] { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L,
+			10000000L, 100000000L, 1000000000L, 10000000000L, 100000000000L, 1000000000000L,
+			10000000000000L, 100000000000000L, 1000000000000000L, 10000000000000000L,
+			100000000000000000L, 1000000000000000000L };
+
 	public static String randomId() {
 		return randomId(16);
 	}
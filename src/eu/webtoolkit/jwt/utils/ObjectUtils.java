@@ -35,4 +35,23 @@ public class ObjectUtils {
     public static <T> T cast(Object object, Class<T> clazz) {
       return clazz.isInstance(object) ? clazz.cast(object) : null;
     }
+
+	/**
+	 * Returns whether a class overrides a method of a base class.
+	 * <p>
+	 * This is the case when <code>c</code>, or one of its superclasses that derives from
+	 * <code>base</code>, declares the method. This allows a class to use a faster path when
+	 * a subclass relies on the default implementation of a method. Since it uses reflection,
+	 * the result should be computed once, e.g. in the constructor.
+	 */
+	public static boolean overrides(Class<?> c, Class<?> base, String name, Class<?>... parameterTypes) {
+		for (; c != base && c != null; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+			}
+		}
+		return false;
+	}
 }
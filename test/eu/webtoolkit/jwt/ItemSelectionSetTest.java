@@ -0,0 +1,173 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.junit.Test;
+
+public class ItemSelectionSetTest {
+	private static WStandardItemModel createModel(int rows, int columns) {
+		WStandardItemModel model = new WStandardItemModel(rows, columns);
+		WStandardItem parent = new WStandardItem("parent");
+		model.setItem(2, 0, parent);
+		parent.appendRow(new WStandardItem("child 0"));
+		parent.appendRow(new WStandardItem("child 1"));
+		return model;
+	}
+
+	private static void assertSameOrder(TreeSet<WModelIndex> expected, ItemSelectionSet set) {
+		assertEquals(expected.size(), set.size());
+		assertEquals(new ArrayList<WModelIndex>(expected), new ArrayList<WModelIndex>(set));
+		if (!expected.isEmpty()) {
+			assertEquals(expected.first(), set.first());
+			assertEquals(expected.last(), set.last());
+		}
+	}
+
+	@Test
+	public void testRanges() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel(100, 3);
+		ItemSelectionSet set = new ItemSelectionSet();
+		TreeSet<WModelIndex> expected = new TreeSet<WModelIndex>();
+
+		assertEquals(50, set.addRange(model, 0, 10, 59));
+		assertEquals(10, set.addRange(model, 0, 55, 69));
+		for (int r = 10; r < 70; ++r)
+			expected.add(model.getIndex(r, 0));
+
+		WModelIndex child = model.getIndex(1, 0, model.getIndex(2, 0));
+		set.add(child);
+		expected.add(child);
+		set.add(model.getIndex(2, 0));
+		expected.add(model.getIndex(2, 0));
+		set.add(model.getIndex(20, 2));
+		expected.add(model.getIndex(20, 2));
+		assertSameOrder(expected, set);
+
+		set.remove(model.getIndex(30, 0));
+		expected.remove(model.getIndex(30, 0));
+		assertEquals(false, set.contains(model.getIndex(30, 0)));
+		assertEquals(true, set.contains(model.getIndex(31, 0)));
+		assertEquals(true, set.containsRow(model.getIndex(20, 1)));
+		assertEquals(false, set.containsRow(model.getIndex(0, 1)));
+		assertSameOrder(expected, set);
+
+		for (Iterator<WModelIndex> i = set.iterator(); i.hasNext();)
+			if (i.next().getRow() % 2 == 0)
+				i.remove();
+		for (Iterator<WModelIndex> i = expected.iterator(); i.hasNext();)
+			if (i.next().getRow() % 2 == 0)
+				i.remove();
+		assertSameOrder(expected, set);
+	}
+
+	@Test
+	public void testShift() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel(100, 3);
+		ItemSelectionSet set = new ItemSelectionSet();
+		set.addRange(model, 0, 10, 19);
+		set.addRange(model, 1, 30, 39);
+		set.add(model.getIndex(0, 0, model.getIndex(2, 0)));
+
+		assertEquals(0, set.shiftRows(15, 5));
+		assertEquals(false, set.contains(model.getIndex(15, 0)));
+		assertEquals(true, set.contains(model.getIndex(14, 0)));
+		assertEquals(true, set.contains(model.getIndex(20, 0)));
+		assertEquals(true, set.contains(model.getIndex(24, 0)));
+		assertEquals(true, set.contains(model.getIndex(35, 1)));
+		assertEquals(21, set.size());
+
+		assertEquals(2, set.shiftRows(13, -7));
+		List<Integer> rows = new ArrayList<Integer>();
+		for (WModelIndex i : set)
+			if (i.getParent() == null && i.getColumn() == 0)
+				rows.add(i.getRow());
+		assertEquals("[10, 11, 12, 13, 14, 15, 16, 17]", rows.toString());
+		assertEquals(true, set.contains(model.getIndex(28, 1)));
+
+		assertEquals(0, set.shiftRows(1, -3));
+		assertEquals(18, set.size());
+
+		assertEquals(true, set.shiftColumns(0, -1));
+		assertEquals(true, set.contains(model.getIndex(25, 0)));
+		assertEquals(10, set.size());
+	}
+
+	@Test
+	public void testRowSelection() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel(100000, 2);
+		WItemSelectionModel selectionModel = new WItemSelectionModel(model);
+		selectionModel.selection_.addRange(model, 0, 0, 99999);
+
+		assertEquals(100000, selectionModel.getSelectedIndexes().size());
+		assertEquals(true, selectionModel.isSelected(model.getIndex(54321, 1)));
+		assertEquals(model.getIndex(99999, 0), selectionModel.getSelectedIndexes().last());
+
+		selectionModel.modelLayoutAboutToBeChanged();
+		selectionModel.modelLayoutChanged();
+		assertEquals(100000, selectionModel.getSelectedIndexes().size());
+	}
+
+	@Test
+	public void testViews() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel(100, 3);
+		ItemSelectionSet set = new ItemSelectionSet();
+		TreeSet<WModelIndex> expected = new TreeSet<WModelIndex>();
+		set.addRange(model, 0, 0, 49);
+		set.addRange(model, 1, 40, 59);
+		for (int r = 0; r < 50; ++r)
+			expected.add(model.getIndex(r, 0));
+		for (int r = 40; r < 60; ++r)
+			expected.add(model.getIndex(r, 1));
+		WModelIndex child = model.getIndex(0, 0, model.getIndex(2, 0));
+		set.add(child);
+		expected.add(child);
+
+		WModelIndex from = model.getIndex(2, 0);
+		WModelIndex to = model.getIndex(45, 1);
+		assertEquals(new ArrayList<WModelIndex>(expected.tailSet(from)), new ArrayList<WModelIndex>(set.tailSet(from)));
+		assertEquals(new ArrayList<WModelIndex>(expected.headSet(to)), new ArrayList<WModelIndex>(set.headSet(to)));
+		assertEquals(expected.subSet(child, to).size(), set.subSet(child, to).size());
+		assertEquals(expected.tailSet(child).first(), set.tailSet(child).first());
+		assertEquals(expected.headSet(to).last(), set.headSet(to).last());
+
+		// views are backed by the set
+		set.tailSet(model.getIndex(45, 0)).clear();
+		expected.tailSet(model.getIndex(45, 0)).clear();
+		assertSameOrder(expected, set);
+		set.remove(model.getIndex(0, 0));
+		expected.remove(model.getIndex(0, 0));
+		assertEquals(expected.first(), set.first());
+	}
+
+	@Test
+	public void testClearSelection() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel(100000, 1);
+		for (int r = 0; r < 100000; ++r)
+			model.setData(r, 0, r);
+		WTreeView view = new WTreeView();
+		view.setModel(model);
+		view.setSelectionMode(SelectionMode.Extended);
+		view.getSelectionModel().selection_.addRange(model, 0, 0, 99999);
+
+		long start = System.nanoTime();
+		view.clearSelection();
+		assertEquals(0, view.getSelectedIndexes().size());
+		// used to take quadratic time, as every step copied the selection
+		assertEquals(true, System.nanoTime() - start < 20000000000L);
+	}
+}
@@ -0,0 +1,214 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.utils.StreamUtils;
+
+public class ResourcesCacheTest {
+	private static final String COMPRESSIBLE = "test/plural.xml";
+	private static final String BINARY = "test/MyResources.properties";
+
+	private static class Request implements InvocationHandler {
+		Map<String, Object> headers = new HashMap<String, Object>();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			Object value = headers.get(args[0]);
+			if (method.getName().equals("getHeader"))
+				return value;
+			if (method.getName().equals("getDateHeader"))
+				return value != null ? (Long) value : -1L;
+			throw new UnsupportedOperationException(method.getName());
+		}
+
+		HttpServletRequest create() {
+			return (HttpServletRequest) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { HttpServletRequest.class }, this);
+		}
+	}
+
+	private static class Response implements InvocationHandler {
+		int status = 200;
+		Map<String, Object> headers = new HashMap<String, Object>();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			String name = method.getName();
+			if (name.equals("setStatus"))
+				status = (Integer) args[0];
+			else if (name.equals("setHeader") || name.equals("addHeader") || name.equals("setDateHeader"))
+				headers.put((String) args[0], args[1]);
+			else if (name.equals("setContentType"))
+				headers.put("Content-Type", args[0]);
+			else if (name.equals("setContentLength"))
+				headers.put("Content-Length", args[0]);
+			else if (name.equals("getOutputStream"))
+				return new ServletOutputStream() {
+					@Override
+					public void write(int b) {
+						body.write(b);
+					}
+
+					@Override
+					public boolean isReady() {
+						return true;
+					}
+
+					@Override
+					public void setWriteListener(WriteListener listener) {
+					}
+				};
+			else
+				throw new UnsupportedOperationException(name);
+			return null;
+		}
+
+		HttpServletResponse create() {
+			return (HttpServletResponse) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] { HttpServletResponse.class }, this);
+		}
+	}
+
+	private static Response serve(ResourcesCache cache, String fileName, Request request, String cacheControl)
+			throws IOException {
+		Response response = new Response();
+		cache.serve(fileName, request.create(), response.create(), cacheControl);
+		return response;
+	}
+
+	private static Response serve(ResourcesCache cache, String fileName, Request request) throws IOException {
+		return serve(cache, fileName, request, new Configuration().getResourcesCacheControl());
+	}
+
+	private static byte[] gunzip(byte[] data) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		StreamUtils.copy(new GZIPInputStream(new ByteArrayInputStream(data)), result);
+		return result.toByteArray();
+	}
+
+	@Test
+	public void testMimeType() {
+		assertEquals("text/css", ResourcesCache.getMimeType("themes/default/wt.CSS"));
+		assertEquals("text/javascript", ResourcesCache.getMimeType("a.b.js"));
+		assertEquals("font/woff2", ResourcesCache.getMimeType("font.woff2"));
+		assertEquals("application/octet-stream", ResourcesCache.getMimeType("README"));
+	}
+
+	@Test
+	public void testEntry() throws IOException {
+		ResourcesCache cache = new ResourcesCache();
+		ResourcesCache.Entry entry = cache.get(COMPRESSIBLE);
+		assertSame(entry, cache.get(COMPRESSIBLE));
+		assertEquals("application/xml", entry.mimeType);
+
+		// the ETag is the CRC32 and the length of the uncompressed data
+		CRC32 crc = new CRC32();
+		crc.update(entry.data);
+		String etag = Long.toHexString(crc.getValue()) + "-" + Integer.toHexString(entry.data.length);
+		assertEquals("\"" + etag + "\"", entry.etag);
+		assertEquals("\"" + etag + "-gz\"", entry.gzipEtag);
+
+		assertNotNull(entry.gzipData);
+		assertArrayEquals(entry.data, gunzip(entry.gzipData));
+
+		// other types are not compressed
+		assertNull(cache.get(BINARY).gzipData);
+	}
+
+	@Test
+	public void testServe() throws IOException {
+		ResourcesCache cache = new ResourcesCache();
+		ResourcesCache.Entry entry = cache.get(COMPRESSIBLE);
+
+		Response response = serve(cache, COMPRESSIBLE, new Request());
+		assertEquals(200, response.status);
+		assertEquals("application/xml", response.headers.get("Content-Type"));
+		assertEquals(entry.etag, response.headers.get("ETag"));
+		assertEquals("Accept-Encoding", response.headers.get("Vary"));
+		assertEquals("public, max-age=86400", response.headers.get("Cache-Control"));
+		assertNull(response.headers.get("Content-Encoding"));
+		assertArrayEquals(entry.data, response.body.toByteArray());
+
+		Request gzip = new Request();
+		gzip.headers.put("Accept-Encoding", "deflate, gzip");
+		response = serve(cache, COMPRESSIBLE, gzip);
+		assertEquals("gzip", response.headers.get("Content-Encoding"));
+		assertEquals(entry.gzipEtag, response.headers.get("ETag"));
+		assertEquals(entry.gzipData.length, response.headers.get("Content-Length"));
+		assertArrayEquals(entry.gzipData, response.body.toByteArray());
+
+		// no variants, so no Vary header, and an empty Cache-Control is omitted
+		response = serve(cache, BINARY, gzip, "");
+		assertNull(response.headers.get("Vary"));
+		assertNull(response.headers.get("Content-Encoding"));
+		assertNull(response.headers.get("Cache-Control"));
+		assertEquals("application/octet-stream", response.headers.get("Content-Type"));
+	}
+
+	// WtServlet turns this into a 404 response
+	@Test(expected = FileNotFoundException.class)
+	public void testMissing() throws IOException {
+		serve(new ResourcesCache(), "test/missing.css", new Request());
+	}
+
+	@Test
+	public void testConditionalRequests() throws IOException {
+		ResourcesCache cache = new ResourcesCache();
+		ResourcesCache.Entry entry = cache.get(COMPRESSIBLE);
+
+		Request request = new Request();
+		request.headers.put("If-None-Match", entry.etag);
+		Response response = serve(cache, COMPRESSIBLE, request);
+		assertEquals(304, response.status);
+		assertEquals(0, response.body.size());
+		assertEquals(entry.etag, response.headers.get("ETag"));
+
+		// weak tags, tag lists, the other variant and the wildcard all match
+		request.headers.put("If-None-Match", "\"other\", W/" + entry.etag);
+		assertEquals(304, serve(cache, COMPRESSIBLE, request).status);
+		request.headers.put("If-None-Match", entry.gzipEtag);
+		assertEquals(304, serve(cache, COMPRESSIBLE, request).status);
+		request.headers.put("If-None-Match", "*");
+		assertEquals(304, serve(cache, COMPRESSIBLE, request).status);
+
+		request.headers.put("If-None-Match", "\"other\"");
+		response = serve(cache, COMPRESSIBLE, request);
+		assertEquals(200, response.status);
+		long lastModified = (Long) response.headers.get("Last-Modified");
+
+		// If-Modified-Since is only used without If-None-Match
+		request.headers.put("If-Modified-Since", lastModified);
+		assertEquals(200, serve(cache, COMPRESSIBLE, request).status);
+
+		request.headers.remove("If-None-Match");
+		assertEquals(304, serve(cache, COMPRESSIBLE, request).status);
+		request.headers.put("If-Modified-Since", lastModified + 1000);
+		assertEquals(304, serve(cache, COMPRESSIBLE, request).status);
+		request.headers.put("If-Modified-Since", lastModified - 1000);
+		assertEquals(200, serve(cache, COMPRESSIBLE, request).status);
+	}
+}
@@ -0,0 +1,177 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.Test;
+
+public class WAbstractPagedTableModelTest {
+	private static class TestModel extends WAbstractPagedTableModel {
+		int queries = 0;
+
+		TestModel(int pageSize, int cacheSize) {
+			super(pageSize, cacheSize);
+		}
+
+		@Override
+		public int getRowCount(WModelIndex parent) {
+			return parent == null ? 1000 : 0;
+		}
+
+		@Override
+		public int getColumnCount(WModelIndex parent) {
+			return parent == null ? 2 : 0;
+		}
+
+		@Override
+		protected List<Object[]> fetchRows(int offset, int count) {
+			++queries;
+			List<Object[]> result = new ArrayList<Object[]>();
+			for (int i = offset; i < Math.min(offset + count, 1000); ++i)
+				result.add(new Object[] { i, "row " + i });
+			return result;
+		}
+	}
+
+	@Test
+	public void testPageCache() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		TestModel model = new TestModel(50, 2);
+		for (int r = 0; r < 50; ++r)
+			assertEquals(r, model.getData(r, 0));
+		assertEquals("row 10", model.getData(10, 1));
+		assertEquals(1, model.queries);
+		assertEquals(1, model.getCacheMisses());
+		assertEquals(50, model.getCacheHits());
+
+		model.getData(75, 0);
+		model.getData(120, 0);
+		assertEquals(3, model.queries);
+		assertEquals(2, model.getCachedPageCount());
+
+		// page 0 was evicted
+		model.getData(0, 0);
+		assertEquals(4, model.queries);
+
+		model.invalidate();
+		assertEquals(0, model.getCachedPageCount());
+	}
+
+	/*
+	 * Runs the functions posted to a session when the test decides to.
+	 */
+	private static class TestServlet extends WtServlet {
+		List<Runnable> posted = new ArrayList<Runnable>();
+
+		@Override
+		public WApplication createApplication(WEnvironment env) {
+			return null;
+		}
+
+		@Override
+		public void post(WApplication app, Runnable function, Runnable fallBackFunction) {
+			posted.add(function);
+		}
+	}
+
+	/*
+	 * Replaces the servlet to which the model posts, and returns the previous one.
+	 */
+	private static WtServlet setServletInstance(WtServlet servlet) throws Exception {
+		Field field = WtServlet.class.getDeclaredField("instance");
+		field.setAccessible(true);
+		WtServlet result = (WtServlet) field.get(null);
+		field.set(null, servlet);
+		return result;
+	}
+
+	@Test
+	public void testPrefetch() throws Exception {
+		new WApplication(new WTestEnvironment(new Configuration()));
+		TestServlet servlet = new TestServlet();
+		WtServlet previous = setServletInstance(servlet);
+		try {
+			checkPrefetch(servlet);
+		} finally {
+			setServletInstance(previous);
+		}
+	}
+
+	private void checkPrefetch(TestServlet servlet) {
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		TestModel model = new TestModel(100, 4);
+		model.setPrefetch(2, new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+
+		final List<Integer> changed = new ArrayList<Integer>();
+		model.dataChanged().addListener(null, new Signal2.Listener<WModelIndex, WModelIndex>() {
+			@Override
+			public void trigger(WModelIndex topLeft, WModelIndex bottomRight) {
+				changed.add(topLeft.getRow());
+				changed.add(bottomRight.getRow());
+			}
+		});
+
+		assertEquals(5, model.getData(5, 0));
+		assertEquals(2, tasks.size());
+
+		// page 1 is still being prefetched
+		assertEquals(null, model.getData(150, 0));
+
+		// results are only delivered within the session
+		for (Runnable task : tasks)
+			task.run();
+		assertEquals(3, model.queries);
+		assertEquals(0, model.getPrefetchedPageCount());
+		assertEquals(null, model.getData(150, 0));
+
+		for (Runnable function : servlet.posted)
+			function.run();
+		assertEquals(2, model.getPrefetchedPageCount());
+		assertEquals(3, model.queries);
+		assertEquals(2, changed.size());
+		assertEquals(100, (int) changed.get(0));
+		assertEquals(199, (int) changed.get(1));
+		assertEquals(150, model.getData(150, 0));
+		assertEquals(250, model.getData(250, 0));
+		assertEquals(3, model.queries);
+	}
+
+	@Test
+	public void testPrefetchWithoutServlet() throws Exception {
+		new WApplication(new WTestEnvironment(new Configuration()));
+		WtServlet previous = setServletInstance(null);
+		try {
+			checkPrefetchWithoutServlet();
+		} finally {
+			setServletInstance(previous);
+		}
+	}
+
+	private void checkPrefetchWithoutServlet() {
+
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		TestModel model = new TestModel(100, 4);
+		model.setPrefetch(2, new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+
+		// nothing could deliver the result to the session
+		assertEquals(5, model.getData(5, 0));
+		assertEquals(0, tasks.size());
+		assertEquals(150, model.getData(150, 0));
+		assertEquals(2, model.queries);
+	}
+}
@@ -0,0 +1,146 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+public class WBatchEditProxyModelTest {
+	/*
+	 * A source model without raw indexes, for which the proxy keys nested items on
+	 * the parent index, which then needs to be updated when rows are inserted or
+	 * removed before it.
+	 */
+	private static class IndexModel extends WStandardItemModel {
+		IndexModel() {
+			super(0, 1);
+		}
+
+		@Override
+		public Object toRawIndex(WModelIndex index) {
+			return null;
+		}
+	}
+
+	/*
+	 * Rows a, b, c, d where b has the children b0, b1, b2.
+	 */
+	private static WStandardItemModel createModel(WStandardItemModel model) {
+		for (String text : new String[] { "a", "b", "c", "d" })
+			model.appendRow(new WStandardItem(text));
+		WStandardItem b = model.getItem(1);
+		for (int i = 0; i < 3; ++i)
+			b.appendRow(new WStandardItem("b" + i));
+		return model;
+	}
+
+	private static String dump(WAbstractItemModel model, WModelIndex parent) {
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < model.getRowCount(parent); ++i) {
+			WModelIndex index = model.getIndex(i, 0, parent);
+			if (i != 0)
+				result.append(' ');
+			result.append(StringUtils.asString(model.getData(index)));
+			if (model.getRowCount(index) > 0)
+				result.append('(').append(dump(model, index)).append(')');
+		}
+		return result.toString();
+	}
+
+	/*
+	 * Inserting a row before b moves the group of its children when committing.
+	 */
+	private static void edit(WBatchEditProxyModel proxy) {
+		proxy.insertRow(0);
+		proxy.setData(proxy.getIndex(0, 0), "x");
+
+		WModelIndex b = proxy.getIndex(2, 0);
+		proxy.removeRow(0, b);
+		proxy.insertRow(2, b);
+		proxy.setData(proxy.getIndex(2, 0, b), "y");
+		proxy.setData(proxy.getIndex(0, 0, b), "B1");
+
+		proxy.insertRow(5);
+		proxy.setData(proxy.getIndex(5, 0), "z");
+	}
+
+	private static void testCommit(WStandardItemModel model) {
+		WBatchEditProxyModel proxy = new WBatchEditProxyModel();
+		proxy.setSourceModel(createModel(model));
+
+		edit(proxy);
+		assertTrue(proxy.isDirty());
+		assertEquals("x a b(B1 b2 y) c d z", dump(proxy, null));
+		assertEquals("a b(b0 b1 b2) c d", dump(model, null));
+
+		proxy.commitAll();
+		assertFalse(proxy.isDirty());
+		assertEquals("x a b(B1 b2 y) c d z", dump(model, null));
+		assertEquals("x a b(B1 b2 y) c d z", dump(proxy, null));
+
+		// the proxy still maps to the right source rows
+		WModelIndex b = proxy.getIndex(2, 0);
+		assertEquals(model.getIndex(2, 0), proxy.mapToSource(b));
+		assertEquals(model.getIndex(2, 0, model.getIndex(2, 0)), proxy.mapToSource(proxy.getIndex(2, 0, b)));
+	}
+
+	private static void testRevert(WStandardItemModel model) {
+		WBatchEditProxyModel proxy = new WBatchEditProxyModel();
+		proxy.setSourceModel(createModel(model));
+
+		edit(proxy);
+		proxy.revertAll();
+		assertFalse(proxy.isDirty());
+		assertEquals("a b(b0 b1 b2) c d", dump(proxy, null));
+		assertEquals("a b(b0 b1 b2) c d", dump(model, null));
+	}
+
+	@Test
+	public void testCommitAll() {
+		testCommit(new WStandardItemModel(0, 1));
+		testCommit(new IndexModel());
+	}
+
+	@Test
+	public void testRevertAll() {
+		testRevert(new WStandardItemModel(0, 1));
+		testRevert(new IndexModel());
+	}
+
+	@Test
+	public void testItemsParentFirst() {
+		WStandardItemModel model = createModel(new IndexModel());
+		model.getItem(1).getChild(1).appendRow(new WStandardItem("b10"));
+		WModelIndex b = model.getIndex(1, 0);
+		WModelIndex b1 = model.getIndex(1, 0, b);
+		WModelIndex b10 = model.getIndex(0, 0, b1);
+
+		WAbstractProxyModel.ItemMap items = new WAbstractProxyModel.ItemMap();
+		WAbstractProxyModel.BaseItem root = new WAbstractProxyModel.BaseItem(null);
+		WAbstractProxyModel.BaseItem grandChild = new WAbstractProxyModel.BaseItem(b10);
+		WAbstractProxyModel.BaseItem child = new WAbstractProxyModel.BaseItem(b1);
+		WAbstractProxyModel.BaseItem parent = new WAbstractProxyModel.BaseItem(b);
+		items.put(grandChild);
+		items.put(root);
+		items.put(child);
+		items.put(parent);
+
+		// rekeys the group of the children of b, but not the group of the children of b1
+		model.insertRow(0);
+		items.shiftRows(model, null, 0, 1);
+		b = model.getIndex(2, 0);
+		assertSame(parent, items.get(b));
+		assertSame(child, items.get(model.getIndex(1, 0, b)));
+
+		List<WAbstractProxyModel.BaseItem> result = items.getItems();
+		assertEquals(4, result.size());
+		assertSame(root, result.get(0));
+		assertSame(parent, result.get(1));
+		assertSame(child, result.get(2));
+		assertSame(grandChild, result.get(3));
+	}
+}
@@ -0,0 +1,107 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.WColumnarTableModel.ColumnType;
+
+public class WColumnarTableModelTest {
+	private static WColumnarTableModel createModel() {
+		WColumnarTableModel model = new WColumnarTableModel(ColumnType.String, ColumnType.Int, ColumnType.Double);
+		model.appendRowBlock(new String[] { "pear", "apple", "fig" }, new int[] { 3, 1, 2 },
+				new double[] { 0.5, 1.5, 2.5 });
+		return model;
+	}
+
+	@Test
+	public void testBlockInsert() {
+		WColumnarTableModel model = createModel();
+		final int[] inserted = new int[2];
+		model.rowsInserted().addListener(null, (WModelIndex parent, Integer first, Integer last) -> {
+			++inserted[0];
+			inserted[1] += last - first + 1;
+		});
+
+		model.insertRowBlock(1, new String[] { "kiwi", "pear" }, new long[] { 7, 8 }, new int[] { 4, 5 });
+
+		assertEquals(1, inserted[0]);
+		assertEquals(2, inserted[1]);
+		assertEquals(5, model.getRowCount());
+		assertEquals("kiwi", model.getData(1, 0));
+		assertEquals(8, model.getData(2, 1));
+		assertEquals(5.0, model.getData(2, 2));
+		assertEquals("apple", model.getData(3, 0));
+		assertEquals(2.5, model.getDouble(4, 2), 0.0);
+	}
+
+	@Test
+	public void testSetData() {
+		WColumnarTableModel model = createModel();
+		model.insertRows(3, 1);
+
+		assertTrue(model.isEmpty(3, 1));
+		assertNull(model.getData(3, 0));
+		assertTrue(Double.isNaN(model.getDouble(3, 2)));
+
+		assertTrue(model.setData(3, 1, "42"));
+		assertFalse(model.setData(3, 1, "forty-two"));
+		assertEquals(42, model.getInt(3, 1));
+		assertEquals(42, model.getData(3, 1));
+
+		model.setData(0, 2, "note", ItemDataRole.ToolTip);
+		model.removeRows(0, 1);
+		assertNull(model.getData(0, 2, ItemDataRole.ToolTip));
+		model.insertRows(0, 2);
+		model.setData(3, 2, "tip", ItemDataRole.ToolTip);
+		model.removeRows(1, 1);
+		assertEquals("tip", model.getData(2, 2, ItemDataRole.ToolTip));
+	}
+
+	@Test
+	public void testSort() {
+		WColumnarTableModel model = createModel();
+		model.setData(1, 2, "tip", ItemDataRole.ToolTip);
+
+		model.sort(0, SortOrder.Ascending);
+		assertEquals("apple", model.getData(0, 0));
+		assertEquals("fig", model.getData(1, 0));
+		assertEquals(1, model.getData(0, 1));
+		assertEquals("tip", model.getData(0, 2, ItemDataRole.ToolTip));
+
+		model.sort(1, SortOrder.Descending);
+		assertEquals("pear", model.getData(0, 0));
+		assertEquals(0.5, model.getDouble(0, 2), 0.0);
+	}
+
+	@Test
+	public void testMismatchedBlockInsert() {
+		WColumnarTableModel model = createModel();
+		model.setData(1, 2, "tip", ItemDataRole.ToolTip);
+		final int[] signals = new int[1];
+		model.rowsAboutToBeInserted().addListener(null, (WModelIndex parent, Integer first, Integer last) -> {
+			++signals[0];
+		});
+
+		try {
+			model.insertRowBlock(1, new String[] { "kiwi" }, new String[] { "4" }, new double[] { 4.5 });
+			fail("expected a WException");
+		} catch (WException e) {
+		}
+
+		assertEquals(0, signals[0]);
+		assertEquals(3, model.getRowCount());
+		assertEquals("apple", model.getData(1, 0));
+		assertEquals(1, model.getData(1, 1));
+		assertEquals("tip", model.getData(1, 2, ItemDataRole.ToolTip));
+
+		model.insertRowBlock(1, new String[] { "kiwi" }, new int[] { 4 }, new double[] { 4.5 });
+		assertEquals(4, model.getRowCount());
+		assertEquals("apple", model.getData(2, 0));
+		assertEquals("tip", model.getData(2, 2, ItemDataRole.ToolTip));
+	}
+}
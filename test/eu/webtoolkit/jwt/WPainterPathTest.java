@@ -0,0 +1,73 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WPainterPathTest {
+	private static double value(int i) {
+		return Math.sin(i / 7.0) * 50 + 100;
+	}
+
+	private static WPainterPath window(int first, int count, double dx, double sy) {
+		WPainterPath path = new WPainterPath();
+		for (int i = first; i < first + count; ++i) {
+			double x = i * 2 + dx;
+			double y = value(i) * sy;
+			if (i == first)
+				path.moveTo(x, y);
+			else
+				path.lineTo(x, y);
+		}
+		return path;
+	}
+
+	private static int count(String s, String part) {
+		int result = 0;
+		for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + 1))
+			++result;
+		return result;
+	}
+
+	@Test
+	public void testAppendUpdate() {
+		WPainterPath previous = window(0, 100, 0, 1);
+
+		assertEquals("", window(0, 100, 0, 1).getJsValueUpdate(previous, "p0"));
+
+		String update = window(0, 104, 0, 1).getJsValueUpdate(previous, "p0");
+		assertTrue(update.startsWith("(function(p){p.push("));
+		assertTrue(update.endsWith("})(p0);"));
+		assertEquals(4, count(update, ",1]"));
+	}
+
+	@Test
+	public void testSlidingWindowUpdate() {
+		WPainterPath previous = window(0, 100, 0, 1);
+
+		// five points drop out on the left, the x axis shifts and the y axis is rescaled
+		String update = window(5, 100, -10, 0.5).getJsValueUpdate(previous, "p0");
+		assertTrue(update.startsWith("(function(p){p.splice(0,5);"));
+		assertTrue(update.contains("s[0]=1.0*s[0]+-10.0;s[1]=0.5*s[1]+0.0;"));
+		assertTrue(update.contains("p.splice(0,1,["));
+		assertEquals(1, count(update, ",0]"));
+		assertEquals(5, count(update, ",1]"));
+	}
+
+	@Test
+	public void testFullUpdate() {
+		WPainterPath previous = window(0, 100, 0, 1);
+		assertNull(window(60, 100, 0, 1).getJsValueUpdate(previous, "p0"));
+		assertNull(window(0, 100, 0, 1).getJsValueUpdate(new WRectF(), "p0"));
+
+		WPainterPath arc = new WPainterPath();
+		arc.arcMoveTo(50, 50, 20, 20, 0);
+		arc.arcTo(50, 50, 20, 0, 90);
+		WPainterPath moved = new WPainterPath();
+		moved.arcMoveTo(60, 50, 20, 20, 0);
+		moved.arcTo(60, 50, 20, 0, 90);
+		assertNull(moved.getJsValueUpdate(arc, "p0"));
+	}
+}
@@ -0,0 +1,27 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.junit.Test;
+
+public class WResourceTest {
+	@Test
+	public void testParseRange() {
+		assertArrayEquals(new long[] { 0, 99 }, WResource.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[] { 500, 999 }, WResource.parseRange("bytes=500-", 1000));
+		assertArrayEquals(new long[] { 900, 999 }, WResource.parseRange("bytes=-100", 1000));
+		assertArrayEquals(new long[] { 0, 999 }, WResource.parseRange("bytes=-5000", 1000));
+		assertArrayEquals(new long[] { 10, 999 }, WResource.parseRange("bytes=10-5000", 1000));
+
+		assertSame(WResource.UNSATISFIABLE_RANGE, WResource.parseRange("bytes=1000-", 1000));
+		assertSame(WResource.UNSATISFIABLE_RANGE, WResource.parseRange("bytes=-0", 1000));
+
+		assertNull(WResource.parseRange("bytes=0-1,5-6", 1000));
+		assertNull(WResource.parseRange("bytes=20-10", 1000));
+		assertNull(WResource.parseRange("bytes=-", 1000));
+		assertNull(WResource.parseRange("bytes=a-b", 1000));
+		assertNull(WResource.parseRange("items=0-10", 1000));
+	}
+}
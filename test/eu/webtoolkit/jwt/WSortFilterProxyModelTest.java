@@ -0,0 +1,208 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+public class WSortFilterProxyModelTest {
+	private static final int[] VALUES = { 5, 3, 9, 1, 7, 3, 8 };
+
+	private static WStandardItemModel createModel() {
+		WStandardItemModel model = new WStandardItemModel();
+		List<WStandardItem> items = new ArrayList<WStandardItem>();
+		for (int v : VALUES) {
+			WStandardItem item = new WStandardItem();
+			item.setData(v, ItemDataRole.Display);
+			items.add(item);
+		}
+		model.getInvisibleRootItem().appendRows(items);
+		return model;
+	}
+
+	private static void appendValues(WStandardItemModel model, int... values) {
+		List<WStandardItem> items = new ArrayList<WStandardItem>();
+		for (int v : values) {
+			WStandardItem item = new WStandardItem();
+			item.setData(v, ItemDataRole.Display);
+			items.add(item);
+		}
+		model.getInvisibleRootItem().appendRows(items);
+	}
+
+	private static int value(WAbstractItemModel model, int row) {
+		return (Integer) model.getData(row, 0);
+	}
+
+	private static void assertSorted(WSortFilterProxyModel proxy, int expectedRows) {
+		assertEquals(expectedRows, proxy.getRowCount());
+		for (int i = 0; i < proxy.getRowCount(); ++i) {
+			WModelIndex index = proxy.getIndex(i, 0);
+			WModelIndex source = proxy.mapToSource(index);
+			assertEquals(i, proxy.mapFromSource(source).getRow());
+			if (i > 0)
+				assertEquals(true, value(proxy, i - 1) <= value(proxy, i));
+		}
+	}
+
+	@Test
+	public void testSort() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel();
+		WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.sort(0, SortOrder.Ascending);
+
+		assertSorted(proxy, VALUES.length);
+		assertEquals(1, value(proxy, 0));
+		assertEquals(9, value(proxy, VALUES.length - 1));
+
+		// equal keys keep their source order
+		assertEquals(1, proxy.mapToSource(proxy.getIndex(1, 0)).getRow());
+		assertEquals(5, proxy.mapToSource(proxy.getIndex(2, 0)).getRow());
+
+		proxy.sort(0, SortOrder.Descending);
+		assertEquals(9, value(proxy, 0));
+		assertEquals(1, value(proxy, VALUES.length - 1));
+	}
+
+	@Test
+	public void testFilter() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel();
+		WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.setFilterRegExp(Pattern.compile("[13]"));
+
+		assertEquals(3, proxy.getRowCount());
+		assertEquals(null, proxy.mapFromSource(model.getIndex(0, 0)));
+		assertEquals(0, proxy.mapFromSource(model.getIndex(1, 0)).getRow());
+	}
+
+	@Test
+	public void testDynamicInsertAndRemove() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel();
+		WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.setDynamicSortFilter(true);
+		proxy.setFilterRegExp(Pattern.compile("\\d"));
+		proxy.sort(0, SortOrder.Ascending);
+
+		appendValues(model, 4, 0, 12, 6, 2);
+		assertSorted(proxy, VALUES.length + 4);
+		assertEquals(0, value(proxy, 0));
+		assertEquals(null, proxy.mapFromSource(model.getIndex(VALUES.length + 2, 0)));
+
+		model.removeRows(1, 4);
+		assertSorted(proxy, VALUES.length);
+		assertEquals(model.getRowCount() - 1, VALUES.length);
+
+		model.setData(0, 0, 10);
+		assertSorted(proxy, VALUES.length - 1);
+	}
+
+	@Test
+	public void testScatteredInsertAndRemoveSignals() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel();
+		final WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.setDynamicSortFilter(true);
+		proxy.sort(0, SortOrder.Ascending);
+
+		final int[] rowCount = { proxy.getRowCount() };
+		proxy.rowsInserted().addListener(null, (WModelIndex parent, Integer first, Integer last) -> {
+			rowCount[0] += last - first + 1;
+			assertEquals(rowCount[0], proxy.getRowCount());
+			for (int i = first; i <= last; ++i)
+				assertEquals(i, proxy.mapFromSource(proxy.mapToSource(proxy.getIndex(i, 0))).getRow());
+		});
+		proxy.rowsRemoved().addListener(null, (WModelIndex parent, Integer first, Integer last) -> {
+			rowCount[0] -= last - first + 1;
+			assertEquals(rowCount[0], proxy.getRowCount());
+		});
+
+		appendValues(model, 0, 10, 4, 4, 6, 2);
+		assertSorted(proxy, VALUES.length + 6);
+
+		model.removeRows(0, 9);
+		assertSorted(proxy, VALUES.length - 3);
+	}
+
+	@Test
+	public void testParallelSortFilter() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel();
+		List<WStandardItem> items = new ArrayList<WStandardItem>();
+		for (int i = 0; i < 20000; ++i) {
+			WStandardItem item = new WStandardItem();
+			item.setData((i * 7919) % 1000, ItemDataRole.Display);
+			items.add(item);
+		}
+		model.getInvisibleRootItem().appendRows(items);
+
+		WSortFilterProxyModel serial = new WSortFilterProxyModel();
+		serial.setSourceModel(model);
+		serial.setFilterRegExp(Pattern.compile(".*[02468]"));
+		serial.sort(0, SortOrder.Descending);
+
+		WSortFilterProxyModel parallel = new WSortFilterProxyModel();
+		parallel.setParallelSortFilter(true);
+		parallel.setSourceModel(model);
+		parallel.setFilterRegExp(Pattern.compile(".*[02468]"));
+		parallel.sort(0, SortOrder.Descending);
+
+		assertEquals(10000, parallel.getRowCount());
+		assertEquals(serial.getRowCount(), parallel.getRowCount());
+		for (int i = 0; i < serial.getRowCount(); ++i)
+			assertEquals(serial.mapToSource(serial.getIndex(i, 0)).getRow(),
+					parallel.mapToSource(parallel.getIndex(i, 0)).getRow());
+	}
+
+	@Test
+	public void testTreeInsertAndRemove() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = createModel();
+		for (int i = 0; i < VALUES.length; ++i) {
+			WStandardItem parent = model.getItem(i, 0);
+			for (int j = 0; j < 3; ++j) {
+				WStandardItem child = new WStandardItem();
+				child.setData(VALUES[i] * 10 + j, ItemDataRole.Display);
+				parent.appendRow(child);
+			}
+		}
+
+		WSortFilterProxyModel proxy = new WSortFilterProxyModel();
+		proxy.setSourceModel(model);
+		proxy.setDynamicSortFilter(true);
+		proxy.sort(0, SortOrder.Descending);
+
+		for (int i = 0; i < proxy.getRowCount(); ++i)
+			assertEquals(3, proxy.getRowCount(proxy.getIndex(i, 0)));
+
+		model.insertRows(0, 2);
+		model.getItem(3, 0).insertRow(0, new WStandardItem());
+		model.removeRows(5, 1);
+
+		for (int i = 0; i < proxy.getRowCount(); ++i) {
+			WModelIndex parent = proxy.getIndex(i, 0);
+			WModelIndex sourceParent = proxy.mapToSource(parent);
+			assertEquals(model.getRowCount(sourceParent), proxy.getRowCount(parent));
+			for (int j = 0; j < proxy.getRowCount(parent); ++j) {
+				WModelIndex child = proxy.getIndex(j, 0, parent);
+				assertEquals(sourceParent, proxy.mapToSource(child).getParent());
+				assertEquals(child, proxy.mapFromSource(proxy.mapToSource(child)));
+			}
+		}
+	}
+}
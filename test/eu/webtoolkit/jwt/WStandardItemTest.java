@@ -0,0 +1,97 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.SortedMap;
+
+import org.junit.Test;
+
+public class WStandardItemTest {
+	@Test
+	public void testRoleStorage() {
+		WStandardItem item = new WStandardItem();
+		ItemDataRole userRole = ItemDataRole.of(ItemDataRole.User.getValue() + 1);
+
+		item.setData("tip", ItemDataRole.ToolTip);
+		item.setData("text", ItemDataRole.Edit);
+		item.setData("odd", ItemDataRole.StyleClass);
+		item.setData(7, ItemDataRole.BarBrushColor);
+		item.setData(42, userRole);
+
+		assertEquals("text", item.getData(ItemDataRole.Display));
+		assertEquals("text", item.getData(ItemDataRole.Edit));
+		assertEquals("tip", item.getData(ItemDataRole.ToolTip));
+		assertEquals("odd", item.getData(ItemDataRole.StyleClass));
+		assertEquals(7, item.getData(ItemDataRole.BarBrushColor));
+		assertEquals(42, item.getData(userRole));
+		assertNull(item.getData(ItemDataRole.Decoration));
+		assertNull(item.getData(ItemDataRole.User));
+
+		item.setData(null, ItemDataRole.StyleClass);
+		item.setData("tip 2", ItemDataRole.ToolTip);
+		assertNull(item.getData(ItemDataRole.StyleClass));
+		assertEquals("tip 2", item.getData(ItemDataRole.ToolTip));
+		assertEquals(7, item.getData(ItemDataRole.BarBrushColor));
+
+		WStandardItem copy = item.clone();
+		item.setData(null, ItemDataRole.ToolTip);
+		assertEquals("tip 2", copy.getData(ItemDataRole.ToolTip));
+		assertEquals(42, copy.getData(userRole));
+	}
+
+	@Test
+	public void testItemData() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel(2, 2);
+		model.setData(0, 1, "text", ItemDataRole.Display);
+		model.setData(0, 1, "tip", ItemDataRole.ToolTip);
+		model.setData(0, 1, 3, ItemDataRole.User);
+
+		SortedMap<ItemDataRole, Object> data = model.getItemData(model.getIndex(0, 1));
+		assertEquals(21, data.size());
+		assertEquals("tip", data.get(ItemDataRole.ToolTip));
+		assertNull(data.get(ItemDataRole.Decoration));
+		assertEquals("text", data.get(ItemDataRole.Edit));
+		assertEquals(3, data.get(ItemDataRole.User));
+
+		model.copyData(model.getIndex(0, 1), model.getIndex(1, 0));
+		assertEquals("tip", model.getData(model.getIndex(1, 0), ItemDataRole.ToolTip));
+		assertEquals(21, model.getItemData(model.getIndex(1, 1)).size());
+		assertNull(model.getItemData(model.getIndex(1, 1)).get(ItemDataRole.Display));
+	}
+
+	@Test
+	public void testOverriddenGetData() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel(2, 2) {
+			@Override
+			public Object getData(WModelIndex index, ItemDataRole role) {
+				if (role.equals(ItemDataRole.ToolTip))
+					return "computed " + index.getRow();
+				return super.getData(index, role);
+			}
+		};
+		model.setData(0, 0, "text", ItemDataRole.Display);
+		assertEquals("computed 0", model.getItemData(model.getIndex(0, 0)).get(ItemDataRole.ToolTip));
+		assertEquals("text", model.getItemData(model.getIndex(0, 0)).get(ItemDataRole.Edit));
+
+		model.copyData(model.getIndex(0, 0), model.getIndex(1, 1));
+		assertEquals("computed 0", model.getItem(1, 1).getData(ItemDataRole.ToolTip));
+
+		WStandardItemModel itemModel = new WStandardItemModel(1, 1);
+		itemModel.setItem(0, 0, new WStandardItem("text") {
+			@Override
+			public Object getData(ItemDataRole role) {
+				if (role.equals(ItemDataRole.StyleClass))
+					return "computed";
+				return super.getData(role);
+			}
+		});
+		SortedMap<ItemDataRole, Object> data = itemModel.getItemData(itemModel.getIndex(0, 0));
+		assertEquals("computed", data.get(ItemDataRole.StyleClass));
+		assertEquals("text", data.get(ItemDataRole.Display));
+	}
+}
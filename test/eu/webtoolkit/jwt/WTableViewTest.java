@@ -0,0 +1,180 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+public class WTableViewTest {
+	@Test
+	public void testCoalescedDataChanges() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel(20, 3);
+		for (int r = 0; r < 20; ++r)
+			for (int c = 0; c < 3; ++c)
+				model.setData(r, c, r * 3 + c);
+
+		WTableView table = new WTableView(app.getRoot());
+		table.setModel(model);
+		table.render(EnumSet.of(RenderFlag.Full));
+
+		for (int i = 0; i < 3; ++i)
+			model.setData(1, 1, 100 + i);
+		model.setData(2, 0, 200);
+
+		assertEquals(2, table.getCoalescedUpdateCount());
+		assertEquals(0, table.getAppliedUpdateCount());
+
+		table.render(EnumSet.noneOf(RenderFlag.class));
+		assertEquals(2, table.getAppliedUpdateCount());
+
+		// inserting rows rerenders the data, which supersedes the pending update
+		model.setData(5, 2, 300);
+		model.insertRows(0, 2);
+		table.render(EnumSet.noneOf(RenderFlag.class));
+		assertEquals(3, table.getCoalescedUpdateCount());
+		assertEquals(2, table.getAppliedUpdateCount());
+		assertEquals(300, model.getData(7, 2));
+	}
+
+	private static Set<WWidget> renderedCells(WTableView table, WAbstractItemModel model) {
+		Set<WWidget> result = new HashSet<WWidget>();
+		for (int r = 0; r < model.getRowCount(); ++r) {
+			WModelIndex index = model.getIndex(r, 0);
+			WWidget w = table.itemWidget(index);
+			if (w != null) {
+				result.add(w);
+				// odd rows contain markup, and must keep their text format when recycled
+				WText text = (WText) w.find("t");
+				assertEquals(model.getData(index).toString(), text.getText().toString());
+				assertEquals(r % 2 == 1 ? TextFormat.XHTML : TextFormat.Plain, text.getTextFormat());
+			}
+		}
+		return result;
+	}
+
+	private static int reused(Set<WWidget> before, Set<WWidget> after) {
+		int result = 0;
+		for (WWidget w : after)
+			if (before.contains(w))
+				++result;
+		return result;
+	}
+
+	@Test
+	public void testRecycledCells() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel();
+		for (int r = 0; r < 1000; ++r) {
+			WStandardItem item = new WStandardItem();
+			if (r % 2 == 1) {
+				item.setText("<b>" + r + "</b>");
+				item.setFlags(EnumSet.of(ItemFlag.Selectable, ItemFlag.XHTMLText));
+			} else
+				item.setText("" + r);
+			model.appendRow(item);
+		}
+
+		WTableView table = new WTableView(app.getRoot());
+		table.setModel(model);
+		table.resize(new WLength(400), new WLength(300));
+		table.render(EnumSet.of(RenderFlag.Full));
+		Set<WWidget> initial = renderedCells(table, model);
+		assertTrue(model.getRowCount() > initial.size());
+
+		// a small scroll keeps the overlapping rows, and recycles the others
+		table.scrollTo(model.getIndex(20, 0), ScrollHint.PositionAtTop);
+		table.render(EnumSet.noneOf(RenderFlag.class));
+		Set<WWidget> scrolled = renderedCells(table, model);
+		assertEquals(initial.size(), reused(initial, scrolled));
+
+		// a jump past the rendered rows resets the table, but still recycles all of its cells
+		table.scrollTo(model.getIndex(500, 0), ScrollHint.PositionAtTop);
+		table.render(EnumSet.noneOf(RenderFlag.class));
+		Set<WWidget> jumped = renderedCells(table, model);
+		assertTrue(table.itemWidget(model.getIndex(0, 0)) == null);
+		assertEquals(scrolled.size(), jumped.size());
+		assertEquals(jumped.size(), reused(scrolled, jumped));
+	}
+
+	private static class CountingModel extends WAbstractTableModel {
+		int indexes = 0;
+
+		@Override
+		public int getRowCount(WModelIndex parent) {
+			return parent == null ? 100000 : 0;
+		}
+
+		@Override
+		public int getColumnCount(WModelIndex parent) {
+			return parent == null ? 2 : 0;
+		}
+
+		@Override
+		public Object getData(WModelIndex index, ItemDataRole role) {
+			return role.equals(ItemDataRole.Display) ? index.getRow() : null;
+		}
+
+		@Override
+		public WModelIndex getIndex(int row, int column, WModelIndex parent) {
+			++indexes;
+			return super.getIndex(row, column, parent);
+		}
+	}
+
+	private static WTableView createSelectingView(WApplication app, WAbstractItemModel model) {
+		WTableView table = new WTableView(app.getRoot());
+		table.setModel(model);
+		table.setSelectionMode(SelectionMode.Extended);
+		table.setSelectionBehavior(SelectionBehavior.Items);
+		table.render(EnumSet.of(RenderFlag.Full));
+		return table;
+	}
+
+	@Test
+	public void testSelectRange() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+
+		// default flags: every cell is selectable, and is not probed
+		CountingModel model = new CountingModel();
+		WTableView table = createSelectingView(app, model);
+		model.indexes = 0;
+		table.selectRange(model.getIndex(0, 0), model.getIndex(99999, 1));
+		assertEquals(200000, table.getSelectedIndexes().size());
+		assertTrue(model.indexes < 1000);
+
+		// overridden flags are probed for every row
+		CountingModel oddRows = new CountingModel() {
+			@Override
+			public EnumSet<ItemFlag> getFlags(WModelIndex index) {
+				if (index.getRow() % 2 == 1)
+					return EnumSet.of(ItemFlag.Selectable);
+				else
+					return EnumSet.noneOf(ItemFlag.class);
+			}
+		};
+		table = createSelectingView(app, oddRows);
+		table.selectRange(oddRows.getIndex(0, 0), oddRows.getIndex(99999, 0));
+		assertEquals(50000, table.getSelectedIndexes().size());
+		assertTrue(table.isSelected(oddRows.getIndex(99999, 0)));
+
+		// cells of a standard item model without an item are not selectable
+		WStandardItemModel standardModel = new WStandardItemModel(1000, 2);
+		for (int r = 0; r < 1000; ++r)
+			if (r < 10 || r >= 20)
+				standardModel.setData(r, 1, r);
+		standardModel.getItem(500, 1).setFlags(EnumSet.noneOf(ItemFlag.class));
+		table = createSelectingView(app, standardModel);
+		table.selectRange(standardModel.getIndex(0, 1), standardModel.getIndex(999, 1));
+		assertEquals(989, table.getSelectedIndexes().size());
+		assertTrue(table.isSelected(standardModel.getIndex(9, 1)));
+		assertTrue(!table.isSelected(standardModel.getIndex(10, 1)));
+		assertTrue(!table.isSelected(standardModel.getIndex(500, 1)));
+	}
+}
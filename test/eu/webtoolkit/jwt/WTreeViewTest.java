@@ -4,6 +4,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
 import org.junit.Test;
 
 public class WTreeViewTest {
@@ -59,4 +63,57 @@ public class WTreeViewTest {
 		assertFalse(tree.isExpanded(model.getIndex(1, 0, model.getIndex(2, 0))));
 		assertFalse(tree.isExpanded(model.getIndex(0, 0, model.getIndex(1, 0, model.getIndex(2, 0)))));
 	}
+
+	private static int countRows(WTreeView tree, WAbstractItemModel model, WModelIndex index) {
+		int result = index == null ? 0 : 1;
+		if (index == null || tree.isExpanded(index))
+			for (int i = 0; i < model.getRowCount(index); ++i)
+				result += countRows(tree, model, model.getIndex(i, 0, index));
+		return result;
+	}
+
+	@Test
+	public void testWideFanOut() {
+		WApplication app = new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel();
+		WStandardItem top = new WStandardItem("top");
+		List<WStandardItem> children = new ArrayList<WStandardItem>();
+		for (int i = 0; i < 50000; ++i) {
+			WStandardItem child = new WStandardItem("child " + i);
+			if (i % 1000 == 0)
+				for (int j = 0; j < 3; ++j)
+					child.appendRow(new WStandardItem("grandchild " + j));
+			children.add(child);
+		}
+		top.appendRows(children);
+		model.appendRow(top);
+		model.appendRow(new WStandardItem("bottom"));
+
+		WTreeView tree = new WTreeView(app.getRoot());
+		tree.setModel(model);
+		tree.render(EnumSet.of(RenderFlag.Full));
+
+		WModelIndex topIndex = model.getIndex(0, 0);
+		tree.expand(topIndex);
+		tree.expand(model.getIndex(25000, 0, topIndex));
+		tree.render(EnumSet.noneOf(RenderFlag.class));
+		assertEquals(50005, tree.subTreeHeight(null));
+		assertEquals(countRows(tree, model, null), tree.subTreeHeight(null));
+
+		tree.expand(model.getIndex(49000, 0, topIndex));
+		tree.collapse(model.getIndex(25000, 0, topIndex));
+		assertEquals(50005, tree.subTreeHeight(null));
+
+		top.insertRows(10, 5);
+		model.getItem(0, 0).removeRows(20000, 10);
+		assertTrue(tree.isExpanded(model.getIndex(48995, 0, topIndex)));
+		tree.render(EnumSet.noneOf(RenderFlag.class));
+		assertEquals(countRows(tree, model, null), tree.subTreeHeight(null));
+
+		tree.collapse(topIndex);
+		assertEquals(2, tree.subTreeHeight(null));
+		tree.expand(topIndex);
+		assertEquals(countRows(tree, model, null), tree.subTreeHeight(null));
+	}
 }
@@ -0,0 +1,187 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.websocket.RemoteEndpoint;
+import javax.websocket.SendHandler;
+import javax.websocket.SendResult;
+import javax.websocket.Session;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class WebSocketConnectionTest {
+	/*
+	 * Records the messages passed to the async remote, and lets the test decide when
+	 * each send completes.
+	 */
+	private static class Remote implements InvocationHandler {
+		List<String> sent = new ArrayList<String>();
+		List<SendHandler> handlers = new ArrayList<SendHandler>();
+		Map<String, Object> userProperties = new HashMap<String, Object>();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			if (method.getName().equals("getUserProperties"))
+				return userProperties;
+			if (method.getName().equals("getAsyncRemote"))
+				return Proxy.newProxyInstance(getClass().getClassLoader(),
+						new Class<?>[] { RemoteEndpoint.Async.class }, this);
+			if (method.getName().equals("sendText")) {
+				sent.add((String) args[0]);
+				handlers.add((SendHandler) args[1]);
+				return null;
+			}
+			throw new UnsupportedOperationException(method.getName());
+		}
+
+		void complete() {
+			handlers.remove(0).onResult(new SendResult());
+		}
+	}
+
+	private static class Connection extends WebSocketConnection {
+		int retries = 0;
+
+		Connection(Session session) throws IOException {
+			super(session, new HashMap<String, List<String>>());
+		}
+
+		@Override
+		boolean isAsyncPush() {
+			return true;
+		}
+
+		@Override
+		void retryPush() {
+			++retries;
+		}
+
+		void write(String message) throws IOException {
+			out().write(message);
+			flushBuffer();
+		}
+	}
+
+	private static void setServletApi(ServletApi api) throws Exception {
+		Field field = WtServlet.class.getDeclaredField("servletApi");
+		field.setAccessible(true);
+		field.set(null, api);
+	}
+
+	/*
+	 * A WebResponse wraps the mockup response of the servlet API, which is normally
+	 * configured when the servlet is initialized.
+	 */
+	@BeforeClass
+	public static void setUp() throws Exception {
+		setServletApi(new ServletApi4());
+	}
+
+	@AfterClass
+	public static void tearDown() throws Exception {
+		setServletApi(null);
+	}
+
+	private static Connection createConnection(Remote remote) throws IOException {
+		Session session = (Session) Proxy.newProxyInstance(WebSocketConnectionTest.class.getClassLoader(),
+				new Class<?>[] { Session.class }, remote);
+		return new Connection(session);
+	}
+
+	@Test
+	public void testQueueing() throws IOException {
+		Remote remote = new Remote();
+		Connection connection = createConnection(remote);
+
+		connection.write("a();");
+		assertTrue(connection.isWebSocketMessagePending());
+		connection.write("bb();");
+		connection.write("ccc();");
+
+		// only one message is in flight, the others wait in their own frame
+		assertEquals(1, remote.sent.size());
+		assertEquals(2, connection.getQueuedMessages());
+		assertEquals(11, connection.getQueuedSize());
+
+		remote.complete();
+		assertEquals(2, remote.sent.size());
+		assertEquals("bb();", remote.sent.get(1));
+		assertEquals(1, connection.getQueuedMessages());
+		assertEquals(6, connection.getQueuedSize());
+
+		remote.complete();
+		remote.complete();
+		assertEquals(3, remote.sent.size());
+		assertEquals("ccc();", remote.sent.get(2));
+		assertFalse(connection.isWebSocketMessagePending());
+		assertEquals(0, connection.getQueuedSize());
+		assertEquals(11, connection.getMaxQueuedSize());
+		assertEquals(3, connection.getSentMessages());
+		assertEquals(0, connection.retries);
+	}
+
+	@Test
+	public void testDeferredPush() throws IOException {
+		Remote remote = new Remote();
+		Connection connection = createConnection(remote);
+
+		assertFalse(connection.deferPushUpdates());
+		connection.write("a();");
+
+		// querying does not defer anything
+		assertTrue(connection.isWebSocketMessagePending());
+		remote.complete();
+		assertEquals(0, connection.retries);
+
+		// pushes are coalesced into a single retry, once everything was sent
+		connection.write("b();");
+		connection.write("c();");
+		assertTrue(connection.deferPushUpdates());
+		assertTrue(connection.deferPushUpdates());
+		assertEquals(2, connection.getDeferredPushes());
+
+		remote.complete();
+		assertEquals(0, connection.retries);
+		remote.complete();
+		assertEquals(1, connection.retries);
+		assertFalse(connection.deferPushUpdates());
+		assertEquals(2, connection.getDeferredPushes());
+	}
+
+	@Test
+	public void testBackPressure() throws IOException {
+		Remote remote = new Remote();
+		Connection connection = createConnection(remote);
+
+		// a slow client: nothing completes while the application keeps writing
+		for (int i = 0; i < 100; ++i) {
+			connection.write("m" + i + ";");
+			connection.deferPushUpdates();
+		}
+		assertEquals(1, remote.sent.size());
+		assertEquals(99, connection.getQueuedMessages());
+		assertEquals(100, connection.getDeferredPushes());
+
+		while (!remote.handlers.isEmpty())
+			remote.complete();
+		assertEquals(100, remote.sent.size());
+		for (int i = 0; i < 100; ++i)
+			assertEquals("m" + i + ";", remote.sent.get(i));
+		assertEquals(100, connection.getSentMessages());
+		assertEquals(1, connection.retries);
+	}
+}
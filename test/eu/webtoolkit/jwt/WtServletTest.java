@@ -0,0 +1,44 @@
+package eu.webtoolkit.jwt;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WtServletTest {
+	@Test
+	public void testStaticResourceIndex() {
+		WtServlet.StaticResourceIndex index = new WtServlet.StaticResourceIndex();
+		assertTrue(index.isEmpty());
+
+		WResource health = new WMemoryResource("text/plain");
+		WResource api = new WMemoryResource("text/plain");
+		WResource apiExport = new WMemoryResource("text/plain");
+		WResource apiB = new WMemoryResource("text/plain");
+		assertTrue(index.add("/app/health", health));
+		assertTrue(index.add("/app/api/", api));
+		assertTrue(index.add("/app/api/export/", apiExport));
+		assertTrue(index.add("/app/api/b/", apiB));
+		assertFalse(index.add("/app/api/", apiB));
+
+		// exact paths
+		assertSame(health, index.find("/app/health"));
+		assertSame(api, index.find("/app/api/"));
+		assertNull(index.find("/app/health/more"));
+		assertNull(index.find("/app/api"));
+		assertNull(index.find("/app"));
+
+		// the longest matching prefix wins
+		assertSame(api, index.find("/app/api/items/3"));
+		assertSame(apiExport, index.find("/app/api/export/all.csv"));
+		assertSame(apiB, index.find("/app/api/b/c"));
+
+		// prefixes that sort between the match and the request path are skipped
+		assertSame(api, index.find("/app/api/c"));
+		assertSame(api, index.find("/app/api/export"));
+		assertSame(api, index.find("/app/api/f"));
+		assertNull(index.find("/app/apis/x"));
+	}
+}
@@ -0,0 +1,114 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+import eu.webtoolkit.jwt.WApplication;
+import eu.webtoolkit.jwt.WStandardItemModel;
+import eu.webtoolkit.jwt.WTestEnvironment;
+
+public class WChart2DImplementationTest {
+	private static class CountingModel extends WColumnarChartModel {
+		int valuesRead;
+
+		CountingModel() {
+			super(2);
+		}
+
+		@Override
+		public void getColumnData(int column, int row, int count, double[] values) {
+			valuesRead += count;
+			super.getColumnData(column, row, count, values);
+		}
+	}
+
+	private static WAbstractChartImplementation.RenderRange yRange(WChart2DImplementation chart) {
+		return chart.computeRenderRange(Axis.Y, 0, 0, AxisScale.Linear);
+	}
+
+	@Test
+	public void testIncrementalExtremes() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		CountingModel model = new CountingModel();
+		for (int row = 0; row < 1000; ++row)
+			model.appendRow(row, Math.sin(row / 10.0));
+
+		WCartesianChart chart = new WCartesianChart(ChartType.Scatter);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		WDataSeries series = new WDataSeries(1, SeriesType.Line);
+		chart.addSeries(series);
+		WChart2DImplementation implementation = new WChart2DImplementation(chart);
+
+		assertEquals(1.0, yRange(implementation).maximum, 0.01);
+		assertEquals(2000, model.valuesRead);
+		assertEquals(1.0, yRange(implementation).maximum, 0.01);
+		assertEquals(2000, model.valuesRead);
+
+		model.appendRows(new double[] { 1000, 1001 }, new double[] { 5, -5 });
+		WAbstractChartImplementation.RenderRange range = yRange(implementation);
+		assertEquals(5.0, range.maximum, 0.0);
+		assertEquals(-5.0, range.minimum, 0.0);
+		assertEquals(2004, model.valuesRead);
+
+		model.appendRow(1002, 0);
+		model.setData(1002, 1, 9);
+		assertEquals(9.0, yRange(implementation).maximum, 0.0);
+		assertEquals(2006, model.valuesRead);
+
+		model.setData(1001, 1, 0);
+		assertEquals(-1.0, yRange(implementation).minimum, 0.01);
+		assertEquals(4012, model.valuesRead);
+
+		series.setHidden(true);
+		assertEquals(-Double.MAX_VALUE, yRange(implementation).maximum, 0.0);
+		assertEquals(4012, model.valuesRead);
+		series.setHidden(false);
+		assertEquals(9.0, yRange(implementation).maximum, 0.0);
+		assertEquals(6018, model.valuesRead);
+
+		model.setMaximumRowCount(100);
+		assertEquals(9.0, yRange(implementation).maximum, 0.0);
+		assertEquals(6218, model.valuesRead);
+	}
+
+	@Test
+	public void testProxyModelAppend() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		WStandardItemModel model = new WStandardItemModel(10, 2);
+		for (int row = 0; row < 10; ++row) {
+			model.setData(row, 0, (double) row);
+			model.setData(row, 1, (double) row);
+		}
+
+		WCartesianChart chart = new WCartesianChart(ChartType.Scatter);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		chart.addSeries(new WDataSeries(1, SeriesType.Line));
+		WChart2DImplementation implementation = new WChart2DImplementation(chart);
+		assertEquals(9.0, yRange(implementation).maximum, 0.0);
+
+		model.insertRows(10, 1);
+		model.setData(10, 0, 10.0);
+		model.setData(10, 1, 42.0);
+		assertEquals(42.0, yRange(implementation).maximum, 0.0);
+
+		model.setData(3, 1, -3.0);
+		assertEquals(-3.0, yRange(implementation).minimum, 0.0);
+		model.removeRows(0, 4);
+		assertEquals(4.0, yRange(implementation).minimum, 0.0);
+	}
+
+	@Test
+	public void testLabelCache() {
+		WAxis axis = new WAxis();
+		assertEquals(String.format("%.4g", 1.5), axis.getLabel(1.5).toString());
+		assertEquals(String.format("%.4g", 1.5), axis.getLabel(1.5).toString());
+		axis.setLabelFormat("%.2f");
+		assertEquals(String.format("%.2f", 1.5), axis.getLabel(1.5).toString());
+	}
+}
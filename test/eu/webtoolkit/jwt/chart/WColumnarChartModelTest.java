@@ -0,0 +1,103 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+import eu.webtoolkit.jwt.WApplication;
+import eu.webtoolkit.jwt.WLength;
+import eu.webtoolkit.jwt.WPainter;
+import eu.webtoolkit.jwt.WRectF;
+import eu.webtoolkit.jwt.WStandardItemModel;
+import eu.webtoolkit.jwt.WSvgImage;
+import eu.webtoolkit.jwt.WTestEnvironment;
+
+public class WColumnarChartModelTest {
+	private static double[] column(WAbstractChartModel model, int column) {
+		double[] values = new double[model.getRowCount()];
+		model.getColumnData(column, 0, values.length, values);
+		return values;
+	}
+
+	@Test
+	public void testRingBuffer() {
+		WColumnarChartModel model = new WColumnarChartModel(2);
+		final int[] changes = new int[1];
+		model.changed().addListener(null, () -> {
+			++changes[0];
+		});
+
+		model.setMaximumRowCount(5);
+		model.appendRows(new double[] { 0, 1, 2 }, new double[] { 0, 10, 20 });
+		model.appendRow(3, 30);
+		assertEquals(4, model.getRowCount());
+		assertEquals(2, changes[0]);
+
+		model.appendRows(new double[] { 4, 5, 6 }, new double[] { 40, 50, 60 });
+		assertEquals(5, model.getRowCount());
+		assertArrayEquals(new double[] { 2, 3, 4, 5, 6 }, column(model, 0), 0.0);
+		assertArrayEquals(new double[] { 20, 30, 40, 50, 60 }, column(model, 1), 0.0);
+		assertEquals(50.0, model.getData(3, 1), 0.0);
+
+		double[] values = new double[2];
+		model.getColumnData(0, 2, 2, values);
+		assertArrayEquals(new double[] { 4, 5 }, values, 0.0);
+
+		model.appendRows(new double[] { 7, 8, 9, 10, 11, 12, 13 }, new double[7]);
+		assertArrayEquals(new double[] { 9, 10, 11, 12, 13 }, column(model, 0), 0.0);
+
+		model.setData(0, 1, -1);
+		model.setMaximumRowCount(3);
+		assertArrayEquals(new double[] { 11, 12, 13 }, column(model, 0), 0.0);
+		model.appendRow(14, 0);
+		assertArrayEquals(new double[] { 12, 13, 14 }, column(model, 0), 0.0);
+
+		model.setMaximumRowCount(-1);
+		for (int i = 15; i < 100; ++i)
+			model.appendRow(i, 0);
+		assertEquals(88, model.getRowCount());
+		assertEquals(12.0, model.getData(0, 0), 0.0);
+		assertEquals(99.0, model.getData(87, 0), 0.0);
+	}
+
+	@Test
+	public void testRender() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		final int rows = 3000;
+		WStandardItemModel itemModel = new WStandardItemModel(rows, 3);
+		WColumnarChartModel columnarModel = new WColumnarChartModel(3);
+		columnarModel.setMaximumRowCount(rows);
+		columnarModel.appendRows(new double[1000], new double[1000], new double[1000]);
+		for (int row = 0; row < rows; ++row) {
+			double y1 = Math.sin(row / 50.0);
+			double y2 = Math.cos(row / 70.0);
+			itemModel.setData(row, 0, (double) row);
+			itemModel.setData(row, 1, y1);
+			itemModel.setData(row, 2, y2);
+			columnarModel.appendRow(row, y1, y2);
+		}
+
+		assertEquals(render(new WStandardChartProxyModel(itemModel)), render(columnarModel));
+	}
+
+	private static String render(WAbstractChartModel model) {
+		WCartesianChart chart = new WCartesianChart(ChartType.Category);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		for (int column = 1; column < 3; ++column) {
+			WDataSeries series = new WDataSeries(column, SeriesType.Line);
+			series.setStacked(true);
+			chart.addSeries(series);
+		}
+
+		WSvgImage image = new WSvgImage(new WLength(400), new WLength(300));
+		WPainter painter = new WPainter(image);
+		chart.paint(painter, new WRectF(0, 0, 400, 300));
+		painter.end();
+		String svg = image.getRendered().replaceAll("clip[0-9]+", "clip");
+		return svg.replaceAll("<text[^>]*>[^<]*</text>", "");
+	}
+}
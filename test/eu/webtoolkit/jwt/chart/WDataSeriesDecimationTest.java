@@ -0,0 +1,140 @@
+package eu.webtoolkit.jwt.chart;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import eu.webtoolkit.jwt.Configuration;
+import eu.webtoolkit.jwt.WApplication;
+import eu.webtoolkit.jwt.WLength;
+import eu.webtoolkit.jwt.WPainter;
+import eu.webtoolkit.jwt.WPointF;
+import eu.webtoolkit.jwt.WRectF;
+import eu.webtoolkit.jwt.WStandardItemModel;
+import eu.webtoolkit.jwt.WSvgImage;
+import eu.webtoolkit.jwt.WTestEnvironment;
+
+public class WDataSeriesDecimationTest {
+	private static final int ROWS = 20000;
+
+	private static String render(SeriesDecimation decimation) {
+		WStandardItemModel model = new WStandardItemModel(ROWS, 2);
+		for (int row = 0; row < ROWS; ++row) {
+			model.setData(row, 0, (double) row);
+			model.setData(row, 1, Math.sin(row / 100.0));
+		}
+
+		WCartesianChart chart = new WCartesianChart(ChartType.Scatter);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		WDataSeries series = new WDataSeries(1, SeriesType.Line);
+		series.setDecimation(decimation);
+		chart.addSeries(series);
+
+		WSvgImage image = new WSvgImage(new WLength(400), new WLength(300));
+		WPainter painter = new WPainter(image);
+		chart.paint(painter, new WRectF(0, 0, 400, 300));
+		painter.end();
+		return image.getRendered();
+	}
+
+	private static List<List<WPointF>> parsePaths(String svg) {
+		List<List<WPointF>> result = new ArrayList<List<WPointF>>();
+		Matcher m = Pattern.compile(" d=\"([^\"]*)\"").matcher(svg);
+		while (m.find()) {
+			List<WPointF> points = new ArrayList<WPointF>();
+			Matcher c = Pattern.compile("([MLl])([-\\d.]+),([-\\d.]+)").matcher(m.group(1));
+			while (c.find()) {
+				double x = Double.parseDouble(c.group(2));
+				double y = Double.parseDouble(c.group(3));
+				if (c.group(1).equals("l")) {
+					WPointF last = points.get(points.size() - 1);
+					x += last.getX();
+					y += last.getY();
+				}
+				points.add(new WPointF(x, y));
+			}
+			result.add(points);
+		}
+		return result;
+	}
+
+	private static int countLineSegments(String svg) {
+		int count = 0;
+		Matcher m = Pattern.compile(" d=\"([^\"]*)\"").matcher(svg);
+		while (m.find())
+			for (char c : m.group(1).toCharArray())
+				if (c == 'L' || c == 'l')
+					++count;
+		return count;
+	}
+
+	@Test
+	public void testDecimation() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		int all = countLineSegments(render(SeriesDecimation.None));
+		int minMax = countLineSegments(render(SeriesDecimation.MinMax));
+		int lttb = countLineSegments(render(SeriesDecimation.LargestTriangleThreeBuckets));
+
+		assertTrue(all >= ROWS - 1);
+		assertTrue(minMax > 0 && minMax < 4 * 400);
+		assertTrue(lttb > 0 && lttb < 400);
+	}
+
+	@Test
+	public void testDecimationSetting() {
+		WDataSeries series = new WDataSeries(1, SeriesType.Line);
+		assertEquals(SeriesDecimation.None, series.getDecimation());
+		series.setDecimation(SeriesDecimation.MinMax);
+		assertEquals(SeriesDecimation.MinMax, series.getDecimation());
+	}
+
+	@Test
+	public void testLargestTriangleThreeBuckets() {
+		new WApplication(new WTestEnvironment(new Configuration()));
+
+		// four pixel buckets: one point, three points, two points and one point
+		double[][] points = { { 0, 0 }, { 10.5, 4 }, { 10.5 + 1E-6, 8 }, { 10.5 + 2E-6, -6 },
+				{ 20.5, 2 }, { 20.5 + 1E-6, 3 }, { 30, 0 } };
+		WStandardItemModel model = new WStandardItemModel(points.length, 2);
+		for (int row = 0; row < points.length; ++row) {
+			model.setData(row, 0, points[row][0]);
+			model.setData(row, 1, points[row][1]);
+		}
+
+		WCartesianChart chart = new WCartesianChart(ChartType.Scatter);
+		chart.setModel(model);
+		chart.setXSeriesColumn(0);
+		WDataSeries series = new WDataSeries(1, SeriesType.Line);
+		series.setDecimation(SeriesDecimation.LargestTriangleThreeBuckets);
+		chart.addSeries(series);
+
+		WSvgImage image = new WSvgImage(new WLength(400), new WLength(300));
+		WPainter painter = new WPainter(image);
+		chart.paint(painter, new WRectF(0, 0, 400, 300));
+		painter.end();
+
+		// the series path: LTTB keeps (10.5, -6) and (20.5, 3) with the largest triangles
+		WPointF first = chart.mapToDevice(0, 0, Axis.Y1);
+		List<WPointF> path = null;
+		for (List<WPointF> p : parsePaths(image.getRendered()))
+			if (p.size() == 4 && Math.abs(p.get(0).getX() - first.getX()) < 0.01
+					&& Math.abs(p.get(0).getY() - first.getY()) < 0.01)
+				path = p;
+		assertTrue(path != null);
+		int[] selected = { 0, 3, 5, 6 };
+		for (int i = 0; i < selected.length; ++i) {
+			WPointF expected = chart.mapToDevice(points[selected[i]][0], points[selected[i]][1],
+					Axis.Y1);
+			assertEquals(expected.getX(), path.get(i).getX(), 0.01);
+			assertEquals(expected.getY(), path.get(i).getY(), 0.01);
+		}
+	}
+}
@@ -0,0 +1,22 @@
+package eu.webtoolkit.jwt.servlet;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class WebRequestTest {
+	@Test
+	public void testAcceptsEncoding() {
+		assertFalse(WebRequest.acceptsEncoding(null, "gzip"));
+		assertFalse(WebRequest.acceptsEncoding("", "gzip"));
+		assertTrue(WebRequest.acceptsEncoding("gzip", "gzip"));
+		assertTrue(WebRequest.acceptsEncoding("deflate, GZIP", "gzip"));
+		assertTrue(WebRequest.acceptsEncoding("br;q=1.0, gzip;q=0.8", "gzip"));
+		assertFalse(WebRequest.acceptsEncoding("gzip;q=0", "gzip"));
+		assertFalse(WebRequest.acceptsEncoding("gzip;q=0.000, *", "gzip"));
+		assertTrue(WebRequest.acceptsEncoding("identity, *", "gzip"));
+		assertFalse(WebRequest.acceptsEncoding("*;q=0", "gzip"));
+		assertFalse(WebRequest.acceptsEncoding("gzipped", "gzip"));
+	}
+}
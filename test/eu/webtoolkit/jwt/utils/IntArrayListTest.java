@@ -0,0 +1,97 @@
+package eu.webtoolkit.jwt.utils;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntArrayListTest {
+	private static void assertSame(List<Integer> expected, IntArrayList actual) {
+		assertEquals(expected.size(), actual.size());
+		int[] values = actual.toArray();
+		for (int i = 0; i < expected.size(); ++i) {
+			assertEquals((int) expected.get(i), actual.get(i));
+			assertEquals((int) expected.get(i), values[i]);
+		}
+	}
+
+	@Test
+	public void testBasics() {
+		IntArrayList list = new IntArrayList(2);
+		assertTrue(list.isEmpty());
+		for (int i = 0; i < 5; ++i)
+			list.add(i);
+		list.add(0, -1);
+		list.insert(3, 2, 7);
+		list.insert(list.size(), new int[] { 8, 9, 10 }, 1, 2);
+		assertArrayEquals(new int[] { -1, 0, 1, 7, 7, 2, 3, 4, 9, 10 }, list.toArray());
+
+		assertEquals(7, list.remove(3));
+		list.removeRange(0, 2);
+		list.set(0, 5);
+		assertArrayEquals(new int[] { 5, 7, 2, 3, 4, 9, 10 }, list.toArray());
+
+		list.resize(3, 0);
+		list.resize(5, -1);
+		assertArrayEquals(new int[] { 5, 7, 2, -1, -1 }, list.toArray());
+		list.fill(1);
+		assertArrayEquals(new int[] { 1, 1, 1, 1, 1 }, list.toArray());
+
+		list.clear();
+		assertEquals(0, list.size());
+		list.add(3);
+		assertArrayEquals(new int[] { 3 }, list.toArray());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfRange() {
+		IntArrayList list = new IntArrayList();
+		list.add(1);
+		list.get(1);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveRangeOutOfRange() {
+		IntArrayList list = new IntArrayList();
+		list.add(1);
+		list.removeRange(0, 2);
+	}
+
+	@Test
+	public void testRandomEdits() {
+		Random random = new Random(42);
+		List<Integer> expected = new ArrayList<Integer>();
+		IntArrayList list = new IntArrayList();
+		for (int step = 0; step < 5000; ++step) {
+			int op = random.nextInt(5);
+			if (op < 2 || expected.isEmpty()) {
+				int index = random.nextInt(expected.size() + 1);
+				int count = random.nextInt(4);
+				int[] values = new int[count];
+				for (int i = 0; i < count; ++i) {
+					values[i] = random.nextInt();
+					expected.add(index + i, values[i]);
+				}
+				list.insert(index, values, 0, count);
+			} else if (op == 2) {
+				int from = random.nextInt(expected.size());
+				int to = from + random.nextInt(Math.min(3, expected.size() - from) + 1);
+				expected.subList(from, to).clear();
+				list.removeRange(from, to);
+			} else if (op == 3) {
+				int index = random.nextInt(expected.size());
+				expected.set(index, step);
+				list.set(index, step);
+			} else {
+				expected.add(step);
+				list.add(step);
+			}
+			if (step % 100 == 0)
+				assertSame(expected, list);
+		}
+		assertSame(expected, list);
+	}
+}
@@ -0,0 +1,38 @@
+package eu.webtoolkit.jwt.utils;
+
+import static eu.webtoolkit.jwt.utils.MathUtils.*;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class MathUtilsTest {
+	private static String rounded(double v, int decimals) {
+		return appendRounded(new StringBuilder(), v, decimals).toString();
+	}
+
+	@Test
+	public void testAppendRounded() {
+		assertEquals("40", rounded(40.0, 3));
+		assertEquals("12.5", rounded(12.5, 3));
+		assertEquals("0.005", rounded(0.005, 3));
+		assertEquals("0.05", rounded(0.0504, 3));
+		assertEquals("-1.25", rounded(-1.25, 3));
+		assertEquals("0", rounded(-0.0001, 3));
+		assertEquals("3.142", rounded(Math.PI, 3));
+		assertEquals("3", rounded(Math.PI, 0));
+		assertEquals("1.000001", rounded(1.000001, 6));
+		assertEquals("NaN", rounded(Double.NaN, 3));
+		assertEquals("1.0E20", rounded(1E20, 3));
+	}
+
+	@Test
+	public void testFixedLength() {
+		double[] values = { 0, 7, -7, 10, 99.99, 100, 0.001, -0.101, 123456.789 };
+		for (double v : values) {
+			long units = toFixed(v, 3);
+			assertEquals(appendFixed(new StringBuilder(), units, 3).length(),
+					getFixedLength(units, 3));
+		}
+	}
+}
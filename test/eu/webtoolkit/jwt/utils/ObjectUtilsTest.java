@@ -0,0 +1,38 @@
+package eu.webtoolkit.jwt.utils;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class ObjectUtilsTest {
+	static class Base {
+		void f(int i) {
+		}
+
+		void g() {
+		}
+	}
+
+	static class Derived extends Base {
+		@Override
+		void f(int i) {
+		}
+	}
+
+	static class MoreDerived extends Derived {
+		void f(long l) {
+		}
+	}
+
+	@Test
+	public void testOverrides() {
+		assertFalse(ObjectUtils.overrides(Base.class, Base.class, "f", int.class));
+		assertTrue(ObjectUtils.overrides(Derived.class, Base.class, "f", int.class));
+		assertFalse(ObjectUtils.overrides(Derived.class, Base.class, "g"));
+
+		// inherited from an intermediate class, and overloads do not count
+		assertTrue(ObjectUtils.overrides(MoreDerived.class, Base.class, "f", int.class));
+		assertFalse(ObjectUtils.overrides(MoreDerived.class, Derived.class, "f", int.class));
+	}
+}